@@ -0,0 +1,128 @@
+package org.mikhi.taskM.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.mikhi.taskM.TaskManagementApplication;
+import org.mikhi.taskM.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Time to create {@code tasks} tasks over HTTP, one {@code POST /v1/tasks} per task or a single
+ * {@code POST /v1/tasks/batch} carrying all of them. Divide {@code tasks} by the score for tasks
+ * per millisecond.
+ * <p>
+ * The server runs with the shipped configuration (JDBC batches of 50, a pooled id sequence,
+ * chunks of {@code task.batch.chunk-size}) and without the per-client rate limit, which one client
+ * sending this many requests would hit. The tasks created are deleted after each iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class TaskBatchBenchmark {
+
+  @Param({"100", "1000"})
+  private int tasks;
+
+  private ConfigurableApplicationContext context;
+  private HttpClient client;
+  private List<HttpRequest> singleRequests;
+  private HttpRequest batchRequest;
+
+  @Setup(Level.Trial)
+  public void startServer() {
+    context = new SpringApplicationBuilder(TaskManagementApplication.class)
+        .bannerMode(Banner.Mode.OFF)
+        .logStartupInfo(false)
+        // Arguments rather than default properties, which application.properties would override.
+        .run("--spring.config.location=file:src/main/resources/",
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "--spring.sql.init.mode=never",
+            "--spring.jpa.show-sql=false",
+            "--task.rate-limit.enabled=false",
+            "--logging.level.root=WARN");
+
+    String baseUrl = "http://localhost:"
+        + context.getEnvironment().getRequiredProperty("local.server.port") + "/v1/tasks";
+    // HTTP/1.1: Tomcat answers an h2c upgrade carrying a batch-sized body with 413.
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    singleRequests = new ArrayList<>(tasks);
+    StringBuilder batch = new StringBuilder("[");
+    for (int i = 0; i < tasks; i++) {
+      String task = "{\"title\":\"Task " + i + "\",\"description\":\"Benchmark task " + i
+          + "\",\"status\":\"TODO\",\"dueDate\":\"2024-05-01\"}";
+      singleRequests.add(post(baseUrl, task));
+      batch.append(i == 0 ? "" : ",").append(task);
+    }
+    batchRequest = post(baseUrl + "/batch", batch.append(']').toString());
+  }
+
+  @TearDown(Level.Iteration)
+  public void deleteTasks() {
+    // Through the service, so the search index and the stats drop the tasks as well.
+    List<Long> ids = context.getBean(JdbcTemplate.class)
+        .queryForList("SELECT id FROM task", Long.class);
+    context.getBean(TaskService.class).deleteTasks(ids);
+  }
+
+  @TearDown(Level.Trial)
+  public void stopServer() {
+    context.close();
+  }
+
+  @Benchmark
+  public int createOneByOne() throws IOException, InterruptedException {
+    int created = 0;
+    for (HttpRequest request : singleRequests) {
+      created += send(request).length();
+    }
+    return created;
+  }
+
+  @Benchmark
+  public int createBatch() throws IOException, InterruptedException {
+    return send(batchRequest).length();
+  }
+
+  private String send(HttpRequest request) throws IOException, InterruptedException {
+    HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
+    if (response.statusCode() / 100 != 2) {
+      throw new IllegalStateException(response.statusCode() + " " + response.body());
+    }
+    return response.body();
+  }
+
+  private static HttpRequest post(String url, String json) {
+    return HttpRequest.newBuilder(URI.create(url))
+        .header("Content-Type", "application/json")
+        .POST(BodyPublishers.ofString(json))
+        .build();
+  }
+}
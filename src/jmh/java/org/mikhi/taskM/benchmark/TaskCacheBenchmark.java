@@ -0,0 +1,145 @@
+package org.mikhi.taskM.benchmark;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.mikhi.taskM.TaskManagementApplication;
+import org.mikhi.taskM.config.CacheConfig;
+import org.mikhi.taskM.model.BatchItemResult;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * {@code TaskService.getTaskById} latency percentiles over {@value #SEEDED_TASKS} tasks whose ids
+ * are requested with a Zipfian distribution (exponent {@value #ZIPF_EXPONENT}, as in YCSB), so a
+ * small hot set gets most of the reads.
+ * <p>
+ * {@code cacheWeight} is {@code task.cache.max-weight}: {@code 0} evicts every entry on the next
+ * maintenance pass, which is close to running without the cache; {@code 2000000} holds about a tenth of the tasks, so
+ * W-TinyLFU has to pick the hot ones; {@code 50000000}, the default, holds them all. The cache hit
+ * rate is printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class TaskCacheBenchmark {
+
+  private static final int SEEDED_TASKS = 100_000;
+  private static final double ZIPF_EXPONENT = 0.99;
+  private static final int SAMPLES = 1 << 20;
+
+  @Param({"0", "2000000", "50000000"})
+  private long cacheWeight;
+
+  private ConfigurableApplicationContext context;
+  private TaskService taskService;
+  private CaffeineCache cache;
+  private long[] requestedIds;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void startContext() {
+    context = new SpringApplicationBuilder(TaskManagementApplication.class)
+        .web(WebApplicationType.NONE)
+        .bannerMode(Banner.Mode.OFF)
+        .logStartupInfo(false)
+        // Arguments rather than default properties, which application.properties would override.
+        .run("--spring.config.location=file:src/main/resources/",
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "--spring.sql.init.mode=never",
+            "--spring.jpa.show-sql=false",
+            "--task.cache.max-weight=" + cacheWeight,
+            "--logging.level.root=WARN");
+    taskService = context.getBean(TaskService.class);
+
+    List<Task> tasks = new ArrayList<>(SEEDED_TASKS);
+    LocalDate dueDate = LocalDate.of(2024, 1, 1);
+    for (int i = 0; i < SEEDED_TASKS; i++) {
+      tasks.add(Task.builder()
+          .title("Task " + i)
+          .description("Benchmark task " + i)
+          .status(Status.values()[i % Status.values().length])
+          .dueDate(dueDate.plusDays(i % 100))
+          .build());
+    }
+    long[] ids = taskService.createTasks(tasks).stream()
+        .mapToLong(BatchItemResult::getId)
+        .toArray();
+    requestedIds = zipfian(ids, new Random(42));
+
+    Cache tasksCache = context.getBean(CacheManager.class).getCache(CacheConfig.TASKS_CACHE);
+    cache = (CaffeineCache) ((TransactionAwareCacheDecorator) tasksCache).getTargetCache();
+    // Creating the tasks put them in the cache; start every trial from an empty one.
+    cache.clear();
+  }
+
+  @TearDown(Level.Trial)
+  public void closeContext() {
+    CacheStats stats = cache.getNativeCache().stats();
+    System.out.printf("%ncache hit rate: %.1f%% (%d hits, %d misses, %d evictions)%n",
+        stats.hitRate() * 100, stats.hitCount(), stats.missCount(), stats.evictionCount());
+    context.close();
+  }
+
+  @Benchmark
+  public Task getTaskById() {
+    long id = requestedIds[next];
+    next = (next + 1) & (SAMPLES - 1);
+    return taskService.getTaskById(id);
+  }
+
+  /**
+   * Draws {@value #SAMPLES} ids, the {@code k}-th most popular with probability proportional to
+   * {@code 1 / k^s}. Popularity ranks are shuffled over the ids, so hot tasks are not adjacent.
+   */
+  private static long[] zipfian(long[] ids, Random random) {
+    long[] ranked = ids.clone();
+    for (int i = ranked.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      long swap = ranked[i];
+      ranked[i] = ranked[j];
+      ranked[j] = swap;
+    }
+    double[] cumulative = new double[ranked.length];
+    double sum = 0;
+    for (int k = 0; k < ranked.length; k++) {
+      sum += 1 / Math.pow(k + 1, ZIPF_EXPONENT);
+      cumulative[k] = sum;
+    }
+    long[] samples = new long[SAMPLES];
+    for (int i = 0; i < SAMPLES; i++) {
+      int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+      samples[i] = ranked[rank < 0 ? -rank - 1 : rank];
+    }
+    return samples;
+  }
+}
@@ -0,0 +1,113 @@
+package org.mikhi.taskM.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.mikhi.taskM.TaskManagementApplication;
+import org.mikhi.taskM.exception.NoTasksFoundException;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskField;
+import org.mikhi.taskM.model.TaskView;
+import org.mikhi.taskM.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * A filter that matches nothing, the routine case of a status no task has: {@code service} calls
+ * {@code TaskService.filterTasks} as the controller does, {@code request} sends
+ * {@code GET /v1/tasks/filter?status=DONE} through the dispatcher (MockMvc, no servlet filters)
+ * and expects a 404. The table holds {@value #SEEDED_TASKS} tasks, none of them done.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskEmptyResultBenchmark {
+
+  private static final int SEEDED_TASKS = 1_000;
+  private static final Pageable PAGE = PageRequest.of(0, 100, Sort.by("dueDate", "id"));
+
+  @Param({"jpa", "memory"})
+  private String engine;
+
+  private ConfigurableApplicationContext context;
+  private TaskService taskService;
+  private MockMvc mockMvc;
+  private MockHttpServletRequestBuilder request;
+
+  @Setup(Level.Trial)
+  public void startContext() {
+    context = new SpringApplicationBuilder(TaskManagementApplication.class)
+        .bannerMode(Banner.Mode.OFF)
+        .logStartupInfo(false)
+        .profiles("memory".equals(engine) ? new String[] {"memory"} : new String[0])
+        .properties(
+            "server.port=0",
+            "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "spring.jpa.show-sql=false",
+            "logging.level.root=WARN")
+        .run();
+    taskService = context.getBean(TaskService.class);
+    mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    request = get("/v1/tasks/filter").param("status", Status.DONE.name());
+
+    List<Task> tasks = new ArrayList<>(SEEDED_TASKS);
+    for (int i = 0; i < SEEDED_TASKS; i++) {
+      tasks.add(Task.builder().title("Task " + i).status(Status.TODO).build());
+    }
+    taskService.createTasks(tasks);
+  }
+
+  @TearDown(Level.Trial)
+  public void closeContext() {
+    context.close();
+  }
+
+  @Benchmark
+  public Object service() {
+    try {
+      List<TaskView> tasks = taskService.filterTasks(Status.DONE, null, PAGE, TaskField.ALL);
+      return tasks;
+    } catch (NoTasksFoundException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public int request() throws Exception {
+    MvcResult started = mockMvc.perform(request).andReturn();
+    int status = mockMvc.perform(asyncDispatch(started)).andReturn().getResponse().getStatus();
+    if (status != 404) {
+      throw new IllegalStateException("Expected 404, got " + status);
+    }
+    return status;
+  }
+}
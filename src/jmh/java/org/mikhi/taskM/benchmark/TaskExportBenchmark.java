@@ -0,0 +1,152 @@
+package org.mikhi.taskM.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.mikhi.taskM.TaskManagementApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Time to read {@code GET /v1/tasks/export} to the end over {@code tasks} tasks, as NDJSON and as
+ * a JSON array, and the heap the export keeps live while it runs.
+ * <p>
+ * The fork runs with a {@value #HEAP} heap, far less than {@code tasks} materialized tasks would
+ * take at the top of the range. The tasks are stored in a file-backed H2 database, so the table
+ * itself is not on the heap, and are inserted with plain SQL after startup, so the search index,
+ * the task cache and the stats stay empty. About ten times per export the heap is collected and
+ * the heap in use recorded; the largest value is printed after each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx" + TaskExportBenchmark.HEAP)
+public class TaskExportBenchmark {
+
+  static final String HEAP = "256m";
+
+  @Param({"10000", "1000000", "5000000"})
+  private int tasks;
+
+  private Path directory;
+  private ConfigurableApplicationContext context;
+  private HttpClient client;
+  private String exportUrl;
+
+  private long probeInterval;
+  private long peakLiveHeap;
+
+  @Setup(Level.Trial)
+  public void startServer() throws IOException {
+    directory = Files.createTempDirectory("task-export");
+    context = new SpringApplicationBuilder(TaskManagementApplication.class)
+        .bannerMode(Banner.Mode.OFF)
+        .logStartupInfo(false)
+        // Arguments rather than default properties, which application.properties would override.
+        // The shipped configuration lets an export run for as long as spring.mvc.async allows.
+        .run("--spring.config.location=file:src/main/resources/",
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:file:" + directory.resolve("tasks"),
+            "--spring.sql.init.mode=never",
+            "--spring.jpa.hibernate.ddl-auto=create",
+            "--spring.jpa.show-sql=false",
+            "--task.rate-limit.enabled=false",
+            // The stats would notice the inserted rows and count them all in the middle of a run.
+            "--task.stats.reconcile-interval=1d",
+            "--logging.level.root=WARN");
+    context.getBean(JdbcTemplate.class).update(
+        "INSERT INTO task (id, title, description, status, due_date, version)"
+            + " SELECT x, 'Task ' || x, 'Benchmark task ' || x,"
+            + " CASEWHEN(MOD(x, 3) = 0, 'TODO', CASEWHEN(MOD(x, 3) = 1, 'IN_PROGRESS', 'DONE')),"
+            + " DATEADD('DAY', MOD(x, 100), DATE '2024-01-01'), 0"
+            + " FROM SYSTEM_RANGE(1, ?)", tasks);
+
+    client = HttpClient.newHttpClient();
+    exportUrl = "http://localhost:"
+        + context.getEnvironment().getRequiredProperty("local.server.port")
+        + "/v1/tasks/export?format=";
+    // Roughly a tenth of the body: a task is some 150 bytes of JSON.
+    probeInterval = tasks * 16L;
+  }
+
+  @TearDown(Level.Trial)
+  public void stopServer() throws Exception {
+    System.out.printf("%npeak live heap during export: %d MB%n", peakLiveHeap >> 20);
+    context.close();
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Benchmark
+  public long exportNdjson() throws IOException, InterruptedException {
+    return export("NDJSON");
+  }
+
+  @Benchmark
+  public long exportJson() throws IOException, InterruptedException {
+    return export("JSON");
+  }
+
+  private long export(String format) throws IOException, InterruptedException {
+    HttpResponse<InputStream> response = client.send(
+        HttpRequest.newBuilder(URI.create(exportUrl + format)).build(),
+        BodyHandlers.ofInputStream());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Export answered " + response.statusCode());
+    }
+    try (InputStream body = response.body()) {
+      long bytes = 0;
+      long nextProbe = probeInterval;
+      byte[] buffer = new byte[64 * 1024];
+      for (int read; (read = body.read(buffer)) != -1; ) {
+        bytes += read;
+        if (bytes >= nextProbe) {
+          probeLiveHeap();
+          nextProbe += probeInterval;
+        }
+      }
+      return bytes;
+    }
+  }
+
+  /**
+   * Collects garbage while the export is running, so what is left in use is what the export (and
+   * the rest of the application) keeps live. Each probe adds a full collection to the timing.
+   */
+  private void probeLiveHeap() {
+    System.gc();
+    MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    peakLiveHeap = Math.max(peakLiveHeap, heap.getUsed());
+  }
+}
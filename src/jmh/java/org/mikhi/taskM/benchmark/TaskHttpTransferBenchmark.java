@@ -0,0 +1,122 @@
+package org.mikhi.taskM.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import org.mikhi.taskM.TaskManagementApplication;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * End-to-end latency of {@code GET /v1/tasks/paginated} returning {@code tasks} tasks, with and
+ * without gzip and over HTTP/1.1 or HTTP/2 (h2c). Latency includes transfer over loopback and
+ * decompression on the client.
+ * <p>
+ * The server runs with the shipped {@code src/main/resources} configuration. The size of the
+ * response body as sent is printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskHttpTransferBenchmark {
+
+  @Param({"1000", "10000"})
+  private int tasks;
+
+  @Param({"true", "false"})
+  private boolean gzip;
+
+  @Param({"HTTP_1_1", "HTTP_2"})
+  private HttpClient.Version protocol;
+
+  private ConfigurableApplicationContext context;
+  private HttpClient client;
+  private HttpRequest request;
+
+  private int wireBytes;
+
+  @Setup(Level.Trial)
+  public void startServer() {
+    context = new SpringApplicationBuilder(TaskManagementApplication.class)
+        .bannerMode(Banner.Mode.OFF)
+        .logStartupInfo(false)
+        // Arguments rather than default properties, which application.properties would override.
+        .run("--spring.config.location=file:src/main/resources/",
+            "--server.port=0",
+            "--server.compression.enabled=" + gzip,
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "--spring.sql.init.mode=never",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN");
+
+    List<Task> seeded = new ArrayList<>(tasks);
+    LocalDate dueDate = LocalDate.of(2024, 1, 1);
+    for (int i = 0; i < tasks; i++) {
+      seeded.add(Task.builder()
+          .title("Task " + i)
+          .description("Benchmark task " + i)
+          .status(Status.values()[i % Status.values().length])
+          .dueDate(dueDate.plusDays(i % 100))
+          .build());
+    }
+    context.getBean(TaskService.class).createTasks(seeded);
+
+    client = HttpClient.newBuilder().version(protocol).build();
+    request = HttpRequest.newBuilder(URI.create("http://localhost:"
+            + context.getEnvironment().getRequiredProperty("local.server.port")
+            + "/v1/tasks/paginated?size=" + tasks))
+        .header("Accept-Encoding", "gzip")
+        .build();
+  }
+
+  @TearDown(Level.Trial)
+  public void stopServer() {
+    System.out.printf("%nwire bytes per response: %d%n", wireBytes);
+    context.close();
+  }
+
+  @Benchmark
+  public int listTasks() throws IOException, InterruptedException {
+    HttpResponse<byte[]> response = client.send(request, BodyHandlers.ofByteArray());
+    if (response.statusCode() != 200 || response.version() != protocol) {
+      throw new IllegalStateException(response.version() + " " + response.statusCode());
+    }
+    wireBytes = response.body().length;
+    if (response.headers().firstValue("Content-Encoding").isEmpty()) {
+      return response.body().length;
+    }
+    try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+      return body.readAllBytes().length;
+    }
+  }
+}
@@ -0,0 +1,170 @@
+package org.mikhi.taskM.benchmark;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import org.mikhi.taskM.ratelimit.AdaptiveConcurrencyLimiter;
+import org.mikhi.taskM.ratelimit.ClientRateLimiter;
+import org.mikhi.taskM.ratelimit.TaskRateLimitFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Per-request cost of {@link TaskRateLimitFilter}, from {@code clients} distinct clients.
+ * {@code admitted} goes through both limits to a chain that does nothing; the difference with
+ * {@code baseline}, the chain alone, is the filter's overhead. {@code rejected} is the price of a
+ * 429 to a client that is over its rate. Run with {@code -t 4} or more to see contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskRateLimitFilterBenchmark {
+
+  private static final FilterChain CHAIN = (request, response) -> { };
+
+  @Param({"1", "10000"})
+  private int clients;
+
+  private TaskRateLimitFilter admitting;
+  private TaskRateLimitFilter rejecting;
+
+  @Setup
+  public void setUp() {
+    // Rate and limits high enough that nothing is turned away.
+    admitting = new TaskRateLimitFilter("X-Client-Id",
+        new ClientRateLimiter(1e9, 1_000_000, 100_000, Duration.ofMinutes(10),
+            Ticker.systemTicker()),
+        new AdaptiveConcurrencyLimiter(1_000, 1_000, 1_000, 2.0, 0.9, 500),
+        List.of("/v1/tasks/changes"));
+    // One request per client per hour, already taken below.
+    rejecting = new TaskRateLimitFilter("X-Client-Id",
+        new ClientRateLimiter(1.0 / 3600, 1, 100_000, Duration.ofMinutes(10),
+            Ticker.systemTicker()),
+        new AdaptiveConcurrencyLimiter(1_000, 1_000, 1_000, 2.0, 0.9, 500),
+        List.of("/v1/tasks/changes"));
+
+    for (MockHttpServletRequest request : requests(clients)) {
+      try {
+        rejecting.doFilter(request, new Response(), CHAIN);
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  private static MockHttpServletRequest[] requests(int clients) {
+    MockHttpServletRequest[] requests = new MockHttpServletRequest[clients];
+    for (int i = 0; i < clients; i++) {
+      requests[i] = new Request("client-" + i);
+    }
+    return requests;
+  }
+
+  /**
+   * Looks up the client header the way a container does, without the mock's case-insensitive map
+   * per request, which would cost more than the filter.
+   */
+  private static final class Request extends MockHttpServletRequest {
+
+    private final String client;
+
+    Request(String client) {
+      super("GET", "/v1/tasks");
+      this.client = client;
+    }
+
+    @Override
+    public String getHeader(String name) {
+      return "X-Client-Id".equalsIgnoreCase(name) ? client : null;
+    }
+  }
+
+  /**
+   * Takes the body in one write, like a container; the mock copies it a byte at a time.
+   */
+  private static final class Response extends MockHttpServletResponse {
+
+    private static final ServletOutputStream DISCARD = new ServletOutputStream() {
+      @Override
+      public void write(int b) {
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+      }
+
+      @Override
+      public boolean isReady() {
+        return true;
+      }
+
+      @Override
+      public void setWriteListener(WriteListener writeListener) {
+      }
+    };
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+      return DISCARD;
+    }
+  }
+
+  /**
+   * The same clients on every thread, in request objects of its own, as no two threads of a
+   * container share a request.
+   */
+  @State(Scope.Thread)
+  public static class Requests {
+
+    private MockHttpServletRequest[] requests;
+
+    @Setup
+    public void setUp(TaskRateLimitFilterBenchmark benchmark) {
+      requests = requests(benchmark.clients);
+    }
+
+    MockHttpServletRequest next() {
+      return requests[ThreadLocalRandom.current().nextInt(requests.length)];
+    }
+  }
+
+  @Benchmark
+  public MockHttpServletResponse baseline(Requests requests) throws Exception {
+    MockHttpServletResponse response = new Response();
+    CHAIN.doFilter(requests.next(), response);
+    return response;
+  }
+
+  @Benchmark
+  public MockHttpServletResponse admitted(Requests requests) throws Exception {
+    MockHttpServletResponse response = new Response();
+    admitting.doFilter(requests.next(), response, CHAIN);
+    return response;
+  }
+
+  @Benchmark
+  public MockHttpServletResponse rejected(Requests requests) throws Exception {
+    MockHttpServletResponse response = new Response();
+    rejecting.doFilter(requests.next(), response, CHAIN);
+    return response;
+  }
+}
@@ -0,0 +1,96 @@
+package org.mikhi.taskM.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.mikhi.taskM.TaskManagementApplication;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Listing {@value #SEEDED_TASKS} tasks with {@link TaskService#getAllTasks()} in a read-only
+ * transaction, as the service runs it, and in a read-write one, as it did before.
+ * <p>
+ * The call joins a transaction opened by the benchmark, so {@code readOnly} decides which kind it
+ * runs in. Run with {@code -prof gc} to compare the bytes allocated per listing
+ * ({@code gc.alloc.rate.norm}); the read-write variant also keeps a loaded-state snapshot per
+ * entity and dirty-checks every one of them at commit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class TaskReadOnlyBenchmark {
+
+  private static final int SEEDED_TASKS = 100_000;
+
+  @Param({"true", "false"})
+  private boolean readOnly;
+
+  private ConfigurableApplicationContext context;
+  private TaskService taskService;
+  private TransactionTemplate transaction;
+
+  @Setup(Level.Trial)
+  public void startContext() {
+    context = new SpringApplicationBuilder(TaskManagementApplication.class)
+        .web(WebApplicationType.NONE)
+        .bannerMode(Banner.Mode.OFF)
+        .logStartupInfo(false)
+        .properties(
+            "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "spring.jpa.show-sql=false",
+            "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+            "spring.jpa.properties.hibernate.order_inserts=true",
+            "logging.level.root=WARN")
+        .run();
+    taskService = context.getBean(TaskService.class);
+    transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    transaction.setReadOnly(readOnly);
+
+    List<Task> tasks = new ArrayList<>(SEEDED_TASKS);
+    LocalDate dueDate = LocalDate.of(2024, 1, 1);
+    for (int i = 0; i < SEEDED_TASKS; i++) {
+      tasks.add(Task.builder()
+          .title("Task " + i)
+          .description("Benchmark task " + i)
+          .status(Status.values()[i % Status.values().length])
+          .dueDate(dueDate.plusDays(i % 100))
+          .build());
+    }
+    taskService.createTasks(tasks);
+  }
+
+  @TearDown(Level.Trial)
+  public void closeContext() {
+    context.close();
+  }
+
+  @Benchmark
+  public int listAllTasks() {
+    return transaction.execute(status -> taskService.getAllTasks().size());
+  }
+}
@@ -0,0 +1,158 @@
+package org.mikhi.taskM.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.mikhi.taskM.TaskManagementApplication;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.TaskSearchHit;
+import org.mikhi.taskM.search.TaskSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * One page of {@value #PAGE_SIZE} search results with the total count, over {@value #TASKS}
+ * tasks in the embedded H2 database: from the {@link TaskSearchService} index, and from a
+ * {@code LIKE '%q%'} scan of title and description.
+ * <p>
+ * Titles and descriptions are drawn from a vocabulary of {@value #VOCABULARY} made-up words, so a
+ * single word occurs in about one task in a thousand. {@code query} is one such word, two of them
+ * (both must occur), or a three-letter prefix shared by 26 words. The scan only finds
+ * substrings and does not rank; the index matches whole words (the last one as a prefix) and
+ * ranks by BM25, and loads only the tasks of the page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class TaskSearchBenchmark {
+
+  private static final int TASKS = 1_000_000;
+  private static final int VOCABULARY = 10_000;
+  private static final int PAGE_SIZE = 20;
+
+  @Param({"word", "two-words", "prefix"})
+  private String query;
+
+  private ConfigurableApplicationContext context;
+  private TaskSearchService searchService;
+  private JdbcTemplate jdbc;
+  private String text;
+  private String[] likeArguments;
+
+  @Setup(Level.Trial)
+  public void startContext() {
+    context = new SpringApplicationBuilder(TaskManagementApplication.class)
+        .web(WebApplicationType.NONE)
+        .bannerMode(Banner.Mode.OFF)
+        .logStartupInfo(false)
+        .properties(
+            "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "spring.jpa.show-sql=false",
+            "logging.level.root=WARN")
+        .run();
+    searchService = context.getBean(TaskSearchService.class);
+    jdbc = context.getBean(JdbcTemplate.class);
+
+    String[] words = new String[VOCABULARY];
+    for (int i = 0; i < VOCABULARY; i++) {
+      words[i] = word(i);
+    }
+    Random random = new Random(42);
+    List<Object[]> rows = new ArrayList<>(10_000);
+    for (int i = 1; i <= TASKS; i++) {
+      rows.add(new Object[] {i, sentence(words, random, 3), sentence(words, random, 8),
+          Status.values()[i % Status.values().length].name()});
+      if (rows.size() == 10_000) {
+        jdbc.batchUpdate("INSERT INTO task (id, title, description, status, version) "
+            + "VALUES (?, ?, ?, ?, 0)", rows);
+        rows.clear();
+      }
+    }
+    searchService.rebuild();
+
+    switch (query) {
+      case "word":
+        text = words[1234];
+        break;
+      case "two-words":
+        text = words[1234] + " " + words[4321];
+        break;
+      default:
+        text = words[1234].substring(0, 3);
+    }
+    // The closest a LIKE scan gets: every word as a substring of title or description.
+    likeArguments = text.split(" ");
+  }
+
+  @TearDown(Level.Trial)
+  public void closeContext() {
+    context.close();
+  }
+
+  @Benchmark
+  public Page<TaskSearchHit> searchIndex() {
+    return searchService.search(text, PageRequest.of(0, PAGE_SIZE));
+  }
+
+  @Benchmark
+  public long likeScan() {
+    StringBuilder where = new StringBuilder();
+    List<Object> arguments = new ArrayList<>();
+    for (String word : likeArguments) {
+      if (where.length() > 0) {
+        where.append(" AND ");
+      }
+      where.append("(LOWER(title) LIKE ? OR LOWER(description) LIKE ?)");
+      arguments.add("%" + word + "%");
+      arguments.add("%" + word + "%");
+    }
+    Long total = jdbc.queryForObject("SELECT COUNT(*) FROM task WHERE " + where, Long.class,
+        arguments.toArray());
+    List<Long> page = jdbc.queryForList("SELECT id FROM task WHERE " + where
+        + " ORDER BY id LIMIT " + PAGE_SIZE, Long.class, arguments.toArray());
+    return total + page.size();
+  }
+
+  // Four letters spelling i in base 26, so words sharing three letters come in runs of 26.
+  private static String word(int i) {
+    char[] letters = new char[4];
+    for (int j = letters.length - 1; j >= 0; j--) {
+      letters[j] = (char) ('a' + i % 26);
+      i /= 26;
+    }
+    return new String(letters);
+  }
+
+  private static String sentence(String[] words, Random random, int length) {
+    StringBuilder sentence = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      if (i > 0) {
+        sentence.append(' ');
+      }
+      sentence.append(words[random.nextInt(words.length)]);
+    }
+    return sentence.toString();
+  }
+}
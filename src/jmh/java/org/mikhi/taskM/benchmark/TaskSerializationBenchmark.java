@@ -0,0 +1,114 @@
+package org.mikhi.taskM.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.mikhi.taskM.model.ApiResponseDto;
+import org.mikhi.taskM.model.CompactPage;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskField;
+import org.mikhi.taskM.model.TaskView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson serialization of the list and page responses returned by {@code TaskController}.
+ * <p>
+ * The entity variants are the responses as they were before the list endpoints moved to
+ * {@link TaskView} projections; the sparse and compact variants are what they return now.
+ * <p>
+ * The {@link ObjectMapper} is configured the way Spring Boot configures the one used by the
+ * message converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int size;
+
+  private ObjectMapper objectMapper;
+  private ApiResponseDto<List<Task>> listResponse;
+  private ApiResponseDto<Page<Task>> pageResponse;
+  private ApiResponseDto<List<TaskView>> sparseListResponse;
+  private ApiResponseDto<CompactPage<TaskView>> compactPageResponse;
+
+  @Setup
+  public void setUp() {
+    objectMapper = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+
+    List<Task> tasks = new ArrayList<>(size);
+    LocalDate dueDate = LocalDate.of(2024, 1, 1);
+    for (int i = 0; i < size; i++) {
+      tasks.add(Task.builder()
+          .id((long) i)
+          .title("Task " + i)
+          .description("Benchmark task " + i)
+          .status(Status.values()[i % Status.values().length])
+          .dueDate(dueDate.plusDays(i % 100))
+          .version(0L)
+          .build());
+    }
+    listResponse = new ApiResponseDto<>("Tasks retrieved successfully", tasks, true);
+    Page<Task> page = new PageImpl<>(tasks, PageRequest.of(0, size), size * 10L);
+    pageResponse = new ApiResponseDto<>("Success", page, true);
+
+    Set<TaskField> sparse = EnumSet.of(TaskField.ID, TaskField.TITLE, TaskField.STATUS);
+    List<TaskView> views = tasks.stream()
+        .map(task -> TaskView.of(task, sparse))
+        .collect(Collectors.toList());
+    sparseListResponse = new ApiResponseDto<>("Tasks retrieved successfully", views, true);
+    List<TaskView> fullViews = tasks.stream()
+        .map(task -> TaskView.of(task, TaskField.ALL))
+        .collect(Collectors.toList());
+    compactPageResponse = new ApiResponseDto<>("Success", CompactPage.of(
+        new PageImpl<>(fullViews, PageRequest.of(0, size), size * 10L)), true);
+  }
+
+  @Benchmark
+  public byte[] serializeList() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(listResponse);
+  }
+
+  @Benchmark
+  public byte[] serializePage() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(pageResponse);
+  }
+
+  @Benchmark
+  public byte[] serializeSparseList() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(sparseListResponse);
+  }
+
+  @Benchmark
+  public byte[] serializeCompactPage() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(compactPageResponse);
+  }
+}
@@ -0,0 +1,157 @@
+package org.mikhi.taskM.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.mikhi.taskM.TaskManagementApplication;
+import org.mikhi.taskM.model.BatchItemResult;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * {@link TaskService} CRUD and filter calls against the embedded H2 database ({@code jpa}) and the
+ * in-memory engine ({@code memory}, started with the {@code memory} profile).
+ * <p>
+ * A non-web application context is started once per fork and seeded with {@value #SEEDED_TASKS}
+ * tasks spread over every status and {@value #DUE_DATE_SPAN} due dates. Filters fetch one page of
+ * {@value #PAGE_SIZE}, the default page size of the filter endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+  private static final int SEEDED_TASKS = 10_000;
+  private static final int DUE_DATE_SPAN = 100;
+  private static final int PAGE_SIZE = 100;
+  private static final LocalDate FIRST_DUE_DATE = LocalDate.of(2024, 1, 1);
+  private static final Pageable PAGE = PageRequest.of(0, PAGE_SIZE, Sort.by("dueDate", "id"));
+
+  @Param({"jpa", "memory"})
+  private String engine;
+
+  private ConfigurableApplicationContext context;
+  private TaskService taskService;
+  private long[] seededIds;
+
+  @Setup(Level.Trial)
+  public void startContext() {
+    context = new SpringApplicationBuilder(TaskManagementApplication.class)
+        .web(WebApplicationType.NONE)
+        .bannerMode(Banner.Mode.OFF)
+        .logStartupInfo(false)
+        .profiles("memory".equals(engine) ? new String[] {"memory"} : new String[0])
+        .properties(
+            "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "spring.jpa.show-sql=false",
+            "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+            "spring.jpa.properties.hibernate.order_inserts=true",
+            "logging.level.root=WARN")
+        .run();
+    taskService = context.getBean(TaskService.class);
+
+    List<Task> tasks = new ArrayList<>(SEEDED_TASKS);
+    for (int i = 0; i < SEEDED_TASKS; i++) {
+      tasks.add(newTask(i));
+    }
+    seededIds = taskService.createTasks(tasks).stream()
+        .mapToLong(BatchItemResult::getId)
+        .toArray();
+  }
+
+  @TearDown(Level.Trial)
+  public void closeContext() {
+    context.close();
+  }
+
+  @Benchmark
+  public Task createTask() {
+    return taskService.createTask(newTask(ThreadLocalRandom.current().nextInt(SEEDED_TASKS)));
+  }
+
+  @Benchmark
+  public Task getTaskById() {
+    return taskService.getTaskById(randomSeededId());
+  }
+
+  @Benchmark
+  public Task updateTask() {
+    long id = randomSeededId();
+    return taskService.updateTask(id, newTask((int) id));
+  }
+
+  @Benchmark
+  public String createAndDeleteTask() {
+    Task task = taskService.createTask(newTask(0));
+    return taskService.deleteTask(task.getId());
+  }
+
+  @Benchmark
+  public List<Task> filterByStatus() {
+    return taskService.filterTasks(Status.IN_PROGRESS, null, PAGE);
+  }
+
+  @Benchmark
+  public List<Task> filterByDueDate() {
+    return taskService.filterTasks(null, randomDueDate(), PAGE);
+  }
+
+  @Benchmark
+  public List<Task> filterByStatusAndDueDate() {
+    return taskService.filterTasks(Status.TODO, randomDueDate(), PAGE);
+  }
+
+  @Benchmark
+  public List<Task> filterWithoutPredicates() {
+    return taskService.filterTasks(null, null, PAGE);
+  }
+
+  @Benchmark
+  public List<Task> getTasksTillDate() {
+    return taskService.getTasksTillDate(randomDueDate(), PAGE);
+  }
+
+  private long randomSeededId() {
+    return seededIds[ThreadLocalRandom.current().nextInt(seededIds.length)];
+  }
+
+  private static LocalDate randomDueDate() {
+    return FIRST_DUE_DATE.plusDays(ThreadLocalRandom.current().nextInt(DUE_DATE_SPAN));
+  }
+
+  // Spreads tasks so every status occurs on every due date.
+  private static Task newTask(int i) {
+    return Task.builder()
+        .title("Task " + i)
+        .description("Benchmark task " + i)
+        .status(Status.values()[i % Status.values().length])
+        .dueDate(FIRST_DUE_DATE.plusDays((i / Status.values().length) % DUE_DATE_SPAN))
+        .build();
+  }
+}
@@ -0,0 +1,90 @@
+package org.mikhi.taskM.benchmark;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import org.mikhi.taskM.metrics.StatementCounter;
+import org.mikhi.taskM.metrics.TaskServiceMetrics;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+
+/**
+ * Overhead of {@link TaskServiceMetrics} on a {@link TaskService} call that does no work, with
+ * the percentile histogram and client-side percentiles enabled as in production. The difference
+ * between {@code instrumented} and {@code proxied} is the per-call cost of the metrics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskServiceMetricsBenchmark {
+
+  private static final Task TASK = Task.builder().id(1L).title("Task").build();
+
+  private TaskService baseline;
+  private TaskService proxied;
+  private TaskService instrumented;
+
+  @Setup
+  public void setUp() {
+    baseline = (TaskService) Proxy.newProxyInstance(TaskService.class.getClassLoader(),
+        new Class<?>[]{TaskService.class}, (proxy, method, args) -> TASK);
+
+    // The service bean is always behind a Spring proxy (transactions, caching), so the
+    // comparison that matters is proxied vs instrumented.
+    ProxyFactory proxyFactory = new ProxyFactory(baseline);
+    proxyFactory.addAdvice((MethodInterceptor) MethodInvocation::proceed);
+    proxied = (TaskService) proxyFactory.getProxy();
+
+    PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    registry.config().meterFilter(new MeterFilter() {
+      @Override
+      public DistributionStatisticConfig configure(Meter.Id id,
+          DistributionStatisticConfig config) {
+        return DistributionStatisticConfig.builder()
+            .percentilesHistogram(true)
+            .percentiles(0.5, 0.95, 0.99)
+            .build()
+            .merge(config);
+      }
+    });
+    AspectJProxyFactory factory = new AspectJProxyFactory(baseline);
+    factory.addAspect(new TaskServiceMetrics(registry, new StatementCounter()));
+    instrumented = factory.getProxy();
+  }
+
+  @Benchmark
+  public Task baseline() {
+    return baseline.getTaskById(1L);
+  }
+
+  @Benchmark
+  public Task proxied() {
+    return proxied.getTaskById(1L);
+  }
+
+  @Benchmark
+  public Task instrumented() {
+    return instrumented.getTaskById(1L);
+  }
+}
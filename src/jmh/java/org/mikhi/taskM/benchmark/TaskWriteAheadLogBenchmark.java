@@ -0,0 +1,186 @@
+package org.mikhi.taskM.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.storage.TaskJournal;
+import org.mikhi.taskM.storage.TaskWriteAheadLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Write throughput and recovery time of {@link TaskWriteAheadLog}.
+ * <p>
+ * The write benchmarks log single tasks from one and from eight threads, with and without fsync;
+ * with fsync the eight writers share forces (group commit). The recovery benchmark replays a log
+ * of {@code tasks} tasks (10M by default), either from the log alone or from a snapshot.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class TaskWriteAheadLogBenchmark {
+
+  private static final int SEGMENT_SIZE = 64 << 20;
+  private static final int BATCH = 10_000;
+
+  @State(Scope.Benchmark)
+  public static class Writes {
+
+    @Param({"true", "false"})
+    private boolean fsync;
+
+    private final AtomicLong ids = new AtomicLong();
+    private Path directory;
+    private TaskWriteAheadLog wal;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+      directory = Files.createTempDirectory("task-wal-writes");
+      wal = new TaskWriteAheadLog(directory, SEGMENT_SIZE, Duration.ZERO, fsync);
+      wal.open(new CountingRecovery(), Collections.emptyList());
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+      wal.close();
+      deleteRecursively(directory);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Recovery {
+
+    @Param("10000000")
+    private int tasks;
+
+    @Param({"false", "true"})
+    private boolean snapshot;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void write() throws IOException {
+      directory = Files.createTempDirectory("task-wal-recovery");
+      TaskWriteAheadLog wal = new TaskWriteAheadLog(directory, SEGMENT_SIZE, Duration.ZERO,
+          false);
+      List<Task> live = snapshot ? new ArrayList<>(tasks) : Collections.emptyList();
+      wal.open(new CountingRecovery(), live);
+      for (int first = 1; first <= tasks; first += BATCH) {
+        List<Task> batch = new ArrayList<>(BATCH);
+        for (long id = first; id < Math.min(first + BATCH, tasks + 1L); id++) {
+          batch.add(newTask(id));
+        }
+        wal.putAll(batch, () -> {
+          if (snapshot) {
+            live.addAll(batch);
+          }
+        });
+      }
+      if (snapshot) {
+        wal.snapshot();
+      }
+      wal.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+      deleteRecursively(directory);
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void put(Writes state) {
+    state.wal.put(newTask(state.ids.incrementAndGet()), () -> {
+    });
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void putConcurrently(Writes state) {
+    state.wal.put(newTask(state.ids.incrementAndGet()), () -> {
+    });
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 1)
+  @Measurement(iterations = 3)
+  public long recover(Recovery state) {
+    TaskWriteAheadLog wal = new TaskWriteAheadLog(state.directory, SEGMENT_SIZE, Duration.ZERO,
+        false);
+    CountingRecovery recovery = new CountingRecovery();
+    wal.open(recovery, Collections.emptyList());
+    wal.close();
+    if (recovery.puts != state.tasks) {
+      throw new IllegalStateException("Recovered " + recovery.puts + " of " + state.tasks);
+    }
+    return recovery.puts;
+  }
+
+  private static Task newTask(long id) {
+    return Task.builder()
+        .id(id)
+        .version(0L)
+        .title("Benchmark task " + id)
+        .description("Seeded by TaskWriteAheadLogBenchmark")
+        .status(Status.values()[(int) (id % Status.values().length)])
+        .dueDate(LocalDate.of(2024, 1, 1).plusDays(id % 100))
+        .build();
+  }
+
+  private static void deleteRecursively(Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  /**
+   * Counts recovered records without keeping them, so recovery time excludes building indexes.
+   */
+  private static class CountingRecovery implements TaskJournal.Recovery {
+
+    private long puts;
+
+    @Override
+    public void put(Task task) {
+      puts++;
+    }
+
+    @Override
+    public void delete(long id) {
+    }
+
+    @Override
+    public void idsUsedUpTo(long id) {
+    }
+  }
+}
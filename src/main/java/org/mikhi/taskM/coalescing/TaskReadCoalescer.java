@@ -0,0 +1,118 @@
+package org.mikhi.taskM.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Value;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.mikhi.taskM.datasource.ReplicaRoutingDataSource;
+import org.mikhi.taskM.datasource.TaskClientContext;
+import org.mikhi.taskM.event.TaskChangeTracker;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Lets concurrent identical reads share one query: a {@code getTaskById} or {@code filterTasks}
+ * call made while the same call, with equal arguments, is already running waits for that one and
+ * returns its result, or throws its exception.
+ * <p>
+ * A call only joins one that started after the last change it could have seen committed, and
+ * that reads from the same side of the replica routing, so neither a stale result nor a replica's
+ * result for a client that has to read its own writes is handed out. Calls made inside a
+ * transaction run on their own: they may see the transaction's uncommitted writes.
+ * <p>
+ * Runs inside {@link org.mikhi.taskM.metrics.TaskServiceMetrics}, so every call is still timed,
+ * and outside the transaction and cache advice, so a waiting call holds no connection. Callers
+ * share the returned objects, as they already do those from the task cache.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "task.read-coalescing.enabled", havingValue = "true",
+    matchIfMissing = true)
+public class TaskReadCoalescer {
+
+  static final String COALESCED = "task.service.coalesced";
+
+  private final TaskChangeTracker changeTracker;
+  private final ObjectProvider<ReplicaRoutingDataSource> routingDataSource;
+  private final MeterRegistry registry;
+  private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+  private final Map<String, Counter> coalesced = new ConcurrentHashMap<>();
+
+  public TaskReadCoalescer(TaskChangeTracker changeTracker,
+      ObjectProvider<ReplicaRoutingDataSource> routingDataSource, MeterRegistry registry) {
+    this.changeTracker = changeTracker;
+    this.routingDataSource = routingDataSource;
+    this.registry = registry;
+    Gauge.builder("task.service.coalescing.in.flight", inFlight, Map::size)
+        .description("Distinct reads in flight that identical calls can join")
+        .register(registry);
+  }
+
+  @Around("execution(* org.mikhi.taskM.service.impl.TaskServiceImpl.getTaskById(..))"
+      + " || execution(* org.mikhi.taskM.service.impl.TaskServiceImpl.filterTasks(..))")
+  public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      return joinPoint.proceed();
+    }
+    Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+    Key key = new Key(method, Arrays.asList(joinPoint.getArgs()), changeTracker.changes(),
+        readsFromPrimary());
+    CompletableFuture<Object> flight = new CompletableFuture<>();
+    CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+    if (running != null) {
+      coalesced.computeIfAbsent(method.getName(), this::counter).increment();
+      try {
+        return running.join();
+      } catch (CompletionException e) {
+        throw e.getCause();
+      }
+    }
+    try {
+      Object result = joinPoint.proceed();
+      flight.complete(result);
+      return result;
+    } catch (Throwable e) {
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, flight);
+    }
+  }
+
+  private boolean readsFromPrimary() {
+    ReplicaRoutingDataSource routing = routingDataSource.getIfAvailable();
+    return routing == null || routing.readsFromPrimary(TaskClientContext.current());
+  }
+
+  private Counter counter(String operation) {
+    return Counter.builder(COALESCED)
+        .description("TaskService reads answered by an identical call already in flight")
+        .tag("operation", operation)
+        .register(registry);
+  }
+
+  @Value
+  private static class Key {
+
+    Method method;
+    List<Object> args;
+    long changes;
+    boolean primary;
+  }
+}
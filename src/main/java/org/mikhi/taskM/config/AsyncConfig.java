@@ -0,0 +1,126 @@
+package org.mikhi.taskM.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Runs the {@code Callable}s returned by controller methods on a dedicated, bounded executor so
+ * servlet request threads are released while the database works. When the executor is full the
+ * submission is rejected and the request answered with 503 straight away.
+ * <p>
+ * Exports stream for as long as the client keeps reading, so they get a small executor of their
+ * own instead of holding threads the other endpoints need. It has no queue: an export that finds
+ * every thread busy is answered with 503 too.
+ * <p>
+ * A {@link TaskDecorator} bean, when there is one, wraps every call, e.g. to carry thread-bound
+ * request state over to the executor.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(TaskAsyncProperties.class)
+public class AsyncConfig implements WebMvcConfigurer {
+
+  private final TaskAsyncProperties properties;
+  private final ObjectProvider<TaskDecorator> taskDecorator;
+
+  public AsyncConfig(TaskAsyncProperties properties, ObjectProvider<TaskDecorator> taskDecorator) {
+    this.properties = properties;
+    this.taskDecorator = taskDecorator;
+  }
+
+  @Bean
+  public AsyncTaskExecutor taskServiceExecutor() {
+    return boundedExecutor("task-service-", properties.getPoolSize(),
+        properties.getQueueCapacity());
+  }
+
+  @Bean
+  public AsyncTaskExecutor taskExportExecutor() {
+    return boundedExecutor("task-export-", properties.getExportPoolSize(), 0);
+  }
+
+  private AsyncTaskExecutor boundedExecutor(String threadNamePrefix, int poolSize,
+      int queueCapacity) {
+    if (properties.isVirtualThreads()) {
+      ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+      if (virtualThreads != null) {
+        BoundedTaskExecutor executor = new BoundedTaskExecutor(virtualThreads,
+            poolSize + queueCapacity);
+        taskDecorator.ifUnique(executor::setTaskDecorator);
+        return executor;
+      }
+      log.warn("Virtual threads are not available on this runtime, using a thread pool");
+    }
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix(threadNamePrefix);
+    taskDecorator.ifUnique(executor::setTaskDecorator);
+    executor.initialize();
+    return executor;
+  }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setTaskExecutor(taskServiceExecutor());
+  }
+
+  // Looked up reflectively: the project compiles for Java 11.
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Caps the number of tasks in flight on an otherwise unbounded executor.
+   */
+  static class BoundedTaskExecutor extends TaskExecutorAdapter {
+
+    private final Semaphore permits;
+
+    BoundedTaskExecutor(ExecutorService delegate, int maxInFlight) {
+      // Passed as a plain Executor so submit() also goes through doExecute.
+      super(delegate::execute);
+      this.permits = new Semaphore(maxInFlight);
+    }
+
+    @Override
+    protected void doExecute(Executor concurrentExecutor, TaskDecorator taskDecorator,
+        Runnable runnable) {
+      if (!permits.tryAcquire()) {
+        throw new TaskRejectedException("Too many task service calls in flight");
+      }
+      try {
+        super.doExecute(concurrentExecutor, taskDecorator, () -> {
+          try {
+            runnable.run();
+          } finally {
+            permits.release();
+          }
+        });
+      } catch (RuntimeException e) {
+        permits.release();
+        throw e;
+      }
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package org.mikhi.taskM.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.mikhi.taskM.model.Task;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  public static final String TASKS_CACHE = "tasks";
+
+  // Rough per-entry overhead (entry, key, entity header and fields) on top of the string data.
+  private static final int TASK_BASE_WEIGHT = 128;
+
+  @Bean
+  public CacheManager cacheManager(
+      @Value("${task.cache.ttl:10m}") Duration ttl,
+      @Value("${task.cache.max-weight:50000000}") long maxWeight) {
+    CaffeineCacheManager cacheManager = new CaffeineCacheManager(TASKS_CACHE);
+    // Caffeine evicts with W-TinyLFU; weights approximate retained bytes per task.
+    cacheManager.setCaffeine(Caffeine.newBuilder()
+        .expireAfterWrite(ttl)
+        .maximumWeight(maxWeight)
+        .weigher((Object key, Object value) -> weigh(value))
+        .recordStats());
+    // Defer puts and evictions until the surrounding transaction commits.
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+
+  private static int weigh(Object value) {
+    if (!(value instanceof Task)) {
+      return 1;
+    }
+    Task task = (Task) value;
+    int chars = (task.getTitle() == null ? 0 : task.getTitle().length())
+        + (task.getDescription() == null ? 0 : task.getDescription().length());
+    return TASK_BASE_WEIGHT + 2 * chars;
+  }
+}
@@ -0,0 +1,90 @@
+package org.mikhi.taskM.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.mikhi.taskM.config.TaskDataSourceProperties.Replica;
+import org.mikhi.taskM.datasource.ReplicaRoutingDataSource;
+import org.mikhi.taskM.datasource.TaskClientContext;
+import org.mikhi.taskM.datasource.TaskClientFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Routes read-only transactions to {@code task.datasource.replicas} and everything else to the
+ * primary, {@code spring.datasource}. Without replicas this configuration does not apply and the
+ * auto-configured datasource is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "task.datasource", name = "replicas[0].url")
+@EnableConfigurationProperties(TaskDataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+  private final TaskDataSourceProperties properties;
+
+  public DataSourceRoutingConfig(TaskDataSourceProperties properties) {
+    this.properties = properties;
+  }
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+    return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean
+  public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource) {
+    List<HikariDataSource> replicas = new ArrayList<>();
+    for (Replica replica : properties.getReplicas()) {
+      HikariDataSource pool = new HikariDataSource();
+      primaryDataSource.copyStateTo(pool);
+      pool.setJdbcUrl(replica.getUrl());
+      if (replica.getUsername() != null) {
+        pool.setUsername(replica.getUsername());
+        pool.setPassword(replica.getPassword());
+      }
+      pool.setPoolName("task-replica-" + replicas.size());
+      replicas.add(pool);
+    }
+    return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+        properties.getLoadBalancing(), properties.getReadYourWritesWindow(),
+        Ticker.systemTicker());
+  }
+
+  /**
+   * Boot only instruments pools that are beans. Bound before the first read-only transaction
+   * starts a replica pool.
+   */
+  @Bean
+  public MeterBinder replicaPoolMetrics(ReplicaRoutingDataSource routingDataSource) {
+    return registry -> routingDataSource.getReplicas().forEach(
+        pool -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+
+  @Bean
+  public TaskClientFilter taskClientFilter() {
+    return new TaskClientFilter(properties.getClientHeader());
+  }
+
+  @Bean
+  public TaskDecorator taskClientPropagation() {
+    return TaskClientContext::propagate;
+  }
+}
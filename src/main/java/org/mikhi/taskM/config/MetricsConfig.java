@@ -0,0 +1,27 @@
+package org.mikhi.taskM.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.mikhi.taskM.metrics.StatementCounter;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  public StatementCounter statementCounter() {
+    return new StatementCounter();
+  }
+
+  /**
+   * Registers the statement counter with Hibernate unless another inspector is configured
+   * through {@code spring.jpa.properties}.
+   */
+  @Bean
+  public HibernatePropertiesCustomizer statementCounterCustomizer(
+      StatementCounter statementCounter) {
+    return properties -> properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR,
+        statementCounter);
+  }
+}
@@ -0,0 +1,55 @@
+package org.mikhi.taskM.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import javax.servlet.DispatcherType;
+import org.mikhi.taskM.ratelimit.AdaptiveConcurrencyLimiter;
+import org.mikhi.taskM.ratelimit.ClientRateLimiter;
+import org.mikhi.taskM.ratelimit.TaskRateLimitFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Puts {@link TaskRateLimitFilter} in front of {@code /v1/tasks}, ahead of every other filter, so
+ * a rejected request costs as little as possible.
+ */
+@Configuration
+@EnableConfigurationProperties(TaskRateLimitProperties.class)
+@ConditionalOnProperty(name = "task.rate-limit.enabled", havingValue = "true",
+    matchIfMissing = true)
+public class RateLimitConfig {
+
+  private final TaskRateLimitProperties properties;
+
+  public RateLimitConfig(TaskRateLimitProperties properties) {
+    this.properties = properties;
+  }
+
+  @Bean
+  public TaskRateLimitFilter taskRateLimitFilter() {
+    TaskRateLimitProperties.Concurrency concurrency = properties.getConcurrency();
+    return new TaskRateLimitFilter(
+        properties.getClientHeader(),
+        new ClientRateLimiter(properties.getRate(), properties.getBurst(),
+            properties.getMaxClients(), properties.getIdleTimeout(), Ticker.systemTicker()),
+        new AdaptiveConcurrencyLimiter(concurrency.getInitialLimit(), concurrency.getMinLimit(),
+            concurrency.getMaxLimit(), concurrency.getLatencyTolerance(),
+            concurrency.getBackoffRatio(), concurrency.getLatencyWindow()),
+        concurrency.getExcludedPaths());
+  }
+
+  @Bean
+  public FilterRegistrationBean<TaskRateLimitFilter> taskRateLimitFilterRegistration(
+      TaskRateLimitFilter filter) {
+    FilterRegistrationBean<TaskRateLimitFilter> registration =
+        new FilterRegistrationBean<>(filter);
+    registration.addUrlPatterns("/v1/tasks", "/v1/tasks/*");
+    // The filter lets other dispatches through itself; no need to call it for them.
+    registration.setDispatcherTypes(DispatcherType.REQUEST);
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+}
@@ -0,0 +1,24 @@
+package org.mikhi.taskM.config;
+
+import java.nio.file.Paths;
+import org.mikhi.taskM.storage.TaskJournal;
+import org.mikhi.taskM.storage.TaskWriteAheadLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "task.storage.engine", havingValue = "memory")
+public class StorageConfig {
+
+  // The log is closed (and forced to disk) when the context shuts down.
+  @Bean
+  public TaskJournal taskJournal(TaskWalProperties properties) {
+    if (!properties.isEnabled()) {
+      return TaskJournal.NONE;
+    }
+    return new TaskWriteAheadLog(Paths.get(properties.getDirectory()),
+        Math.toIntExact(properties.getSegmentSize().toBytes()),
+        properties.getSnapshotInterval(), properties.isFsync());
+  }
+}
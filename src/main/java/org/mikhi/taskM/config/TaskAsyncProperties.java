@@ -0,0 +1,34 @@
+package org.mikhi.taskM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Registered by {@link AsyncConfig} so it is also available in web-layer test slices.
+ */
+@Data
+@ConfigurationProperties(prefix = "task.async")
+public class TaskAsyncProperties {
+
+  /**
+   * Threads that run blocking TaskService calls on behalf of controller methods.
+   */
+  private int poolSize = 32;
+
+  /**
+   * Calls allowed to wait for a free thread. Anything beyond is rejected with 503.
+   */
+  private int queueCapacity = 200;
+
+  /**
+   * Threads that stream exports. An export arriving while all of them are busy is rejected with
+   * 503 rather than queued.
+   */
+  private int exportPoolSize = 4;
+
+  /**
+   * Run calls on virtual threads when the runtime supports them (Java 21+). The number of calls
+   * in flight is then capped at pool-size + queue-capacity, and exports at export-pool-size.
+   */
+  private boolean virtualThreads = false;
+}
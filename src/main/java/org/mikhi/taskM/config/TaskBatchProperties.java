@@ -0,0 +1,16 @@
+package org.mikhi.taskM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "task.batch")
+public class TaskBatchProperties {
+
+  /**
+   * Number of items written per transaction by the batch endpoints.
+   */
+  private int chunkSize = 500;
+}
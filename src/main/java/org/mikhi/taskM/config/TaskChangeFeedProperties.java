@@ -0,0 +1,43 @@
+package org.mikhi.taskM.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "task.changes")
+public class TaskChangeFeedProperties {
+
+  /**
+   * Recent changes kept in memory. This is how far back a client can resume, and how far a
+   * subscriber may fall behind before it is told to start over.
+   */
+  private int bufferSize = 1024;
+
+  /**
+   * Most changes returned by one long poll.
+   */
+  private int batchSize = 100;
+
+  /**
+   * Threads that write changes to subscribers, so a slow client never holds up a write.
+   */
+  private int deliveryThreads = 4;
+
+  /**
+   * How long a long poll waits for a change before it is answered with none.
+   */
+  private Duration pollTimeout = Duration.ofSeconds(30);
+
+  /**
+   * How long an event stream stays open. Clients reconnect and resume where they left off.
+   */
+  private Duration streamTimeout = Duration.ofMinutes(30);
+
+  /**
+   * Time between keep-alive comments on an idle event stream.
+   */
+  private Duration heartbeat = Duration.ofSeconds(15);
+}
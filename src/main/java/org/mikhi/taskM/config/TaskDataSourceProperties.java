@@ -0,0 +1,59 @@
+package org.mikhi.taskM.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Read replicas behind {@code spring.datasource}, the primary. Registered by
+ * {@link DataSourceRoutingConfig}, which only applies when at least one replica is configured.
+ */
+@Data
+@ConfigurationProperties(prefix = "task.datasource")
+public class TaskDataSourceProperties {
+
+  /**
+   * Replicas that serve read-only transactions. Pool settings are copied from
+   * {@code spring.datasource.hikari}.
+   */
+  private List<Replica> replicas = new ArrayList<>();
+
+  /**
+   * How a replica is chosen for each read-only transaction.
+   */
+  private LoadBalancing loadBalancing = LoadBalancing.ROUND_ROBIN;
+
+  /**
+   * How long a client's reads stay on the primary after it committed a write, so it reads its own
+   * writes while the replicas catch up. Should exceed the usual replication lag.
+   */
+  private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+  /**
+   * Request header that identifies a client. Requests without it are told apart by remote
+   * address.
+   */
+  private String clientHeader = "X-Client-Id";
+
+  @Data
+  public static class Replica {
+
+    private String url;
+
+    /**
+     * Credentials for this replica. The primary's are used when no username is set.
+     */
+    private String username;
+    private String password;
+  }
+
+  public enum LoadBalancing {
+    ROUND_ROBIN,
+    /**
+     * The replica whose pool has the fewest connections in use.
+     */
+    LEAST_LOADED
+  }
+}
@@ -0,0 +1,16 @@
+package org.mikhi.taskM.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "task.pagination")
+public class TaskPaginationProperties {
+
+  /**
+   * Largest page the filter and keyset endpoints return, whatever size the client asks for.
+   */
+  private int maxPageSize = 500;
+}
@@ -0,0 +1,85 @@
+package org.mikhi.taskM.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Registered by {@link RateLimitConfig}.
+ */
+@Data
+@ConfigurationProperties(prefix = "task.rate-limit")
+public class TaskRateLimitProperties {
+
+  /**
+   * Put the rate and concurrency limits in front of {@code /v1/tasks}.
+   */
+  private boolean enabled = true;
+
+  /**
+   * Request header that identifies a client. Requests without it are told apart by remote
+   * address.
+   */
+  private String clientHeader = "X-Client-Id";
+
+  /**
+   * Requests per second a client may sustain.
+   */
+  private double rate = 100;
+
+  /**
+   * Requests a client may send at once after being idle.
+   */
+  private int burst = 200;
+
+  /**
+   * Clients whose buckets are kept. Beyond it the least recently seen are dropped.
+   */
+  private int maxClients = 100_000;
+
+  /**
+   * Buckets of clients idle for longer are dropped. A dropped client starts over with a full
+   * burst, which it would have had by then anyway.
+   */
+  private Duration idleTimeout = Duration.ofMinutes(10);
+
+  private Concurrency concurrency = new Concurrency();
+
+  @Data
+  public static class Concurrency {
+
+    /**
+     * Requests in flight allowed before any latency has been seen.
+     */
+    private int initialLimit = 64;
+
+    private int minLimit = 8;
+
+    private int maxLimit = 1000;
+
+    /**
+     * A window of requests slower on average than this many times the long-term average counts
+     * as a sign of overload and lowers the limit.
+     */
+    private double latencyTolerance = 2.0;
+
+    /**
+     * Factor the limit is multiplied by on every sign of overload.
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Requests whose latency is averaged before the limit is adjusted, once per window.
+     */
+    private int latencyWindow = 500;
+
+    /**
+     * Paths (prefixes) not counted against the limit: event streams and long polls stay open by
+     * design, and exports run as long as the table is big.
+     */
+    private List<String> excludedPaths =
+        new ArrayList<>(List.of("/v1/tasks/changes", "/v1/tasks/export"));
+  }
+}
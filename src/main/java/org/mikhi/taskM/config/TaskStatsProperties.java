@@ -0,0 +1,18 @@
+package org.mikhi.taskM.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "task.stats")
+public class TaskStatsProperties {
+
+  /**
+   * Time between checks of the in-memory counters against a {@code GROUP BY} count of the stored
+   * tasks. Counters that drifted are rebuilt from the tasks.
+   */
+  private Duration reconcileInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,40 @@
+package org.mikhi.taskM.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "task.storage.wal")
+public class TaskWalProperties {
+
+  /**
+   * Persist the in-memory engine to a write-ahead log and snapshots. Off by default, in which case
+   * tasks are lost on restart.
+   */
+  private boolean enabled = false;
+
+  /**
+   * Directory holding the log segments and snapshots.
+   */
+  private String directory = "data/wal";
+
+  /**
+   * Size of one memory-mapped log segment. A single record must fit in a segment.
+   */
+  private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+  /**
+   * Time between snapshots. Segments older than the latest snapshot are deleted.
+   */
+  private Duration snapshotInterval = Duration.ofMinutes(10);
+
+  /**
+   * Force each write to disk before it is acknowledged. Concurrent writers share one fsync.
+   * When off, writes survive a process crash but not an OS crash.
+   */
+  private boolean fsync = true;
+}
@@ -0,0 +1,54 @@
+package org.mikhi.taskM.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.mikhi.taskM.config.CacheConfig;
+import org.mikhi.taskM.model.ApiResponseDto;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/v1/cache")
+@Tag(name = "Cache Controller", description = "API for inspecting the task cache")
+public class CacheController {
+
+  private final CacheManager cacheManager;
+
+  public CacheController(CacheManager cacheManager) {
+    this.cacheManager = cacheManager;
+  }
+
+  @GetMapping("/stats")
+  @Operation(summary = "Get task cache statistics", description = "Returns hit, miss and eviction counters of the task cache")
+  public ResponseEntity<ApiResponseDto<Map<String, Object>>> getCacheStats() {
+    Cache cache = cacheManager.getCache(CacheConfig.TASKS_CACHE);
+    if (cache instanceof TransactionAwareCacheDecorator) {
+      cache = ((TransactionAwareCacheDecorator) cache).getTargetCache();
+    }
+    CaffeineCache caffeineCache = (CaffeineCache) cache;
+    CacheStats stats = caffeineCache.getNativeCache().stats();
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("size", caffeineCache.getNativeCache().estimatedSize());
+    result.put("hitCount", stats.hitCount());
+    result.put("missCount", stats.missCount());
+    result.put("hitRate", stats.hitRate());
+    result.put("evictionCount", stats.evictionCount());
+    result.put("evictionWeight", stats.evictionWeight());
+    ApiResponseDto<Map<String, Object>> response = new ApiResponseDto<>(
+        "Cache statistics retrieved successfully",
+        result,
+        true
+    );
+    return ResponseEntity.ok(response);
+  }
+}
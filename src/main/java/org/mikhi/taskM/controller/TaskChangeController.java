@@ -0,0 +1,64 @@
+package org.mikhi.taskM.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.mikhi.taskM.config.TaskChangeFeedProperties;
+import org.mikhi.taskM.event.TaskChangeFeed;
+import org.mikhi.taskM.model.ApiResponseDto;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.TaskChanges;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/v1/tasks/changes")
+@Tag(name = "Task Change Controller", description = "API for following task changes without polling the task lists")
+public class TaskChangeController {
+
+  private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+  private final TaskChangeFeed changeFeed;
+  private final TaskChangeFeedProperties properties;
+
+  public TaskChangeController(TaskChangeFeed changeFeed, TaskChangeFeedProperties properties) {
+    this.changeFeed = changeFeed;
+    this.properties = properties;
+  }
+
+  @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @Operation(summary = "Stream task changes", description = "Server-Sent Events stream of task changes after since (or Last-Event-ID), optionally only for the given statuses. Each event's id is its sequence. A reset event means changes were missed: reload the tasks")
+  public SseEmitter streamChanges(
+      @RequestParam(required = false) Long since,
+      @RequestHeader(value = LAST_EVENT_ID, required = false) Long lastEventId,
+      @RequestParam(required = false) Set<Status> status) {
+    SseEmitter emitter = new SseEmitter(properties.getStreamTimeout().toMillis());
+    // A reconnecting EventSource sends Last-Event-ID on the URL it started with.
+    changeFeed.stream(lastEventId != null ? lastEventId : since, status, emitter);
+    return emitter;
+  }
+
+  @GetMapping
+  @Operation(summary = "Poll task changes", description = "Long poll: answers as soon as there are task changes after since, optionally only for the given statuses, or with none after a timeout. Pass the returned lastSequence as since on the next poll")
+  public CompletableFuture<ResponseEntity<ApiResponseDto<TaskChanges>>> pollChanges(
+      @RequestParam(required = false) Long since,
+      @RequestParam(required = false) Set<Status> status) {
+    return changeFeed.poll(since, status).thenApply(changes -> {
+      ApiResponseDto<TaskChanges> response = new ApiResponseDto<>(
+          changes.isReset()
+              ? "Changes were missed, reload the tasks"
+              : String.format("%d task changes", changes.getChanges().size()),
+          changes,
+          true
+      );
+      return ResponseEntity.ok(response);
+    });
+  }
+}
@@ -1,20 +1,43 @@
 package org.mikhi.taskM.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import javax.validation.Valid;
+import org.mikhi.taskM.datasource.ReplicaRoutingDataSource;
+import org.mikhi.taskM.event.TaskChangeTracker;
+import org.mikhi.taskM.exception.ErrorResponse;
+import org.mikhi.taskM.exception.NoTasksFoundException;
+import org.mikhi.taskM.exception.TaskVersionConflictException;
 import org.mikhi.taskM.model.ApiResponseDto;
+import org.mikhi.taskM.model.BatchItemResult;
+import org.mikhi.taskM.model.CompactPage;
+import org.mikhi.taskM.model.CursorPage;
 import org.mikhi.taskM.model.Direction;
+import org.mikhi.taskM.model.ExportFormat;
 import org.mikhi.taskM.model.Status;
 import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskField;
+import org.mikhi.taskM.model.TaskSearchHit;
+import org.mikhi.taskM.model.TaskView;
+import org.mikhi.taskM.search.TaskSearchService;
 import org.mikhi.taskM.service.TaskService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,139 +45,365 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/v1/tasks")
 public class TaskController {
 
+  private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(
+      "application/x-ndjson");
+  private static final int EXPORT_FLUSH_INTERVAL = 500;
+
   private final TaskService taskService;
+  private final ObjectMapper objectMapper;
+  private final TaskChangeTracker changeTracker;
+  private final TaskSearchService searchService;
+  private final AsyncTaskExecutor exportExecutor;
 
-  public TaskController(TaskService taskService) {
+  public TaskController(TaskService taskService, ObjectMapper objectMapper,
+      TaskChangeTracker changeTracker, TaskSearchService searchService,
+      @Qualifier("taskExportExecutor") AsyncTaskExecutor exportExecutor) {
     this.taskService = taskService;
+    this.objectMapper = objectMapper;
+    this.changeTracker = changeTracker;
+    this.searchService = searchService;
+    this.exportExecutor = exportExecutor;
   }
 
   @PostMapping
   @Operation(summary = "Create a new task", description = "Creates a new task and returns the created task details")
-  public ResponseEntity<ApiResponseDto<Task>> createTask(@Valid @RequestBody Task task) {
-    Task createdTask = taskService.createTask(task);
-    ApiResponseDto<Task> response = new ApiResponseDto<>(
-        String.format("Task with ID %d created successfully", createdTask.getId()),
-        createdTask,
-        true
-    );
-    return new ResponseEntity<>(response, HttpStatus.CREATED);
+  public Callable<ResponseEntity<ApiResponseDto<Task>>> createTask(@Valid @RequestBody Task task) {
+    return () -> {
+      Task createdTask = taskService.createTask(task);
+      ApiResponseDto<Task> response = new ApiResponseDto<>(
+          String.format("Task with ID %d created successfully", createdTask.getId()),
+          createdTask,
+          true
+      );
+      return new ResponseEntity<>(response, HttpStatus.CREATED);
+    };
   }
 
   @GetMapping("/{id}")
   @Operation(summary = "Get task by ID", description = "Retrieves the details of a task by its ID")
-  public ResponseEntity<ApiResponseDto<Task>> getTaskById(@PathVariable Long id) {
-    Task task = taskService.getTaskById(id);
-    ApiResponseDto<Task> response = new ApiResponseDto<>(
-        String.format("Task with ID %d found successfully", id),
-        task,
-        true
-    );
-    return ResponseEntity.ok(response);
+  public Callable<ResponseEntity<ApiResponseDto<Task>>> getTaskById(@PathVariable Long id) {
+    return () -> {
+      Task task = taskService.getTaskById(id);
+      ApiResponseDto<Task> response = new ApiResponseDto<>(
+          String.format("Task with ID %d found successfully", id),
+          task,
+          true
+      );
+      // With an ETag set, a matching If-None-Match gets a 304 before the body is written.
+      return withETag(ResponseEntity.ok(), task).body(response);
+    };
   }
 
   @PutMapping("/{id}")
   @Operation(summary = "Update a task by ID", description = "Updates the details of an existing task by its ID")
-  public ResponseEntity<ApiResponseDto<Task>> updateTask(@PathVariable Long id,
-      @Valid @RequestBody Task task) {
-    Task updatedTask = taskService.updateTask(id, task);
-    ApiResponseDto<Task> response = new ApiResponseDto<>(
-        String.format("Task with ID %d updated successfully", id),
-        updatedTask,
-        true
-    );
-    return ResponseEntity.ok(response);
+  public Callable<ResponseEntity<ApiResponseDto<Task>>> updateTask(@PathVariable Long id,
+      @Valid @RequestBody Task task,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    Long expectedVersion = expectedVersion(ifMatch);
+    return () -> {
+      Task updatedTask = taskService.updateTask(id, task, expectedVersion);
+      ApiResponseDto<Task> response = new ApiResponseDto<>(
+          String.format("Task with ID %d updated successfully", id),
+          updatedTask,
+          true
+      );
+      return withETag(ResponseEntity.ok(), updatedTask).body(response);
+    };
   }
 
   @DeleteMapping("/{id}")
   @Operation(summary = "Delete a task by ID", description = "Deletes a task by its ID and returns a confirmation message")
-  public ResponseEntity<ApiResponseDto<String>> deleteTask(@PathVariable Long id) {
-    String result = taskService.deleteTask(id);
-    ApiResponseDto<String> response = new ApiResponseDto<>(
-        String.format("Task with ID %d deleted successfully", id),
-        result,
-        true
+  public Callable<ResponseEntity<ApiResponseDto<String>>> deleteTask(@PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    Long expectedVersion = expectedVersion(ifMatch);
+    return () -> {
+      String result = taskService.deleteTask(id, expectedVersion);
+      ApiResponseDto<String> response = new ApiResponseDto<>(
+          String.format("Task with ID %d deleted successfully", id),
+          result,
+          true
+      );
+      return ResponseEntity.ok(response);
+    };
+  }
+
+  @PostMapping("/batch")
+  @Operation(summary = "Create tasks in bulk", description = "Creates many tasks in chunked transactions and returns a result per item")
+  public Callable<ResponseEntity<ApiResponseDto<List<BatchItemResult>>>> createTasks(
+      @RequestBody List<Task> tasks) {
+    return () -> batchResponse("created", taskService.createTasks(tasks));
+  }
+
+  @PutMapping("/batch")
+  @Operation(summary = "Update tasks in bulk", description = "Updates many tasks, identified by their id, in chunked transactions and returns a result per item")
+  public Callable<ResponseEntity<ApiResponseDto<List<BatchItemResult>>>> updateTasks(
+      @RequestBody List<Task> tasks) {
+    return () -> batchResponse("updated", taskService.updateTasks(tasks));
+  }
+
+  @DeleteMapping("/batch")
+  @Operation(summary = "Delete tasks in bulk", description = "Deletes many tasks by id in chunked transactions and returns a result per item")
+  public Callable<ResponseEntity<ApiResponseDto<List<BatchItemResult>>>> deleteTasks(
+      @RequestBody List<Long> ids) {
+    return () -> batchResponse("deleted", taskService.deleteTasks(ids));
+  }
+
+  private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder,
+      Task task) {
+    return task != null && task.getVersion() != null
+        ? builder.eTag(String.valueOf(task.getVersion()))
+        : builder;
+  }
+
+  /**
+   * Reads the version a conditional write expects from its If-Match header. No header or
+   * {@code *} means any version; a value that is not one of our strong ETags can never match.
+   */
+  private static Long expectedVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    String tag = ifMatch.trim();
+    if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+      try {
+        return Long.valueOf(tag.substring(1, tag.length() - 1));
+      } catch (NumberFormatException e) {
+        // fall through
+      }
+    }
+    throw new TaskVersionConflictException("If-Match does not match the current task version: "
+        + ifMatch);
+  }
+
+  /**
+   * Conditional GET for list responses, validated against the table's change counter. When the
+   * client's copy is current this answers 304 before anything is queried; otherwise it sets the
+   * ETag and, unless the last change is less than a second old, Last-Modified headers of the full
+   * response.
+   * <p>
+   * The query behind such a response runs {@link ReplicaRoutingDataSource#readFromPrimary on the
+   * primary}: the counter moves when the primary commits, so a lagging replica's rows would go out
+   * under a tag that already counts the change, and be confirmed with 304s until the next one.
+   */
+  private boolean notModified(WebRequest request) {
+    return request.checkNotModified(changeTracker.eTag(), changeTracker.lastModified());
+  }
+
+  private ResponseEntity<ApiResponseDto<List<BatchItemResult>>> batchResponse(String action,
+      List<BatchItemResult> results) {
+    long succeeded = results.stream().filter(BatchItemResult::isSuccess).count();
+    ApiResponseDto<List<BatchItemResult>> response = new ApiResponseDto<>(
+        String.format("%d of %d tasks %s successfully", succeeded, results.size(), action),
+        results,
+        succeeded == results.size()
     );
     return ResponseEntity.ok(response);
   }
 
   @GetMapping
-  @Operation(summary = "Get all tasks", description = "Retrieves a list of all tasks")
-  public ResponseEntity<ApiResponseDto<List<Task>>> getAllTasks() {
-    List<Task> tasks = taskService.getAllTasks();
-    ApiResponseDto<List<Task>> response = new ApiResponseDto<>(
-        "Tasks retrieved successfully",
-        tasks,
-        true
-    );
-    return ResponseEntity.ok(response);
+  @Operation(summary = "Get all tasks", description = "Retrieves a list of all tasks. Use fields (e.g. id,title,status) to return only those properties. Answers 304 to a matching If-None-Match or If-Modified-Since")
+  public Callable<ResponseEntity<?>> getAllTasks(
+      @RequestParam(required = false) String fields, WebRequest request) {
+    Set<TaskField> selected = TaskField.parse(fields);
+    if (notModified(request)) {
+      return null;
+    }
+    return () -> {
+      List<TaskView> tasks =
+          ReplicaRoutingDataSource.readFromPrimary(() -> taskService.getAllTasks(selected));
+      if (tasks.isEmpty()) {
+        return ErrorResponse.notFound(NoTasksFoundException.NO_TASKS_MESSAGE);
+      }
+      ApiResponseDto<List<TaskView>> response = new ApiResponseDto<>(
+          "Tasks retrieved successfully",
+          tasks,
+          true
+      );
+      return ResponseEntity.ok(response);
+    };
+  }
+
+  @GetMapping("/export")
+  @Operation(summary = "Export all tasks", description = "Streams every task either as newline-delimited JSON (NDJSON) or as a single JSON array, without loading the whole table into memory")
+  public ResponseEntity<StreamingResponseBody> exportTasks(
+      @RequestParam(defaultValue = "NDJSON") ExportFormat format, WebRequest request) {
+    // Streams off the shared executor, which would otherwise lose a thread for the whole export.
+    WebAsyncUtils.getAsyncManager(request).setTaskExecutor(exportExecutor);
+    StreamingResponseBody body = out -> {
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+        generator.setRootValueSeparator(null);
+        if (format == ExportFormat.JSON) {
+          generator.writeStartArray();
+        }
+        int[] written = {0};
+        taskService.streamAllTasks(task -> {
+          try {
+            generator.writeObject(task);
+            if (format == ExportFormat.NDJSON) {
+              generator.writeRaw('\n');
+            }
+            if (++written[0] % EXPORT_FLUSH_INTERVAL == 0) {
+              generator.flush();
+            }
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+        if (format == ExportFormat.JSON) {
+          generator.writeEndArray();
+        }
+      }
+    };
+    MediaType contentType =
+        format == ExportFormat.JSON ? MediaType.APPLICATION_JSON : APPLICATION_NDJSON;
+    return ResponseEntity.ok().contentType(contentType).body(body);
   }
 
   @GetMapping("/paginated")
-  @Operation(summary = "Get paginated tasks", description = "Retrieves tasks in a paginated format/page format with sorting options")
-  public ResponseEntity<ApiResponseDto<Page<Task>>> getAllTasksPaginated(
+  @Operation(summary = "Get paginated tasks", description = "Retrieves tasks in a paginated format/page format with sorting options. Use fields (e.g. id,title,status) to return only those properties. Answers 304 to a matching If-None-Match or If-Modified-Since")
+  public Callable<ResponseEntity<ApiResponseDto<CompactPage<TaskView>>>> getAllTasksPaginated(
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "10") int size,
       @RequestParam(defaultValue = "dueDate") String sortBy,
-      @RequestParam(defaultValue = "ASC") Direction direction
+      @RequestParam(defaultValue = "ASC") Direction direction,
+      @RequestParam(required = false) String fields,
+      WebRequest request
   ) {
-    Sort.Direction sortDirection = Sort.Direction.valueOf(direction.name());
-    Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
-    Page<Task> taskPage = taskService.getAllTasks(pageable);
-    ApiResponseDto<Page<Task>> response = new ApiResponseDto<>("Success", taskPage, true);
-    return ResponseEntity.ok(response);
+    Set<TaskField> selected = TaskField.parse(fields);
+    if (notModified(request)) {
+      return null;
+    }
+    return () -> {
+      Sort.Direction sortDirection = Sort.Direction.valueOf(direction.name());
+      Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
+      Page<TaskView> taskPage = ReplicaRoutingDataSource.readFromPrimary(
+          () -> taskService.getAllTasks(pageable, selected));
+      ApiResponseDto<CompactPage<TaskView>> response =
+          new ApiResponseDto<>("Success", CompactPage.of(taskPage), true);
+      return ResponseEntity.ok(response);
+    };
+  }
+
+  @GetMapping("/paginated/keyset")
+  @Operation(summary = "Get tasks by cursor", description = "Retrieves tasks using keyset pagination. Pass the returned nextCursor to fetch the following slice; sortBy and direction are taken from the cursor when one is given. Answers 304 to a matching If-None-Match or If-Modified-Since")
+  public Callable<ResponseEntity<ApiResponseDto<CursorPage<Task>>>> getTasksByCursor(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "10") int size,
+      @RequestParam(defaultValue = "dueDate") String sortBy,
+      @RequestParam(defaultValue = "ASC") Direction direction,
+      WebRequest request
+  ) {
+    if (notModified(request)) {
+      return null;
+    }
+    return () -> {
+      CursorPage<Task> taskSlice = ReplicaRoutingDataSource.readFromPrimary(
+          () -> taskService.getTasksByCursor(cursor, size, sortBy, direction));
+      ApiResponseDto<CursorPage<Task>> response =
+          new ApiResponseDto<>("Success", taskSlice, true);
+      return ResponseEntity.ok(response);
+    };
   }
 
 
   @GetMapping("/filter")
-  @Operation(summary = "Filter tasks", description = "Filters tasks based on Status and/or Due-date")
-  public ResponseEntity<ApiResponseDto<List<Task>>> filterTasks(
+  @Operation(summary = "Filter tasks", description = "Filters tasks based on Status and/or Due-date, one page at a time ordered by due date. The page size is capped by the server. Use fields (e.g. id,title,status) to return only those properties. Answers 304 to a matching If-None-Match or If-Modified-Since")
+  public Callable<ResponseEntity<?>> filterTasks(
       @RequestParam(required = false) Status status,
-      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate) {
-
-    List<Task> filteredTasks;
-    String message;
-
-    if (status != null && dueDate != null) {
-      filteredTasks = taskService.filterTasks(status, dueDate);
-      message = "Tasks filtered by status and due date";
-    } else if (status != null) {
-      filteredTasks = taskService.filterTasks(status);
-      message = "Tasks filtered by status";
-    } else if (dueDate != null) {
-      filteredTasks = taskService.filterTasks(dueDate);
-      message = "Tasks filtered by due date";
-    } else {
-      filteredTasks = taskService.getAllTasks();
-      message = "No filters applied";
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "100") int size,
+      @RequestParam(required = false) String fields,
+      WebRequest request) {
+    Set<TaskField> selected = TaskField.parse(fields);
+    if (notModified(request)) {
+      return null;
     }
-
-    ApiResponseDto<List<Task>> response = new ApiResponseDto<>(
-        message,
-        filteredTasks,
-        true
-    );
-    return ResponseEntity.ok(response);
+    return () -> {
+      List<TaskView> filteredTasks = ReplicaRoutingDataSource.readFromPrimary(
+          () -> taskService.filterTasks(status, dueDate, byDueDate(page, size), selected));
+      if (filteredTasks.isEmpty()) {
+        return ErrorResponse.notFound(NoTasksFoundException.filteredMessage(status, dueDate));
+      }
+      String message;
+      if (status != null && dueDate != null) {
+        message = "Tasks filtered by status and due date";
+      } else if (status != null) {
+        message = "Tasks filtered by status";
+      } else if (dueDate != null) {
+        message = "Tasks filtered by due date";
+      } else {
+        message = "No filters applied";
+      }
+      ApiResponseDto<List<TaskView>> response = new ApiResponseDto<>(
+          message,
+          filteredTasks,
+          true
+      );
+      return ResponseEntity.ok(response);
+    };
   }
 
   @GetMapping("/till-date")
-  @Operation(summary = "Get tasks till a specific date", description = "Retrieves tasks with a due date up to the specified date")
-  public ResponseEntity<ApiResponseDto<List<Task>>> getTasksTillDate(
-      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate) {
-    List<Task> tasks = taskService.getTasksTillDate(dueDate);
-    ApiResponseDto<List<Task>> response = new ApiResponseDto<>(
-        "Tasks with due date till " + dueDate + " retrieved successfully",
-        tasks,
-        true
-    );
-    return ResponseEntity.ok(response);
+  @Operation(summary = "Get tasks till a specific date", description = "Retrieves tasks with a due date up to the specified date, one page at a time. The page size is capped by the server. Use fields (e.g. id,title,status) to return only those properties. Answers 304 to a matching If-None-Match or If-Modified-Since")
+  public Callable<ResponseEntity<?>> getTasksTillDate(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "100") int size,
+      @RequestParam(required = false) String fields,
+      WebRequest request) {
+    Set<TaskField> selected = TaskField.parse(fields);
+    if (notModified(request)) {
+      return null;
+    }
+    return () -> {
+      List<TaskView> tasks = ReplicaRoutingDataSource.readFromPrimary(
+          () -> taskService.getTasksTillDate(dueDate, byDueDate(page, size), selected));
+      if (tasks.isEmpty()) {
+        return ErrorResponse.notFound(NoTasksFoundException.tillDateMessage(dueDate));
+      }
+      ApiResponseDto<List<TaskView>> response = new ApiResponseDto<>(
+          "Tasks with due date till " + dueDate + " retrieved successfully",
+          tasks,
+          true
+      );
+      return ResponseEntity.ok(response);
+    };
+  }
+
+  @GetMapping("/search")
+  @Operation(summary = "Search tasks", description = "Full-text search over title and description. Every word of q must occur, the last one also as a prefix; results are ranked by relevance (BM25), best first. The page size is capped by the server")
+  public Callable<ResponseEntity<ApiResponseDto<CompactPage<TaskSearchHit>>>> searchTasks(
+      @RequestParam String q,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "20") int size) {
+    Pageable pageable = PageRequest.of(page, size);
+    return () -> {
+      Page<TaskSearchHit> hits = searchService.search(q, pageable);
+      ApiResponseDto<CompactPage<TaskSearchHit>> response = new ApiResponseDto<>(
+          String.format("%d tasks match '%s'", hits.getTotalElements(), q),
+          CompactPage.of(hits),
+          true
+      );
+      return ResponseEntity.ok(response);
+    };
+  }
+
+  // Due date then id: a stable order the due date indexes can serve.
+  private static Pageable byDueDate(int page, int size) {
+    return PageRequest.of(page, size, Sort.by("dueDate", "id"));
   }
 
 }
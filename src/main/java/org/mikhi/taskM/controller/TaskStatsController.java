@@ -0,0 +1,35 @@
+package org.mikhi.taskM.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.mikhi.taskM.model.ApiResponseDto;
+import org.mikhi.taskM.model.TaskStats;
+import org.mikhi.taskM.stats.TaskStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/v1/tasks/stats")
+@Tag(name = "Task Stats Controller", description = "API for task counts, served from in-memory counters")
+public class TaskStatsController {
+
+  private final TaskStatsService statsService;
+
+  public TaskStatsController(TaskStatsService statsService) {
+    this.statsService = statsService;
+  }
+
+  @GetMapping
+  @Operation(summary = "Get task statistics", description = "Counts of tasks by status, overdue tasks (due before today and not DONE), tasks without a due date, and tasks due per week. Served from counters kept in memory, without querying the tasks")
+  public ResponseEntity<ApiResponseDto<TaskStats>> getStats() {
+    TaskStats stats = statsService.getStats();
+    ApiResponseDto<TaskStats> response = new ApiResponseDto<>(
+        String.format("%d tasks, %d overdue", stats.getTotal(), stats.getOverdue()),
+        stats,
+        true
+    );
+    return ResponseEntity.ok(response);
+  }
+}
@@ -0,0 +1,145 @@
+package org.mikhi.taskM.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.mikhi.taskM.config.TaskDataSourceProperties.LoadBalancing;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary.
+ * <p>
+ * A client that committed a read-write transaction keeps reading from the primary for
+ * {@code readYourWritesWindow}, so it sees its own writes however far the replicas lag behind.
+ * <p>
+ * Must sit behind a {@link LazyConnectionDataSourceProxy}: the transaction manager asks for a
+ * connection before the transaction is flagged read-only, the proxy defers that until the first
+ * statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+  static final String PRIMARY = "primary";
+
+  private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+  private final List<HikariDataSource> replicas;
+  private final LoadBalancing loadBalancing;
+  private final Cache<String, Boolean> recentWriters;
+  private final AtomicInteger next = new AtomicInteger();
+
+  public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+      LoadBalancing loadBalancing, Duration readYourWritesWindow, Ticker ticker) {
+    this.replicas = List.copyOf(replicas);
+    this.loadBalancing = loadBalancing;
+    this.recentWriters = Caffeine.newBuilder()
+        .expireAfterWrite(readYourWritesWindow)
+        .ticker(ticker)
+        .build();
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    for (int i = 0; i < replicas.size(); i++) {
+      targets.put(replicaKey(i), replicas.get(i));
+    }
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+  }
+
+  public List<HikariDataSource> getReplicas() {
+    return replicas;
+  }
+
+  static String replicaKey(int index) {
+    return "replica-" + index;
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    String client = TaskClientContext.current();
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      if (client != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+              recentWriters.put(client, Boolean.TRUE);
+            }
+          }
+        });
+      }
+      return PRIMARY;
+    }
+    if (readsFromPrimary(client)) {
+      return PRIMARY;
+    }
+    return replicaKey(chooseReplica());
+  }
+
+  /**
+   * Whether read-only work for {@code client} on this thread goes to the primary, as it does for
+   * a while after the client's last write and inside {@link #readFromPrimary}.
+   */
+  public boolean readsFromPrimary(String client) {
+    return PRIMARY_READS.get() != null
+        || client != null && recentWriters.getIfPresent(client) != null;
+  }
+
+  /**
+   * Runs {@code read} with its read-only transaction, if it starts one, sent to the primary. For
+   * reads whose result outlives the call, such as cache fills, which a lagging replica would
+   * otherwise leave stale for every client.
+   */
+  public static <T> T readFromPrimary(Supplier<T> read) {
+    Boolean previous = PRIMARY_READS.get();
+    PRIMARY_READS.set(Boolean.TRUE);
+    try {
+      return read.get();
+    } finally {
+      if (previous == null) {
+        PRIMARY_READS.remove();
+      }
+    }
+  }
+
+  private int chooseReplica() {
+    int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+    if (loadBalancing == LoadBalancing.ROUND_ROBIN) {
+      return start;
+    }
+    // Scanning from the round-robin position spreads ties instead of piling onto replica 0.
+    int chosen = start;
+    int fewest = Integer.MAX_VALUE;
+    for (int i = 0; i < replicas.size(); i++) {
+      int candidate = (start + i) % replicas.size();
+      int active = activeConnections(replicas.get(candidate));
+      if (active < fewest) {
+        chosen = candidate;
+        fewest = active;
+      }
+    }
+    return chosen;
+  }
+
+  private static int activeConnections(HikariDataSource replica) {
+    // Null until the pool has started.
+    HikariPoolMXBean pool = replica.getHikariPoolMXBean();
+    return pool == null ? 0 : pool.getActiveConnections();
+  }
+
+  @Override
+  public void close() {
+    replicas.forEach(HikariDataSource::close);
+  }
+}
@@ -0,0 +1,42 @@
+package org.mikhi.taskM.datasource;
+
+/**
+ * The client on whose behalf the current thread works, used for read-your-writes routing. Set by
+ * {@link TaskClientFilter} and carried over to the threads that run controller {@code Callable}s
+ * by {@link #propagate(Runnable)}.
+ */
+public final class TaskClientContext {
+
+  private static final ThreadLocal<String> CLIENT = new ThreadLocal<>();
+
+  private TaskClientContext() {
+  }
+
+  public static String current() {
+    return CLIENT.get();
+  }
+
+  public static void set(String client) {
+    CLIENT.set(client);
+  }
+
+  public static void clear() {
+    CLIENT.remove();
+  }
+
+  /**
+   * Captures the caller's client for {@code task}. Usable as a {@code TaskDecorator}.
+   */
+  public static Runnable propagate(Runnable task) {
+    String client = CLIENT.get();
+    return () -> {
+      String previous = CLIENT.get();
+      CLIENT.set(client);
+      try {
+        task.run();
+      } finally {
+        CLIENT.set(previous);
+      }
+    };
+  }
+}
@@ -0,0 +1,33 @@
+package org.mikhi.taskM.datasource;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Binds the client named by the configured header, or the remote address without one, to the
+ * request thread.
+ */
+public class TaskClientFilter extends OncePerRequestFilter {
+
+  private final String header;
+
+  public TaskClientFilter(String header) {
+    this.header = header;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain chain) throws ServletException, IOException {
+    String client = request.getHeader(header);
+    TaskClientContext.set(client == null || client.isBlank() ? request.getRemoteAddr() : client);
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      TaskClientContext.clear();
+    }
+  }
+}
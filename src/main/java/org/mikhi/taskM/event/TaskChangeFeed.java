@@ -0,0 +1,324 @@
+package org.mikhi.taskM.event;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.mikhi.taskM.config.TaskChangeFeedProperties;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.TaskChange;
+import org.mikhi.taskM.model.TaskChanges;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Committed task changes for subscribers that would otherwise poll the task lists.
+ * <p>
+ * Changes are numbered and kept in a ring buffer of {@code task.changes.buffer-size} entries, so
+ * a client can resume after the last sequence it saw. Subscribers hold no queue of their own, only
+ * a cursor into the buffer: a subscriber that falls further behind than the buffer reaches, or
+ * resumes from further back, is told to reset (reload the tasks and carry on from the latest
+ * sequence) instead of piling up changes in memory. Delivery runs on a few dedicated threads and
+ * never on the thread that made the change.
+ * <p>
+ * Sequences start at the start time in milliseconds times 1000, so a sequence kept from before a
+ * restart is older than any of this run and resuming from it resets.
+ */
+@Slf4j
+@Component
+public class TaskChangeFeed implements MeterBinder {
+
+  private final TaskChangeFeedProperties properties;
+  private final TaskChange[] ring;
+  private final long firstSequence = System.currentTimeMillis() * 1000;
+  // Guarded by ring.
+  private long lastSequence = firstSequence;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService delivery;
+
+  public TaskChangeFeed(TaskChangeFeedProperties properties) {
+    this.properties = properties;
+    this.ring = new TaskChange[properties.getBufferSize()];
+    AtomicInteger threads = new AtomicInteger();
+    this.delivery = Executors.newScheduledThreadPool(properties.getDeliveryThreads(), runnable -> {
+      Thread thread = new Thread(runnable, "task-changes-" + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    long heartbeat = properties.getHeartbeat().toMillis();
+    delivery.scheduleWithFixedDelay(
+        () -> subscribers.forEach(Subscriber::heartbeat), heartbeat, heartbeat,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void close() {
+    delivery.shutdownNow();
+    subscribers.forEach(Subscriber::close);
+  }
+
+  /**
+   * Runs after commit, or straight away for an engine without transactions.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTaskChanged(TaskChangedEvent event) {
+    synchronized (ring) {
+      lastSequence++;
+      ring[index(lastSequence)] = TaskChange.of(lastSequence, event);
+    }
+    subscribers.forEach(Subscriber::signal);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("task.changes.subscribers", subscribers, Set::size)
+        .description("Open change feed streams and long polls")
+        .register(registry);
+  }
+
+  /**
+   * Long poll: completes with the changes after {@code since} (after the latest when
+   * {@code null}) as soon as one of them matches {@code statuses}, or with none once
+   * {@code task.changes.poll-timeout} has passed.
+   */
+  public CompletableFuture<TaskChanges> poll(Long since, Set<Status> statuses) {
+    LongPoll poll = new LongPoll(start(since), statuses);
+    subscribe(poll);
+    ScheduledFuture<?> timeout = delivery.schedule(poll::expire,
+        properties.getPollTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    poll.result.whenComplete((changes, e) -> timeout.cancel(false));
+    return poll.result;
+  }
+
+  /**
+   * Sends every change after {@code since} (after the latest when {@code null}) that matches
+   * {@code statuses} to {@code emitter}, until the emitter completes.
+   */
+  public void stream(Long since, Set<Status> statuses, SseEmitter emitter) {
+    Stream stream = new Stream(start(since), statuses, emitter);
+    emitter.onCompletion(() -> subscribers.remove(stream));
+    emitter.onError(e -> subscribers.remove(stream));
+    emitter.onTimeout(emitter::complete);
+    subscribe(stream);
+  }
+
+  private long start(Long since) {
+    if (since != null) {
+      return since;
+    }
+    synchronized (ring) {
+      return lastSequence;
+    }
+  }
+
+  private void subscribe(Subscriber subscriber) {
+    subscribers.add(subscriber);
+    // Picks up what was missed before and while subscribing.
+    subscriber.signal();
+  }
+
+  private int index(long sequence) {
+    return (int) (sequence % ring.length);
+  }
+
+  /**
+   * Up to {@code max} changes after {@code since}. Lost when some of them are no longer in the
+   * buffer, or {@code since} is not a sequence of this run.
+   */
+  private Backlog read(long since, int max) {
+    synchronized (ring) {
+      if (since > lastSequence || since < Math.max(firstSequence, lastSequence - ring.length)) {
+        return new Backlog(List.of(), lastSequence, true);
+      }
+      int count = (int) Math.min(lastSequence - since, max);
+      List<TaskChange> changes = new ArrayList<>(count);
+      for (long sequence = since + 1; sequence <= since + count; sequence++) {
+        changes.add(ring[index(sequence)]);
+      }
+      return new Backlog(changes, since + count, false);
+    }
+  }
+
+  private static final class Backlog {
+
+    final List<TaskChange> changes;
+    final long lastSequence;
+    final boolean lost;
+
+    Backlog(List<TaskChange> changes, long lastSequence, boolean lost) {
+      this.changes = changes;
+      this.lastSequence = lastSequence;
+      this.lost = lost;
+    }
+  }
+
+  private abstract class Subscriber {
+
+    private final AtomicInteger signals = new AtomicInteger();
+    private final Set<Status> statuses;
+    // Only touched by deliver(), which never runs concurrently with itself.
+    long cursor;
+
+    Subscriber(long cursor, Set<Status> statuses) {
+      this.cursor = cursor;
+      this.statuses = statuses;
+    }
+
+    /**
+     * Schedules deliver(), unless it is already scheduled; then it runs once more afterwards.
+     */
+    final void signal() {
+      if (signals.getAndIncrement() == 0) {
+        try {
+          delivery.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+          // Shutting down.
+        }
+      }
+    }
+
+    private void drain() {
+      int missed = 1;
+      do {
+        try {
+          deliver();
+        } catch (RuntimeException e) {
+          log.warn("Dropping change feed subscriber", e);
+          subscribers.remove(this);
+          close();
+        }
+        missed = signals.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    final boolean matches(TaskChange change) {
+      return statuses == null || statuses.isEmpty() || change.getStatus() == null
+          || statuses.contains(change.getStatus());
+    }
+
+    abstract void deliver();
+
+    void heartbeat() {
+    }
+
+    abstract void close();
+  }
+
+  private final class LongPoll extends Subscriber {
+
+    final CompletableFuture<TaskChanges> result = new CompletableFuture<>();
+    private volatile boolean expired;
+
+    LongPoll(long cursor, Set<Status> statuses) {
+      super(cursor, statuses);
+    }
+
+    void expire() {
+      expired = true;
+      signal();
+    }
+
+    @Override
+    void deliver() {
+      if (result.isDone()) {
+        return;
+      }
+      List<TaskChange> matching = new ArrayList<>();
+      Backlog backlog;
+      do {
+        backlog = read(cursor, properties.getBatchSize());
+        if (backlog.lost) {
+          complete(new TaskChanges(List.of(), backlog.lastSequence, true));
+          return;
+        }
+        backlog.changes.stream().filter(this::matches).forEach(matching::add);
+        cursor = backlog.lastSequence;
+      } while (matching.isEmpty() && !backlog.changes.isEmpty());
+      if (!matching.isEmpty() || expired) {
+        complete(new TaskChanges(matching, cursor, false));
+      }
+    }
+
+    private void complete(TaskChanges changes) {
+      subscribers.remove(this);
+      result.complete(changes);
+    }
+
+    @Override
+    void close() {
+      complete(new TaskChanges(List.of(), cursor, false));
+    }
+  }
+
+  private final class Stream extends Subscriber {
+
+    private final SseEmitter emitter;
+
+    Stream(long cursor, Set<Status> statuses, SseEmitter emitter) {
+      super(cursor, statuses);
+      this.emitter = emitter;
+    }
+
+    @Override
+    void deliver() {
+      Backlog backlog;
+      do {
+        backlog = read(cursor, properties.getBatchSize());
+        if (backlog.lost) {
+          // The id makes a reconnecting EventSource carry on from the latest change.
+          if (send(SseEmitter.event().name("reset").id(String.valueOf(backlog.lastSequence))
+              .data(backlog.lastSequence))) {
+            subscribers.remove(this);
+            emitter.complete();
+          }
+          return;
+        }
+        for (TaskChange change : backlog.changes) {
+          if (matches(change) && !send(SseEmitter.event()
+              .id(String.valueOf(change.getSequence()))
+              .data(change, MediaType.APPLICATION_JSON))) {
+            return;
+          }
+        }
+        cursor = backlog.lastSequence;
+      } while (!backlog.changes.isEmpty());
+    }
+
+    @Override
+    void heartbeat() {
+      send(SseEmitter.event().comment("keep-alive"));
+    }
+
+    private boolean send(SseEmitter.SseEventBuilder event) {
+      try {
+        emitter.send(event);
+        return true;
+      } catch (IOException | IllegalStateException e) {
+        // Gone: the client resumes from its last event id when it reconnects.
+        subscribers.remove(this);
+        emitter.completeWithError(e);
+        return false;
+      }
+    }
+
+    @Override
+    void close() {
+      emitter.complete();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package org.mikhi.taskM.event;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Counts committed task changes, so list responses can carry a validator that is known without
+ * querying: any create, update or delete changes it.
+ * <p>
+ * The counter covers the whole table. Per-status counters would need the status a task had
+ * before an update or delete, which the JPA engine does not read.
+ */
+@Component
+public class TaskChangeTracker {
+
+  private final Clock clock;
+  // Tells counters of different runs apart: the count starts over at every start.
+  private final String epoch;
+  private final AtomicLong changes = new AtomicLong();
+  private volatile long lastModified;
+
+  public TaskChangeTracker() {
+    this(Clock.systemUTC());
+  }
+
+  public TaskChangeTracker(Clock clock) {
+    this.clock = clock;
+    this.lastModified = clock.millis();
+    this.epoch = Long.toString(lastModified, 36);
+  }
+
+  /**
+   * Runs after commit, or straight away for an engine without transactions.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTaskChanged(TaskChangedEvent event) {
+    lastModified = clock.millis();
+    changes.incrementAndGet();
+  }
+
+  /**
+   * A weak ETag for the current state of the table. Read it before querying: a change committed
+   * in between then only costs the client one more full response.
+   */
+  public String eTag() {
+    return "W/\"" + epoch + "-" + changes.get() + "\"";
+  }
+
+  /**
+   * Changes committed since the start.
+   */
+  public long changes() {
+    return changes.get();
+  }
+
+  /**
+   * Time of the last change, or of the start when nothing changed since; {@code -1} while the
+   * second it falls in is still running. HTTP dates count whole seconds, so a change later in the
+   * same second would not move {@code Last-Modified}, and a client sending only
+   * {@code If-Modified-Since} would be told its copy is current.
+   */
+  public long lastModified() {
+    long last = lastModified;
+    return last / 1000 < clock.millis() / 1000 ? last : -1;
+  }
+}
@@ -0,0 +1,57 @@
+package org.mikhi.taskM.event;
+
+import lombok.Value;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+
+/**
+ * Published by the storage engines for every task they create, update or delete. Listeners
+ * declared with {@code @TransactionalEventListener} see it once the change has committed.
+ */
+@Value
+public class TaskChangedEvent {
+
+  public enum Type {
+    CREATED,
+    UPDATED,
+    DELETED
+  }
+
+  Type type;
+  long taskId;
+
+  /**
+   * A copy of the task after the change; for deletions the task as it was, when known.
+   */
+  Task task;
+
+  public static TaskChangedEvent created(Task task) {
+    return new TaskChangedEvent(Type.CREATED, task.getId(), copy(task));
+  }
+
+  public static TaskChangedEvent updated(Task task) {
+    return new TaskChangedEvent(Type.UPDATED, task.getId(), copy(task));
+  }
+
+  public static TaskChangedEvent deleted(long id, Task task) {
+    return new TaskChangedEvent(Type.DELETED, id, task == null ? null : copy(task));
+  }
+
+  /**
+   * The task's status after the change, or {@code null} when it has none or it is not known.
+   */
+  public Status getStatus() {
+    return task == null ? null : task.getStatus();
+  }
+
+  private static Task copy(Task task) {
+    return Task.builder()
+        .id(task.getId())
+        .title(task.getTitle())
+        .description(task.getDescription())
+        .status(task.getStatus())
+        .dueDate(task.getDueDate())
+        .version(task.getVersion())
+        .build();
+  }
+}
@@ -1,6 +1,8 @@
 package org.mikhi.taskM.exception;
 
 import lombok.Data;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
 @Data
 public class ErrorResponse {
@@ -12,4 +14,12 @@ public class ErrorResponse {
     this.status = status;
     this.message = message;
   }
-}
\ No newline at end of file
+
+  /**
+   * The 404 for a missing task or an empty list, whether thrown or answered directly.
+   */
+  public static ResponseEntity<ErrorResponse> notFound(String message) {
+    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+        .body(new ErrorResponse(HttpStatus.NOT_FOUND.value(), message));
+  }
+}
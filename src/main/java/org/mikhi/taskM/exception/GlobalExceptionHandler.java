@@ -1,7 +1,10 @@
 package org.mikhi.taskM.exception;
 
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -14,22 +17,55 @@ public class GlobalExceptionHandler {
 
   @ExceptionHandler(NoTasksFoundException.class)
   public ResponseEntity<ErrorResponse> handleNoTasksFoundException(NoTasksFoundException ex) {
+    return ErrorResponse.notFound(ex.getMessage());
+  }
+
+  @ExceptionHandler(TaskNotFoundException.class)
+  public ResponseEntity<ErrorResponse> handleTaskNotFoundException(TaskNotFoundException ex) {
+    return ErrorResponse.notFound(ex.getMessage());
+  }
+
+  @ExceptionHandler(TaskVersionConflictException.class)
+  public ResponseEntity<ErrorResponse> handleTaskVersionConflictException(
+      TaskVersionConflictException ex) {
     ErrorResponse error = new ErrorResponse(
-        HttpStatus.NOT_FOUND.value(),
+        HttpStatus.PRECONDITION_FAILED.value(),
         ex.getMessage()
     );
-    return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
   }
 
-  @ExceptionHandler(TaskNotFoundException.class)
-  public ResponseEntity<ErrorResponse> handleTaskNotFoundException(TaskNotFoundException ex) {
+  @ExceptionHandler(RejectedExecutionException.class)
+  public ResponseEntity<ErrorResponse> handleRejectedExecutionException(
+      RejectedExecutionException ex) {
+    ErrorResponse error = new ErrorResponse(
+        HttpStatus.SERVICE_UNAVAILABLE.value(),
+        "Server is busy, please retry later"
+    );
+    // Set explicitly: a rejected export has already been given its own content type.
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(error);
+  }
+
+  @ExceptionHandler(InvalidCursorException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidCursorException(InvalidCursorException ex) {
     ErrorResponse error = new ErrorResponse(
-        HttpStatus.NOT_FOUND.value(),
+        HttpStatus.BAD_REQUEST.value(),
         ex.getMessage()
     );
-    return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
   }
 
+  @ExceptionHandler(InvalidFieldsException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidFieldsException(InvalidFieldsException ex) {
+    ErrorResponse error = new ErrorResponse(
+        HttpStatus.BAD_REQUEST.value(),
+        ex.getMessage()
+    );
+    return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+  }
 
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ErrorResponse> handleValidationException(
@@ -0,0 +1,8 @@
+package org.mikhi.taskM.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+  public InvalidCursorException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package org.mikhi.taskM.exception;
+
+public class InvalidFieldsException extends RuntimeException {
+
+  public InvalidFieldsException(String message) {
+    super(message);
+  }
+}
@@ -1,8 +1,61 @@
 package org.mikhi.taskM.exception;
 
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import org.mikhi.taskM.model.Status;
+
+/**
+ * A list query matched nothing. Like {@link TaskNotFoundException} it carries no stack trace,
+ * and the instances for a fixed message are created once and shared: without a stack trace or
+ * suppressed exceptions there is nothing in them to change.
+ */
 public class NoTasksFoundException extends RuntimeException {
 
+  public static final String NO_TASKS_MESSAGE = "No tasks found in the system";
+
+  private static final NoTasksFoundException NO_TASKS =
+      new NoTasksFoundException(NO_TASKS_MESSAGE);
+  private static final Map<Status, NoTasksFoundException> NO_TASKS_WITH_STATUS =
+      new EnumMap<>(Status.class);
+
+  static {
+    for (Status status : Status.values()) {
+      NO_TASKS_WITH_STATUS.put(status, new NoTasksFoundException(filteredMessage(status, null)));
+    }
+  }
+
   public NoTasksFoundException(String message) {
-    super(message);
+    super(message, null, false, false);
+  }
+
+  public static NoTasksFoundException noTasks() {
+    return NO_TASKS;
+  }
+
+  public static NoTasksFoundException filtered(Status status, LocalDate dueDate) {
+    if (dueDate == null) {
+      return status == null ? NO_TASKS : NO_TASKS_WITH_STATUS.get(status);
+    }
+    return new NoTasksFoundException(filteredMessage(status, dueDate));
+  }
+
+  public static NoTasksFoundException tillDate(LocalDate dueDate) {
+    return new NoTasksFoundException(tillDateMessage(dueDate));
+  }
+
+  public static String filteredMessage(Status status, LocalDate dueDate) {
+    if (status != null && dueDate != null) {
+      return String.format("No tasks found with status: %s and due date: %s", status, dueDate);
+    } else if (status != null) {
+      return "No tasks found with status: " + status;
+    } else if (dueDate != null) {
+      return "No tasks found with due date: " + dueDate;
+    }
+    return NO_TASKS_MESSAGE;
+  }
+
+  public static String tillDateMessage(LocalDate dueDate) {
+    return " No tasks found with due date till: " + dueDate;
   }
 }
@@ -1,8 +1,12 @@
 package org.mikhi.taskM.exception;
 
+/**
+ * A routine outcome that {@link GlobalExceptionHandler} answers with a 404 and never logs, so it
+ * skips the stack trace: capturing one costs more than the lookup that failed.
+ */
 public class TaskNotFoundException extends RuntimeException {
 
   public TaskNotFoundException(String message) {
-    super(message);
+    super(message, null, false, false);
   }
 }
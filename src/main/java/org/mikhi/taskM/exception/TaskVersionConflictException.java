@@ -0,0 +1,8 @@
+package org.mikhi.taskM.exception;
+
+public class TaskVersionConflictException extends RuntimeException {
+
+  public TaskVersionConflictException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,22 @@
+package org.mikhi.taskM.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread. Callers read the counter
+ * before and after a unit of work and take the difference.
+ */
+public class StatementCounter implements StatementInspector {
+
+  private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+  @Override
+  public String inspect(String sql) {
+    COUNT.get()[0]++;
+    return sql;
+  }
+
+  public long current() {
+    return COUNT.get()[0];
+  }
+}
@@ -0,0 +1,76 @@
+package org.mikhi.taskM.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every {@code TaskService} call and records how many SQL statements it prepared, tagged by
+ * operation (method name) and exception class ({@code none} on success).
+ * <p>
+ * Runs outside the transaction and cache advice, so the timings include commit time and cache
+ * hits.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TaskServiceMetrics {
+
+  static final String TIMER = "task.service";
+  static final String STATEMENTS = "task.service.statements";
+
+  private final MeterRegistry registry;
+  private final StatementCounter statementCounter;
+  // Successful calls dominate, so their meters are looked up once per operation.
+  private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+  private final Map<String, DistributionSummary> statementSummaries = new ConcurrentHashMap<>();
+
+  public TaskServiceMetrics(MeterRegistry registry, StatementCounter statementCounter) {
+    this.registry = registry;
+    this.statementCounter = statementCounter;
+  }
+
+  @Around("execution(* org.mikhi.taskM.service.TaskService.*(..))")
+  public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+    String operation = joinPoint.getSignature().getName();
+    long statementsBefore = statementCounter.current();
+    long start = registry.config().clock().monotonicTime();
+    Timer timer = null;
+    try {
+      Object result = joinPoint.proceed();
+      timer = successTimers.computeIfAbsent(operation, op -> timer(op, "none"));
+      return result;
+    } catch (Throwable ex) {
+      timer = timer(operation, ex.getClass().getSimpleName());
+      throw ex;
+    } finally {
+      timer.record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+      statementSummaries.computeIfAbsent(operation, this::statementSummary)
+          .record(statementCounter.current() - statementsBefore);
+    }
+  }
+
+  private Timer timer(String operation, String exception) {
+    return Timer.builder(TIMER)
+        .description("TaskService calls")
+        .tag("operation", operation)
+        .tag("exception", exception)
+        .register(registry);
+  }
+
+  private DistributionSummary statementSummary(String operation) {
+    return DistributionSummary.builder(STATEMENTS)
+        .description("SQL statements prepared per TaskService call")
+        .tag("operation", operation)
+        .register(registry);
+  }
+}
@@ -0,0 +1,17 @@
+package org.mikhi.taskM.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of one item of a batch request. {@code index} is the item's position in the request.
+ */
+@Data
+@AllArgsConstructor
+public class BatchItemResult {
+
+  private int index;
+  private Long id;
+  private boolean success;
+  private String message;
+}
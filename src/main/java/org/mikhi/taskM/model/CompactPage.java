@@ -0,0 +1,26 @@
+package org.mikhi.taskM.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Page;
+
+/**
+ * One page of results with only the paging numbers. Serializing a {@link Page} directly also
+ * writes its {@code pageable} and {@code sort} objects and several derived flags.
+ */
+@Data
+@AllArgsConstructor
+public class CompactPage<T> {
+
+  private List<T> content;
+  private int page;
+  private int size;
+  private long totalElements;
+  private int totalPages;
+
+  public static <T> CompactPage<T> of(Page<T> page) {
+    return new CompactPage<>(page.getContent(), page.getNumber(), page.getSize(),
+        page.getTotalElements(), page.getTotalPages());
+  }
+}
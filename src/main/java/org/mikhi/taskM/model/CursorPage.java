@@ -0,0 +1,19 @@
+package org.mikhi.taskM.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A slice of results for keyset pagination. Unlike {@link org.springframework.data.domain.Page}
+ * it carries no total count, only an opaque cursor pointing at the next slice.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+  private List<T> content;
+  private int size;
+  private boolean hasNext;
+  private String nextCursor;
+}
@@ -0,0 +1,5 @@
+package org.mikhi.taskM.model;
+
+public enum ExportFormat {
+  NDJSON, JSON;
+}
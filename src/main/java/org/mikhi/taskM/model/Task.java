@@ -7,6 +7,10 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,14 +18,22 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(name = "task", indexes = {
+    // Serves status and status + due date filters (status alone uses the leading column).
+    @Index(name = "idx_task_status_due_date", columnList = "status, dueDate"),
+    // Serves due date equality and range filters.
+    @Index(name = "idx_task_due_date", columnList = "dueDate")
+})
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class Task {
 
+  // Pooled sequence: one round-trip hands out 50 ids, which also lets Hibernate batch inserts.
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+  @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
   private Long id;
 
   @NotBlank(message = "title is mandatory")
@@ -34,4 +46,8 @@ public class Task {
 
   private LocalDate dueDate;
 
+  // Optimistic concurrency: bumped on every update and exposed to clients as the ETag.
+  @Version
+  private Long version;
+
 }
@@ -0,0 +1,33 @@
+package org.mikhi.taskM.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Value;
+import org.mikhi.taskM.event.TaskChangedEvent;
+
+/**
+ * One entry of the change feed. {@code sequence} orders all changes and is what a client passes
+ * back to resume after it.
+ */
+@Value
+public class TaskChange {
+
+  long sequence;
+  TaskChangedEvent.Type type;
+  long taskId;
+
+  /**
+   * The task after the change; {@code null} for deletions.
+   */
+  Task task;
+
+  /**
+   * The status subscribers are filtered on, {@code null} when not known.
+   */
+  @JsonIgnore
+  Status status;
+
+  public static TaskChange of(long sequence, TaskChangedEvent event) {
+    Task task = event.getType() == TaskChangedEvent.Type.DELETED ? null : event.getTask();
+    return new TaskChange(sequence, event.getType(), event.getTaskId(), task, event.getStatus());
+  }
+}
@@ -0,0 +1,19 @@
+package org.mikhi.taskM.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Answer to a long poll of the change feed. Pass {@code lastSequence} as {@code since} on the next
+ * poll. {@code reset} means changes were missed, because they are older than the feed keeps or
+ * from before a restart: reload the tasks, then carry on from {@code lastSequence}.
+ */
+@Data
+@AllArgsConstructor
+public class TaskChanges {
+
+  private List<TaskChange> changes;
+  private long lastSequence;
+  private boolean reset;
+}
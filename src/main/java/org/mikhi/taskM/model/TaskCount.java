@@ -0,0 +1,15 @@
+package org.mikhi.taskM.model;
+
+import java.time.LocalDate;
+import lombok.Value;
+
+/**
+ * Number of tasks with a given status and due date, either of which may be {@code null}.
+ */
+@Value
+public class TaskCount {
+
+  Status status;
+  LocalDate dueDate;
+  long count;
+}
@@ -0,0 +1,51 @@
+package org.mikhi.taskM.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.mikhi.taskM.exception.InvalidCursorException;
+
+/**
+ * Continuation token for keyset pagination: the sort key and id of the last task returned,
+ * together with the ordering it was produced under. Clients treat the encoded form as opaque.
+ */
+@Data
+@AllArgsConstructor
+public class TaskCursor {
+
+  private static final String SEPARATOR = "|";
+
+  private String sortBy;
+  private Direction direction;
+  private LocalDate dueDate;
+  private Long id;
+
+  public static TaskCursor of(String sortBy, Direction direction, Task last) {
+    return new TaskCursor(sortBy, direction, last.getDueDate(), last.getId());
+  }
+
+  public String encode() {
+    String raw = sortBy + SEPARATOR + direction + SEPARATOR
+        + (dueDate == null ? "" : dueDate.toString()) + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static TaskCursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] parts = raw.split("\\|", -1);
+      if (parts.length != 4) {
+        throw new InvalidCursorException("Invalid cursor: " + token);
+      }
+      LocalDate dueDate = parts[2].isEmpty() ? null : LocalDate.parse(parts[2]);
+      return new TaskCursor(parts[0], Direction.valueOf(parts[1]), dueDate,
+          Long.valueOf(parts[3]));
+    } catch (IllegalArgumentException | DateTimeParseException ex) {
+      throw new InvalidCursorException("Invalid cursor: " + token);
+    }
+  }
+}
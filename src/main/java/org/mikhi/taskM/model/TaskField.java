@@ -0,0 +1,71 @@
+package org.mikhi.taskM.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.mikhi.taskM.exception.InvalidFieldsException;
+
+/**
+ * Task properties the list endpoints can be asked for with {@code fields=}, e.g.
+ * {@code fields=id,title,status}.
+ */
+public enum TaskField {
+  ID("id"),
+  TITLE("title"),
+  DESCRIPTION("description"),
+  STATUS("status"),
+  DUE_DATE("dueDate"),
+  VERSION("version");
+
+  public static final Set<TaskField> ALL =
+      Collections.unmodifiableSet(EnumSet.allOf(TaskField.class));
+
+  private final String property;
+
+  TaskField(String property) {
+    this.property = property;
+  }
+
+  public String getProperty() {
+    return property;
+  }
+
+  /**
+   * Parses a comma-separated list of property names. No list means every field.
+   */
+  public static Set<TaskField> parse(String fields) {
+    if (fields == null || fields.isBlank()) {
+      return ALL;
+    }
+    Set<TaskField> selected = EnumSet.noneOf(TaskField.class);
+    for (String name : fields.split(",")) {
+      selected.add(Stream.of(values())
+          .filter(field -> field.property.equals(name.trim()))
+          .findFirst()
+          .orElseThrow(() -> new InvalidFieldsException(String.format(
+              "Unknown field '%s', expected any of: %s", name.trim(),
+              Stream.of(values()).map(TaskField::getProperty)
+                  .collect(Collectors.joining(", "))))));
+    }
+    return selected;
+  }
+
+  public Object read(Task task) {
+    switch (this) {
+      case ID:
+        return task.getId();
+      case TITLE:
+        return task.getTitle();
+      case DESCRIPTION:
+        return task.getDescription();
+      case STATUS:
+        return task.getStatus();
+      case DUE_DATE:
+        return task.getDueDate();
+      default:
+        return task.getVersion();
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package org.mikhi.taskM.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A task matched by a search, with its relevance score (higher is better).
+ */
+@Data
+@AllArgsConstructor
+public class TaskSearchHit {
+
+  private Task task;
+  private double score;
+}
@@ -0,0 +1,30 @@
+package org.mikhi.taskM.model;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import lombok.Value;
+
+/**
+ * Task counts as of {@code date}. Overdue tasks are those due before {@code date} that are not
+ * {@code DONE}; {@code dueWeeks} counts the tasks due in each week (starting on Monday) that has
+ * any, in date order.
+ */
+@Value
+public class TaskStats {
+
+  LocalDate date;
+  long total;
+  Map<Status, Long> byStatus;
+  long noStatus;
+  long overdue;
+  long noDueDate;
+  List<DueWeek> dueWeeks;
+
+  @Value
+  public static class DueWeek {
+
+    LocalDate weekStart;
+    long count;
+  }
+}
@@ -0,0 +1,93 @@
+package org.mikhi.taskM.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Read-only projection of a {@link Task} returned by the list endpoints. It carries only the
+ * requested {@link TaskField}s; the JSON form contains exactly those, {@code null} values
+ * included, and nothing else.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+@JsonSerialize(using = TaskView.Serializer.class)
+public class TaskView {
+
+  private final Set<TaskField> fields;
+  private final Long id;
+  private final String title;
+  private final String description;
+  private final Status status;
+  private final LocalDate dueDate;
+  private final Long version;
+
+  private TaskView(Set<TaskField> fields, Function<TaskField, Object> values) {
+    this.fields = fields;
+    this.id = (Long) value(fields, TaskField.ID, values);
+    this.title = (String) value(fields, TaskField.TITLE, values);
+    this.description = (String) value(fields, TaskField.DESCRIPTION, values);
+    this.status = (Status) value(fields, TaskField.STATUS, values);
+    this.dueDate = (LocalDate) value(fields, TaskField.DUE_DATE, values);
+    this.version = (Long) value(fields, TaskField.VERSION, values);
+  }
+
+  /**
+   * A view of {@code fields}, each read from {@code values}.
+   */
+  public static TaskView of(Set<TaskField> fields, Function<TaskField, Object> values) {
+    return new TaskView(fields, values);
+  }
+
+  public static TaskView of(Task task, Set<TaskField> fields) {
+    return new TaskView(fields, field -> field.read(task));
+  }
+
+  private static Object value(Set<TaskField> fields, TaskField field,
+      Function<TaskField, Object> values) {
+    return fields.contains(field) ? values.apply(field) : null;
+  }
+
+  public Object get(TaskField field) {
+    switch (field) {
+      case ID:
+        return id;
+      case TITLE:
+        return title;
+      case DESCRIPTION:
+        return description;
+      case STATUS:
+        return status;
+      case DUE_DATE:
+        return dueDate;
+      default:
+        return version;
+    }
+  }
+
+  static class Serializer extends StdSerializer<TaskView> {
+
+    Serializer() {
+      super(TaskView.class);
+    }
+
+    @Override
+    public void serialize(TaskView view, JsonGenerator generator, SerializerProvider provider)
+        throws IOException {
+      generator.writeStartObject(view);
+      for (TaskField field : view.fields) {
+        provider.defaultSerializeField(field.getProperty(), view.get(field), generator);
+      }
+      generator.writeEndObject();
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package org.mikhi.taskM.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the requests in flight at a limit found from their latency (AIMD).
+ * <p>
+ * Latency is averaged over windows of {@code latencyWindow} requests, and each window is compared
+ * with a slow-moving average of the windows before it. That average stands for the latency of the
+ * current mix of requests, 304s and cache hits in microseconds next to queries in milliseconds.
+ * A window within {@code latencyTolerance} times it raises the limit by its square root. A slower
+ * one means requests are queueing somewhere, and multiplies the limit by {@code backoffRatio}.
+ * The limit moves at most once per window, and only after a window in which at least half of it
+ * was in use for most requests, since latency says nothing about the limit when it is not what
+ * holds requests back.
+ * <p>
+ * Admission is a compare-and-set on the in-flight count. Completions update the window under a
+ * lock; it is held for a few arithmetic operations.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  // Weight of a window in the long-term average, which so follows the last ten windows or so:
+  // slow enough for a window of queueing to stand out, fast enough to follow a new mix.
+  private static final double LONG_TERM_WEIGHT = 0.1;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double latencyTolerance;
+  private final double backoffRatio;
+  private final int latencyWindow;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile int limit;
+
+  // Guarded by this.
+  private double exactLimit;
+  private double longTermLatency = Double.NaN;
+  private long windowLatencySum;
+  private int windowSamples;
+  private int windowSamplesInUse;
+
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+      double latencyTolerance, double backoffRatio, int latencyWindow) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.latencyTolerance = latencyTolerance;
+    this.backoffRatio = backoffRatio;
+    this.latencyWindow = latencyWindow;
+    this.exactLimit = initialLimit;
+    this.limit = initialLimit;
+  }
+
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= limit) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Ends a request admitted by {@link #tryAcquire} that took {@code latencyNanos}.
+   */
+  public void release(long latencyNanos) {
+    int current = inFlight.getAndDecrement();
+    synchronized (this) {
+      windowLatencySum += latencyNanos;
+      if (current * 2 >= limit) {
+        windowSamplesInUse++;
+      }
+      if (++windowSamples < latencyWindow) {
+        return;
+      }
+      double windowLatency = (double) windowLatencySum / windowSamples;
+      boolean inUse = windowSamplesInUse * 2 >= windowSamples;
+      windowLatencySum = 0;
+      windowSamples = 0;
+      windowSamplesInUse = 0;
+      if (Double.isNaN(longTermLatency)) {
+        longTermLatency = windowLatency;
+        return;
+      }
+      if (inUse) {
+        if (windowLatency > longTermLatency * latencyTolerance) {
+          exactLimit = Math.max(minLimit, exactLimit * backoffRatio);
+        } else {
+          exactLimit = Math.min(maxLimit, exactLimit + Math.sqrt(exactLimit));
+        }
+        limit = (int) exactLimit;
+      }
+      longTermLatency += (windowLatency - longTermLatency) * LONG_TERM_WEIGHT;
+    }
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+}
@@ -0,0 +1,76 @@
+package org.mikhi.taskM.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket per client, in the form of the generic cell rate algorithm: each bucket is one
+ * {@code long}, the time at which it would be full again, advanced by compare-and-set. Admitting a
+ * request takes no lock and allocates nothing once the client's bucket exists.
+ * <p>
+ * Buckets live in a Caffeine cache bounded by {@code maxClients} and dropped after
+ * {@code idleTimeout}, so memory stays bounded however many clients come and go. Its reads go
+ * through striped buffers and do not contend.
+ */
+public class ClientRateLimiter {
+
+  private final long interval;
+  private final long burstTolerance;
+  private final Ticker ticker;
+  private final Cache<String, Bucket> buckets;
+
+  public ClientRateLimiter(double rate, int burst, int maxClients, Duration idleTimeout,
+      Ticker ticker) {
+    this.interval = (long) (1_000_000_000 / rate);
+    this.burstTolerance = interval * burst;
+    this.ticker = ticker;
+    this.buckets = Caffeine.newBuilder()
+        .maximumSize(maxClients)
+        .expireAfterAccess(idleTimeout)
+        .ticker(ticker)
+        // Upkeep (recording reads, evicting) runs on the request thread, a few entries at a time,
+        // instead of waking a pool thread for it every few requests.
+        .executor(Runnable::run)
+        .build();
+  }
+
+  /**
+   * Takes a token from the client's bucket. Returns 0 when there was one, otherwise the nanoseconds
+   * until there is; nothing is taken then.
+   */
+  public long acquire(String client) {
+    long now = ticker.read();
+    Bucket bucket = buckets.getIfPresent(client);
+    if (bucket == null) {
+      bucket = buckets.get(client, key -> new Bucket(now));
+    }
+    while (true) {
+      long full = bucket.get();
+      long next = Math.max(full, now) + interval;
+      long wait = next - now - burstTolerance;
+      if (wait > 0) {
+        return wait;
+      }
+      if (bucket.compareAndSet(full, next)) {
+        return 0;
+      }
+    }
+  }
+
+  public long clients() {
+    return buckets.estimatedSize();
+  }
+
+  /**
+   * When the bucket is full again, in {@link Ticker} nanoseconds.
+   */
+  private static final class Bucket extends AtomicLong {
+
+    Bucket(long full) {
+      super(full);
+    }
+  }
+}
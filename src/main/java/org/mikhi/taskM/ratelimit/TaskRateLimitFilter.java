@@ -0,0 +1,189 @@
+package org.mikhi.taskM.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+/**
+ * Turns requests away before they reach a controller: with 429 when the client has used up its
+ * {@link ClientRateLimiter} bucket, with 503 when the {@link AdaptiveConcurrencyLimiter} is at its
+ * limit. Either answer is a few pre-encoded bytes and a {@code Retry-After} header.
+ * <p>
+ * A request that goes async (controllers return {@code Callable}s) holds its place in the
+ * concurrency limit until the async processing completes, not just until the servlet thread is
+ * released. Requests to {@code excludedPaths} are rate limited but not counted against the
+ * concurrency limit.
+ * <p>
+ * Only the initial dispatch is limited; the dispatch back from async processing and error
+ * dispatches pass through. That is checked on the dispatcher type rather than with
+ * {@code OncePerRequestFilter}, which sets and removes a request attribute on every request and
+ * costs more than the limits themselves.
+ */
+public class TaskRateLimitFilter implements Filter, MeterBinder {
+
+  private static final byte[] TOO_MANY_REQUESTS = body(HttpStatus.TOO_MANY_REQUESTS,
+      "Too many requests from this client, retry later");
+  private static final byte[] OVERLOADED = body(HttpStatus.SERVICE_UNAVAILABLE,
+      "Server is overloaded, retry later");
+
+  private final String clientHeader;
+  private final ClientRateLimiter rateLimiter;
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+  private final List<String> excludedPaths;
+  private final LongAdder rateLimited = new LongAdder();
+  private final LongAdder shed = new LongAdder();
+
+  public TaskRateLimitFilter(String clientHeader, ClientRateLimiter rateLimiter,
+      AdaptiveConcurrencyLimiter concurrencyLimiter, List<String> excludedPaths) {
+    this.clientHeader = clientHeader;
+    this.rateLimiter = rateLimiter;
+    this.concurrencyLimiter = concurrencyLimiter;
+    this.excludedPaths = List.copyOf(excludedPaths);
+  }
+
+  // Shaped like ErrorResponse, which GlobalExceptionHandler writes.
+  private static byte[] body(HttpStatus status, String message) {
+    return String.format("{\"status\":%d,\"message\":\"%s\"}", status.value(), message)
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+      FilterChain chain) throws ServletException, IOException {
+    HttpServletRequest request = (HttpServletRequest) servletRequest;
+    HttpServletResponse response = (HttpServletResponse) servletResponse;
+    if (request.getDispatcherType() != DispatcherType.REQUEST) {
+      chain.doFilter(request, response);
+      return;
+    }
+    String client = request.getHeader(clientHeader);
+    long wait = rateLimiter.acquire(
+        client == null || client.isBlank() ? request.getRemoteAddr() : client);
+    if (wait > 0) {
+      rateLimited.increment();
+      reject(response, HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_REQUESTS,
+          TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+      return;
+    }
+    if (isExcluded(request)) {
+      chain.doFilter(request, response);
+      return;
+    }
+    if (!concurrencyLimiter.tryAcquire()) {
+      shed.increment();
+      reject(response, HttpStatus.SERVICE_UNAVAILABLE, OVERLOADED, 1);
+      return;
+    }
+    Release release = new Release(System.nanoTime());
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      if (request.isAsyncStarted()) {
+        request.getAsyncContext().addListener(release);
+      } else {
+        release.run();
+      }
+    }
+  }
+
+  private boolean isExcluded(HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    for (String excluded : excludedPaths) {
+      if (path.startsWith(excluded)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void reject(HttpServletResponse response, HttpStatus status, byte[] body,
+      long retryAfterSeconds) throws IOException {
+    response.setStatus(status.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("task.ratelimit.concurrency.limit", concurrencyLimiter,
+            AdaptiveConcurrencyLimiter::getLimit)
+        .description("Requests allowed in flight")
+        .register(registry);
+    Gauge.builder("task.ratelimit.concurrency.in.flight", concurrencyLimiter,
+            AdaptiveConcurrencyLimiter::getInFlight)
+        .description("Requests in flight")
+        .register(registry);
+    Gauge.builder("task.ratelimit.clients", rateLimiter, ClientRateLimiter::clients)
+        .description("Clients with a rate limit bucket")
+        .register(registry);
+    FunctionCounter.builder("task.ratelimit.rejected", rateLimited, LongAdder::sum)
+        .description("Requests turned away")
+        .tag("reason", "rate")
+        .register(registry);
+    FunctionCounter.builder("task.ratelimit.rejected", shed, LongAdder::sum)
+        .description("Requests turned away")
+        .tag("reason", "concurrency")
+        .register(registry);
+  }
+
+  /**
+   * Gives the request's place back once, however it ends.
+   */
+  private final class Release extends AtomicBoolean implements Runnable, AsyncListener {
+
+    private final long start;
+
+    Release(long start) {
+      this.start = start;
+    }
+
+    @Override
+    public void run() {
+      if (compareAndSet(false, true)) {
+        concurrencyLimiter.release(System.nanoTime() - start);
+      }
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      run();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      run();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      run();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      event.getAsyncContext().addListener(this);
+    }
+  }
+}
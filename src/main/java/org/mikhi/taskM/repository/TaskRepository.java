@@ -1,25 +1,89 @@
 package org.mikhi.taskM.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
-import org.mikhi.taskM.model.Status;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskCount;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
 
   Page<Task> findAll(Pageable pageable);
 
-  List<Task> findByStatus(Status status);
+  /**
+   * Writes the task's fields and bumps its version, provided its version is
+   * {@code expectedVersion}. A {@code null} expectedVersion matches any version.
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Task t set t.title = :#{#task.title}, t.description = :#{#task.description},"
+      + " t.status = :#{#task.status}, t.dueDate = :#{#task.dueDate}, t.version = t.version + 1"
+      + " where t.id = :id and (:expectedVersion is null or t.version = :expectedVersion)")
+  int updateById(@Param("id") Long id, @Param("task") Task task,
+      @Param("expectedVersion") Long expectedVersion);
 
-  List<Task> findByDueDate(LocalDate dueDate);
+  /**
+   * Deletes the task, provided its version is {@code expectedVersion}. A {@code null}
+   * expectedVersion matches any version.
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("delete from Task t where t.id = :id"
+      + " and (:expectedVersion is null or t.version = :expectedVersion)")
+  int deleteTaskById(@Param("id") Long id, @Param("expectedVersion") Long expectedVersion);
 
-  List<Task> findByStatusAndDueDate(Status status, LocalDate dueDate);
+  @Query("select t.version from Task t where t.id = :id")
+  Long findVersionById(@Param("id") Long id);
 
-  List<Task> findByDueDateLessThanEqual(LocalDate dueDateIsLessThan);
+  @Query("select t.id from Task t where t.id in :ids")
+  List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+  // Keyset (seek) queries: the Pageable only carries the limit and sort, so no count is issued.
+
+  List<Task> findAllBy(Pageable pageable);
+
+  List<Task> findByIdGreaterThan(Long id, Pageable pageable);
+
+  List<Task> findByIdLessThan(Long id, Pageable pageable);
+
+  List<Task> findByDueDateIsNotNull(Pageable pageable);
+
+  List<Task> findByDueDateIsNull(Pageable pageable);
+
+  List<Task> findByDueDateIsNullAndIdGreaterThan(Long id, Pageable pageable);
+
+  List<Task> findByDueDateIsNullAndIdLessThan(Long id, Pageable pageable);
+
+  @Query("select t from Task t where t.dueDate > :dueDate or (t.dueDate = :dueDate and t.id > :id)")
+  List<Task> findAfterDueDateKey(@Param("dueDate") LocalDate dueDate, @Param("id") Long id,
+      Pageable pageable);
+
+  @Query("select t from Task t where t.dueDate < :dueDate or (t.dueDate = :dueDate and t.id < :id)")
+  List<Task> findBeforeDueDateKey(@Param("dueDate") LocalDate dueDate, @Param("id") Long id,
+      Pageable pageable);
+
+  /**
+   * Streams every task in id order through a forward-only cursor. Must be consumed inside a
+   * transaction and closed afterwards.
+   */
+  @QueryHints({
+      @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+  })
+  @Query("select t from Task t order by t.id")
+  Stream<Task> streamAll();
+
+  @Query("select new org.mikhi.taskM.model.TaskCount(t.status, t.dueDate, count(t))"
+      + " from Task t group by t.status, t.dueDate")
+  List<TaskCount> countByStatusAndDueDate();
 
 }
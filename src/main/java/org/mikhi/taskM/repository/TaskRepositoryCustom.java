@@ -0,0 +1,24 @@
+package org.mikhi.taskM.repository;
+
+import java.util.List;
+import java.util.Set;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskField;
+import org.mikhi.taskM.model.TaskView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface TaskRepositoryCustom {
+
+  /**
+   * Returns one page of the tasks matching {@code spec}. Unlike
+   * {@code JpaSpecificationExecutor#findAll(Specification, Pageable)} no count query is issued.
+   */
+  List<Task> findBounded(Specification<Task> spec, Pageable pageable);
+
+  /**
+   * Same as {@link #findBounded} but selects only the columns of {@code fields}. Rows are read as
+   * plain values: no entity is instantiated or tracked by the persistence context.
+   */
+  List<TaskView> findViews(Specification<Task> spec, Pageable pageable, Set<TaskField> fields);
+}
@@ -0,0 +1,71 @@
+package org.mikhi.taskM.repository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskField;
+import org.mikhi.taskM.model.TaskView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+  private final EntityManager entityManager;
+
+  TaskRepositoryCustomImpl(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public List<Task> findBounded(Specification<Task> spec, Pageable pageable) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Task> query = cb.createQuery(Task.class);
+    Root<Task> root = query.from(Task.class);
+    query.select(root);
+    return bounded(query, root, spec, pageable).getResultList();
+  }
+
+  @Override
+  public List<TaskView> findViews(Specification<Task> spec, Pageable pageable,
+      Set<TaskField> fields) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<Task> root = query.from(Task.class);
+    List<Selection<?>> columns = fields.stream()
+        .map(field -> root.get(field.getProperty()).alias(field.getProperty()))
+        .collect(Collectors.toList());
+    query.multiselect(columns);
+    return bounded(query, root, spec, pageable).getResultList().stream()
+        .map(row -> TaskView.of(fields, field -> row.get(field.getProperty())))
+        .collect(Collectors.toList());
+  }
+
+  private <T> TypedQuery<T> bounded(CriteriaQuery<T> query, Root<Task> root,
+      Specification<Task> spec, Pageable pageable) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    if (spec != null) {
+      Predicate predicate = spec.toPredicate(root, query, cb);
+      if (predicate != null) {
+        query.where(predicate);
+      }
+    }
+    query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+    TypedQuery<T> typedQuery = entityManager.createQuery(query);
+    if (pageable.isPaged()) {
+      typedQuery.setFirstResult((int) pageable.getOffset());
+      typedQuery.setMaxResults(pageable.getPageSize());
+    }
+    return typedQuery;
+  }
+}
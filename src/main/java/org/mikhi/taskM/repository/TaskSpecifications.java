@@ -0,0 +1,30 @@
+package org.mikhi.taskM.repository;
+
+import java.time.LocalDate;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Predicates for the task filters. Each factory returns {@code null} for a {@code null} argument,
+ * which {@link Specification#where} and {@link Specification#and} treat as "no restriction", so
+ * any combination of filters composes into a single query.
+ */
+public final class TaskSpecifications {
+
+  private TaskSpecifications() {
+  }
+
+  public static Specification<Task> hasStatus(Status status) {
+    return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+  }
+
+  public static Specification<Task> hasDueDate(LocalDate dueDate) {
+    return dueDate == null ? null : (root, query, cb) -> cb.equal(root.get("dueDate"), dueDate);
+  }
+
+  public static Specification<Task> dueOnOrBefore(LocalDate dueDate) {
+    return dueDate == null ? null
+        : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("dueDate"), dueDate);
+  }
+}
@@ -0,0 +1,379 @@
+package org.mikhi.taskM.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.Value;
+import org.jctools.maps.NonBlockingHashMapLong;
+import org.mikhi.taskM.model.Task;
+
+/**
+ * In-process inverted index over task title and description.
+ * <p>
+ * Text is split into lower-case runs of letters and digits. Every term maps to a postings list of
+ * the tasks containing it, sorted by id, with the term's frequency and the task's length in terms.
+ * A query matches the tasks that contain all of its terms, the last one also as a prefix, and
+ * ranks them by BM25.
+ * <p>
+ * Searches share a read lock; {@link #put} and {@link #remove} take the write lock.
+ */
+public class TaskSearchIndex {
+
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final TreeMap<String, Postings> terms = new TreeMap<>();
+  private final NonBlockingHashMapLong<Document> documents = new NonBlockingHashMapLong<>();
+  private long totalLength;
+
+  /**
+   * Indexes the task, replacing what was indexed for its id. A task older than the indexed one
+   * (by version, when both have one) is ignored.
+   */
+  public void put(Task task) {
+    long id = task.getId();
+    Map<String, Integer> frequencies = new HashMap<>();
+    int length = 0;
+    for (String text : new String[] {task.getTitle(), task.getDescription()}) {
+      for (String term : tokenize(text)) {
+        frequencies.merge(term, 1, Integer::sum);
+        length++;
+      }
+    }
+    lock.writeLock().lock();
+    try {
+      Document indexed = documents.get(id);
+      if (indexed != null && indexed.version != null && task.getVersion() != null
+          && task.getVersion() < indexed.version) {
+        return;
+      }
+      removeLocked(id);
+      String[] documentTerms = new String[frequencies.size()];
+      int i = 0;
+      for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+        Postings postings = terms.computeIfAbsent(entry.getKey(), Postings::new);
+        postings.add(id, entry.getValue(), length);
+        // The dictionary's copy, so documents do not keep strings of their own.
+        documentTerms[i++] = postings.term;
+      }
+      documents.put(id, new Document(documentTerms, length, task.getVersion()));
+      totalLength += length;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(long id) {
+    lock.writeLock().lock();
+    try {
+      removeLocked(id);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void removeLocked(long id) {
+    Document document = documents.remove(id);
+    if (document == null) {
+      return;
+    }
+    for (String term : document.terms) {
+      Postings postings = terms.get(term);
+      postings.remove(id);
+      if (postings.size == 0) {
+        terms.remove(term);
+      }
+    }
+    totalLength -= document.length;
+  }
+
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      terms.clear();
+      documents.clear();
+      totalLength = 0;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public int size() {
+    return documents.size();
+  }
+
+  /**
+   * Ranks the tasks matching {@code query} and returns {@code limit} of them from
+   * {@code offset}, best first (ties by id), with the number of tasks matched.
+   */
+  public Result search(String query, int offset, int limit) {
+    List<String> queryTerms = tokenize(query);
+    if (queryTerms.isEmpty()) {
+      return new Result(List.of(), 0);
+    }
+    lock.readLock().lock();
+    try {
+      List<Collection<Postings>> clauses = new ArrayList<>(queryTerms.size());
+      for (int i = 0; i < queryTerms.size(); i++) {
+        String term = queryTerms.get(i);
+        Collection<Postings> matches = i == queryTerms.size() - 1
+            ? terms.subMap(term, true, term + Character.MAX_VALUE, false).values()
+            : Collections.singleton(terms.get(term));
+        if (matches.isEmpty() || matches.contains(null)) {
+          return new Result(List.of(), 0);
+        }
+        clauses.add(matches);
+      }
+      // Rarest clause first, so the candidates only shrink from there.
+      clauses.sort(Comparator.comparingLong(TaskSearchIndex::postingsCount));
+
+      double averageLength = (double) totalLength / documents.size();
+      int documentCount = documents.size();
+      Scores scores = null;
+      for (Collection<Postings> clause : clauses) {
+        Scores next = new Scores(scores == null ? postingsCount(clause) : scores.size);
+        for (Postings postings : clause) {
+          double idf = Math.log(1 + (documentCount - postings.size + 0.5) / (postings.size + 0.5));
+          if (scores == null || postings.size <= scores.size) {
+            for (int i = 0; i < postings.size; i++) {
+              long id = postings.ids[i];
+              if (scores == null || scores.contains(id)) {
+                next.add(id, bm25(idf, postings.frequencies[i], postings.lengths[i],
+                    averageLength));
+              }
+            }
+          } else {
+            for (long id : scores.ids()) {
+              int i = Arrays.binarySearch(postings.ids, 0, postings.size, id);
+              if (i >= 0) {
+                next.add(id, bm25(idf, postings.frequencies[i], postings.lengths[i],
+                    averageLength));
+              }
+            }
+          }
+        }
+        if (scores != null) {
+          for (long id : next.ids()) {
+            next.add(id, scores.get(id));
+          }
+        }
+        scores = next;
+      }
+      return new Result(top(scores, offset, limit), scores.size);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static double bm25(double idf, int frequency, int length, double averageLength) {
+    return idf * frequency * (K1 + 1)
+        / (frequency + K1 * (1 - B + B * length / averageLength));
+  }
+
+  private static long postingsCount(Collection<Postings> clause) {
+    long count = 0;
+    for (Postings postings : clause) {
+      count += postings.size;
+    }
+    return count;
+  }
+
+  private static final Comparator<Hit> RANKING =
+      Comparator.comparingDouble(Hit::getScore).reversed().thenComparingLong(Hit::getId);
+
+  private static List<Hit> top(Scores scores, int offset, int limit) {
+    int wanted = (int) Math.min((long) offset + limit, scores.size);
+    if (offset >= wanted) {
+      return List.of();
+    }
+    // Worst of the best so far on top.
+    PriorityQueue<Hit> best = new PriorityQueue<>(wanted + 1, RANKING.reversed());
+    for (long id : scores.ids()) {
+      Hit hit = new Hit(id, scores.get(id));
+      if (best.size() < wanted) {
+        best.add(hit);
+      } else if (RANKING.compare(hit, best.peek()) < 0) {
+        best.poll();
+        best.add(hit);
+      }
+    }
+    List<Hit> ranked = new ArrayList<>(best);
+    ranked.sort(RANKING);
+    return ranked.subList(offset, ranked.size());
+  }
+
+  static List<String> tokenize(String text) {
+    if (text == null) {
+      return List.of();
+    }
+    List<String> tokens = new ArrayList<>();
+    String lower = text.toLowerCase(Locale.ROOT);
+    int start = -1;
+    for (int i = 0; i <= lower.length(); i++) {
+      boolean inWord = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+      if (inWord && start < 0) {
+        start = i;
+      } else if (!inWord && start >= 0) {
+        tokens.add(lower.substring(start, i));
+        start = -1;
+      }
+    }
+    return tokens;
+  }
+
+  @Value
+  public static class Result {
+
+    List<Hit> hits;
+    long total;
+  }
+
+  @Value
+  public static class Hit {
+
+    long id;
+    double score;
+  }
+
+  private static final class Document {
+
+    final String[] terms;
+    final int length;
+    final Long version;
+
+    Document(String[] terms, int length, Long version) {
+      this.terms = terms;
+      this.length = length;
+      this.version = version;
+    }
+  }
+
+  /**
+   * Tasks containing one term, sorted by id in parallel arrays.
+   */
+  private static final class Postings {
+
+    final String term;
+    long[] ids = new long[2];
+    int[] frequencies = new int[2];
+    int[] lengths = new int[2];
+    int size;
+
+    Postings(String term) {
+      this.term = term;
+    }
+
+    void add(long id, int frequency, int length) {
+      int i = Arrays.binarySearch(ids, 0, size, id);
+      if (i < 0) {
+        i = -i - 1;
+        if (size == ids.length) {
+          int capacity = size + (size >> 1) + 1;
+          ids = Arrays.copyOf(ids, capacity);
+          frequencies = Arrays.copyOf(frequencies, capacity);
+          lengths = Arrays.copyOf(lengths, capacity);
+        }
+        // New tasks have the highest ids, so this is almost always an append.
+        System.arraycopy(ids, i, ids, i + 1, size - i);
+        System.arraycopy(frequencies, i, frequencies, i + 1, size - i);
+        System.arraycopy(lengths, i, lengths, i + 1, size - i);
+        size++;
+      }
+      ids[i] = id;
+      frequencies[i] = frequency;
+      lengths[i] = length;
+    }
+
+    void remove(long id) {
+      int i = Arrays.binarySearch(ids, 0, size, id);
+      if (i >= 0) {
+        System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+        System.arraycopy(frequencies, i + 1, frequencies, i, size - i - 1);
+        System.arraycopy(lengths, i + 1, lengths, i, size - i - 1);
+        size--;
+      }
+    }
+  }
+
+  /**
+   * Score per task id, in an open-addressing table: a query can match every task.
+   */
+  private static final class Scores {
+
+    private long[] keys;
+    private double[] values;
+    int size;
+
+    Scores(long expected) {
+      int capacity = Integer.highestOneBit((int) Math.max(4, Math.min(expected * 2, 1 << 30)));
+      keys = new long[capacity * 2];
+      values = new double[capacity * 2];
+    }
+
+    private int slot(long id) {
+      int mask = keys.length - 1;
+      int slot = Long.hashCode(id * 0x9E3779B97F4A7C15L) & mask;
+      // Task ids start at 1, so 0 marks a free slot.
+      while (keys[slot] != 0 && keys[slot] != id) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    boolean contains(long id) {
+      return keys[slot(id)] == id;
+    }
+
+    double get(long id) {
+      return values[slot(id)];
+    }
+
+    void add(long id, double score) {
+      int slot = slot(id);
+      if (keys[slot] == 0) {
+        keys[slot] = id;
+        if (++size * 2 > keys.length) {
+          grow();
+          slot = slot(id);
+        }
+      }
+      values[slot] += score;
+    }
+
+    private void grow() {
+      long[] oldKeys = keys;
+      double[] oldValues = values;
+      keys = new long[oldKeys.length * 2];
+      values = new double[oldValues.length * 2];
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != 0) {
+          int slot = slot(oldKeys[i]);
+          keys[slot] = oldKeys[i];
+          values[slot] = oldValues[i];
+        }
+      }
+    }
+
+    long[] ids() {
+      long[] ids = new long[size];
+      int n = 0;
+      for (long key : keys) {
+        if (key != 0) {
+          ids[n++] = key;
+        }
+      }
+      return ids;
+    }
+  }
+}
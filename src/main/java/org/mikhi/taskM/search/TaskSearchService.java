@@ -0,0 +1,90 @@
+package org.mikhi.taskM.search;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.mikhi.taskM.config.TaskPaginationProperties;
+import org.mikhi.taskM.event.TaskChangedEvent;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskSearchHit;
+import org.mikhi.taskM.service.TaskService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Full-text search over tasks through a {@link TaskSearchIndex}.
+ * <p>
+ * The index is built from every stored task once all beans are created, before the server takes
+ * requests, and then kept up to date from the {@link TaskChangedEvent}s of committed writes.
+ * Matching and ranking run on the index alone; only the tasks of the requested page are loaded
+ * from the storage engine.
+ */
+@Slf4j
+@Service
+public class TaskSearchService implements SmartInitializingSingleton {
+
+  private final TaskSearchIndex index = new TaskSearchIndex();
+  private final TaskService taskService;
+  private final TaskPaginationProperties paginationProperties;
+
+  public TaskSearchService(TaskService taskService,
+      TaskPaginationProperties paginationProperties) {
+    this.taskService = taskService;
+    this.paginationProperties = paginationProperties;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    rebuild();
+  }
+
+  public void rebuild() {
+    long start = System.nanoTime();
+    index.clear();
+    taskService.streamAllTasks(index::put);
+    log.info("Indexed {} tasks for search in {} ms", index.size(),
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * Runs after commit, or straight away for an engine without transactions.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTaskChanged(TaskChangedEvent event) {
+    if (event.getType() == TaskChangedEvent.Type.DELETED) {
+      index.remove(event.getTaskId());
+    } else {
+      index.put(event.getTask());
+    }
+  }
+
+  /**
+   * Tasks whose title and description contain every word of {@code query}, the last word also
+   * as a prefix, best match first. Pages are capped at {@code task.pagination.max-page-size}.
+   */
+  public Page<TaskSearchHit> search(String query, Pageable pageable) {
+    Pageable bounded = pageable.getPageSize() > paginationProperties.getMaxPageSize()
+        ? PageRequest.of(pageable.getPageNumber(), paginationProperties.getMaxPageSize())
+        : pageable;
+    TaskSearchIndex.Result result = index.search(query, (int) bounded.getOffset(),
+        bounded.getPageSize());
+    Map<Long, Task> tasks = taskService.getTasksByIds(result.getHits().stream()
+            .map(TaskSearchIndex.Hit::getId)
+            .collect(Collectors.toList()))
+        .stream()
+        .collect(Collectors.toMap(Task::getId, Function.identity()));
+    // A task deleted since the search ran is left out of the page.
+    List<TaskSearchHit> hits = result.getHits().stream()
+        .filter(hit -> tasks.containsKey(hit.getId()))
+        .map(hit -> new TaskSearchHit(tasks.get(hit.getId()), hit.getScore()))
+        .collect(Collectors.toList());
+    return new PageImpl<>(hits, bounded, result.getTotal());
+  }
+}
@@ -3,10 +3,18 @@ package org.mikhi.taskM.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import org.mikhi.taskM.model.BatchItemResult;
+import org.mikhi.taskM.model.CursorPage;
+import org.mikhi.taskM.model.Direction;
 import org.mikhi.taskM.model.Status;
 import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskCount;
+import org.mikhi.taskM.model.TaskField;
+import org.mikhi.taskM.model.TaskView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -18,19 +26,45 @@ public interface TaskService {
 
   Task getTaskById(@NotNull Long id);
 
+  List<Task> getTasksByIds(@NotNull List<Long> ids);  // In the order given, unknown ids skipped
+
   Task updateTask(@NotNull Long id, @Valid @NotNull Task task);
 
+  Task updateTask(@NotNull Long id, @Valid @NotNull Task task, Long expectedVersion);
+
   String deleteTask(@NotNull Long id);
 
+  String deleteTask(@NotNull Long id, Long expectedVersion);
+
+  List<BatchItemResult> createTasks(@NotNull List<Task> tasks);
+
+  List<BatchItemResult> updateTasks(@NotNull List<Task> tasks);  // Each task carries its id
+
+  List<BatchItemResult> deleteTasks(@NotNull List<Long> ids);
+
   List<Task> getAllTasks();
 
+  void streamAllTasks(Consumer<Task> consumer);
+
+  List<TaskCount> countTasksByStatusAndDueDate();
+
   Page<Task> getAllTasks(Pageable pageable);
 
-  List<Task> filterTasks(Status status);  // Filter by status
+  CursorPage<Task> getTasksByCursor(String cursor, int size, String sortBy, Direction direction);
+
+  List<Task> filterTasks(Status status, LocalDate dueDate, Pageable pageable);  // Null = any
+
+  List<Task> getTasksTillDate(LocalDate dueDate, Pageable pageable);
+
+  // Projections of the list queries above, carrying only the requested fields. These return an
+  // empty list when nothing matches, where the queries above throw NoTasksFoundException.
+
+  List<TaskView> getAllTasks(Set<TaskField> fields);
 
-  List<Task> filterTasks(LocalDate dueDate);  // Filter by dueDate
+  Page<TaskView> getAllTasks(Pageable pageable, Set<TaskField> fields);
 
-  List<Task> filterTasks(Status status, LocalDate dueDate);  // Filter by both
+  List<TaskView> filterTasks(Status status, LocalDate dueDate, Pageable pageable,
+      Set<TaskField> fields);
 
-  List<Task> getTasksTillDate(LocalDate dueDate);
+  List<TaskView> getTasksTillDate(LocalDate dueDate, Pageable pageable, Set<TaskField> fields);
 }
\ No newline at end of file
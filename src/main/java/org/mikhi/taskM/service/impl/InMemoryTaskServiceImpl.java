@@ -0,0 +1,617 @@
+package org.mikhi.taskM.service.impl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import javax.validation.Valid;
+import javax.validation.Validator;
+import javax.validation.constraints.NotNull;
+import org.jctools.maps.NonBlockingHashMapLong;
+import org.mikhi.taskM.config.TaskPaginationProperties;
+import org.mikhi.taskM.event.TaskChangedEvent;
+import org.mikhi.taskM.exception.InvalidCursorException;
+import org.mikhi.taskM.exception.NoTasksFoundException;
+import org.mikhi.taskM.exception.TaskNotFoundException;
+import org.mikhi.taskM.exception.TaskVersionConflictException;
+import org.mikhi.taskM.model.BatchItemResult;
+import org.mikhi.taskM.model.CursorPage;
+import org.mikhi.taskM.model.Direction;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskCount;
+import org.mikhi.taskM.model.TaskCursor;
+import org.mikhi.taskM.model.TaskField;
+import org.mikhi.taskM.model.TaskView;
+import org.mikhi.taskM.service.TaskService;
+import org.mikhi.taskM.storage.TaskJournal;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory storage engine ({@code task.storage.engine=memory}), for running without a database.
+ * <p>
+ * Tasks live in a primitive long-keyed {@link NonBlockingHashMapLong}. Secondary indexes on id
+ * order, status and due date hold ids only; every candidate read through an index is re-checked
+ * against the stored task, so readers never lock. Writes to one id are serialized on a lock
+ * stripe, which keeps the map and the indexes consistent with each other. Stored tasks are never
+ * handed out: callers always get copies.
+ * <p>
+ * Every change goes through the {@link TaskJournal} before it is applied, so with the write-ahead
+ * log enabled ({@code task.storage.wal.enabled}) tasks survive a restart.
+ * <p>
+ * A {@link TaskChangedEvent} is published for every change once it is applied.
+ */
+@Service
+@ConditionalOnProperty(name = "task.storage.engine", havingValue = "memory")
+public class InMemoryTaskServiceImpl implements TaskService {
+
+  private static final int LOCK_STRIPES = 64;
+
+  private final NonBlockingHashMapLong<Task> tasks = new NonBlockingHashMapLong<>();
+  private final NavigableSet<Long> ids = new ConcurrentSkipListSet<>();
+  // Populated for every status up front and never modified afterwards, so safe to share.
+  private final Map<Status, NavigableSet<Long>> byStatus = new EnumMap<>(Status.class);
+  // Emptied id sets are left in place: removing them would race with concurrent inserts.
+  private final ConcurrentSkipListMap<LocalDate, NavigableSet<Long>> byDueDate =
+      new ConcurrentSkipListMap<>();
+  private final NavigableSet<Long> undated = new ConcurrentSkipListSet<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final Object[] locks = new Object[LOCK_STRIPES];
+
+  private final Validator validator;
+  private final TaskPaginationProperties paginationProperties;
+  private final TaskJournal journal;
+  private final ApplicationEventPublisher events;
+
+  public InMemoryTaskServiceImpl(Validator validator,
+      TaskPaginationProperties paginationProperties, TaskJournal journal,
+      ApplicationEventPublisher events) {
+    this.validator = validator;
+    this.paginationProperties = paginationProperties;
+    this.journal = journal;
+    this.events = events;
+    for (Status status : Status.values()) {
+      byStatus.put(status, new ConcurrentSkipListSet<>());
+    }
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locks[i] = new Object();
+    }
+  }
+
+  /**
+   * Loads the tasks persisted by the journal. Runs before the service takes any call.
+   */
+  @PostConstruct
+  void recover() {
+    journal.open(new TaskJournal.Recovery() {
+
+      @Override
+      public void put(Task task) {
+        Task current = tasks.put(task.getId(), task);
+        if (current == null) {
+          index(task);
+          ids.add(task.getId());
+        } else {
+          reindex(current, task);
+        }
+      }
+
+      @Override
+      public void delete(long id) {
+        Task current = tasks.remove(id);
+        if (current != null) {
+          ids.remove(id);
+          unindex(current);
+        }
+      }
+
+      @Override
+      public void idsUsedUpTo(long id) {
+        sequence.accumulateAndGet(id, Math::max);
+      }
+    }, tasks.values());
+  }
+
+  @Override
+  public Task createTask(@Valid @NotNull Task task) {
+    Task stored = newTask(task);
+    journal.put(stored, () -> store(stored));
+    events.publishEvent(TaskChangedEvent.created(stored));
+    return copy(stored);
+  }
+
+  private Task newTask(Task task) {
+    Task stored = copy(task);
+    stored.setId(sequence.incrementAndGet());
+    stored.setVersion(0L);
+    return stored;
+  }
+
+  private void store(Task created) {
+    long id = created.getId();
+    synchronized (lockFor(id)) {
+      tasks.put(id, created);
+      index(created);
+      ids.add(id);
+    }
+  }
+
+  @Override
+  public Task getTaskById(@NotNull Long id) {
+    Task task = tasks.get(id.longValue());
+    if (task == null) {
+      throw new TaskNotFoundException("Task not found with id: " + id);
+    }
+    return copy(task);
+  }
+
+  @Override
+  public List<Task> getTasksByIds(@NotNull List<Long> ids) {
+    return ids.stream()
+        .map(id -> tasks.get(id.longValue()))
+        .filter(Objects::nonNull)
+        .map(InMemoryTaskServiceImpl::copy)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Task updateTask(@NotNull Long id, @Valid @NotNull Task task) {
+    return updateTask(id, task, null);
+  }
+
+  /**
+   * Updates the task only if its current version equals {@code expectedVersion} (any version
+   * when {@code null}). The returned task carries the new version.
+   */
+  @Override
+  public Task updateTask(@NotNull Long id, @Valid @NotNull Task task, Long expectedVersion) {
+    synchronized (lockFor(id)) {
+      Task current = tasks.get(id.longValue());
+      checkWritable(id, current, expectedVersion);
+      Task updated = copy(task);
+      updated.setId(id);
+      updated.setVersion(current.getVersion() + 1);
+      journal.put(updated, () -> {
+        tasks.put(id.longValue(), updated);
+        reindex(current, updated);
+      });
+      events.publishEvent(TaskChangedEvent.updated(updated));
+      return copy(updated);
+    }
+  }
+
+  @Override
+  public String deleteTask(@NotNull Long id) {
+    return deleteTask(id, null);
+  }
+
+  @Override
+  public String deleteTask(@NotNull Long id, Long expectedVersion) {
+    synchronized (lockFor(id)) {
+      Task current = tasks.get(id.longValue());
+      checkWritable(id, current, expectedVersion);
+      journal.delete(id, () -> {
+        ids.remove(id);
+        unindex(current);
+        tasks.remove(id.longValue());
+      });
+      events.publishEvent(TaskChangedEvent.deleted(id, current));
+    }
+    return "Task deleted successfully";
+  }
+
+  private static void checkWritable(Long id, Task current, Long expectedVersion) {
+    if (current == null) {
+      throw new TaskNotFoundException("Task not found with id: " + id);
+    }
+    if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+      throw new TaskVersionConflictException(
+          String.format("Task with id %d has been modified since version %d", id,
+              expectedVersion));
+    }
+  }
+
+  @Override
+  public List<BatchItemResult> createTasks(@NotNull List<Task> tasks) {
+    List<BatchItemResult> results = new ArrayList<>(tasks.size());
+    List<Task> created = new ArrayList<>(tasks.size());
+    for (int i = 0; i < tasks.size(); i++) {
+      String violations = TaskServiceSupport.violations(validator, tasks.get(i));
+      if (violations != null) {
+        results.add(new BatchItemResult(i, null, false, violations));
+      } else {
+        Task stored = newTask(tasks.get(i));
+        created.add(stored);
+        results.add(new BatchItemResult(i, stored.getId(), true, "Task created successfully"));
+      }
+    }
+    // New ids are not visible to anyone yet, so the whole batch shares one journal write.
+    journal.putAll(created, () -> created.forEach(this::store));
+    created.forEach(task -> events.publishEvent(TaskChangedEvent.created(task)));
+    return results;
+  }
+
+  @Override
+  public List<BatchItemResult> updateTasks(@NotNull List<Task> tasks) {
+    List<BatchItemResult> results = new ArrayList<>(tasks.size());
+    for (int i = 0; i < tasks.size(); i++) {
+      Task task = tasks.get(i);
+      Long id = task == null ? null : task.getId();
+      String violations = TaskServiceSupport.violations(validator, task);
+      if (violations == null && id == null) {
+        violations = "id is mandatory";
+      }
+      if (violations != null) {
+        results.add(new BatchItemResult(i, id, false, violations));
+        continue;
+      }
+      try {
+        updateTask(id, task);
+        results.add(new BatchItemResult(i, id, true, "Task updated successfully"));
+      } catch (TaskNotFoundException e) {
+        results.add(new BatchItemResult(i, id, false, e.getMessage()));
+      }
+    }
+    return results;
+  }
+
+  @Override
+  public List<BatchItemResult> deleteTasks(@NotNull List<Long> ids) {
+    List<BatchItemResult> results = new ArrayList<>(ids.size());
+    for (int i = 0; i < ids.size(); i++) {
+      Long id = ids.get(i);
+      try {
+        if (id == null) {
+          throw new TaskNotFoundException("Task not found with id: null");
+        }
+        results.add(new BatchItemResult(i, id, true, deleteTask(id)));
+      } catch (TaskNotFoundException e) {
+        results.add(new BatchItemResult(i, id, false, e.getMessage()));
+      }
+    }
+    return results;
+  }
+
+  @Override
+  public List<Task> getAllTasks() {
+    List<Task> tasks = all(InMemoryTaskServiceImpl::copy);
+    if (tasks.isEmpty()) {
+      throw NoTasksFoundException.noTasks();
+    }
+    return tasks;
+  }
+
+  @Override
+  public List<TaskView> getAllTasks(Set<TaskField> fields) {
+    return all(task -> TaskView.of(task, fields));
+  }
+
+  private <T> List<T> all(Function<Task, T> mapper) {
+    return lookup(ids.stream(), task -> true).map(mapper).collect(Collectors.toList());
+  }
+
+  @Override
+  public void streamAllTasks(Consumer<Task> consumer) {
+    lookup(ids.stream(), task -> true).map(InMemoryTaskServiceImpl::copy).forEach(consumer);
+  }
+
+  @Override
+  public List<TaskCount> countTasksByStatusAndDueDate() {
+    Map<Status, Map<LocalDate, Long>> counts = new HashMap<>();
+    for (Task task : tasks.values()) {
+      counts.computeIfAbsent(task.getStatus(), status -> new HashMap<>())
+          .merge(task.getDueDate(), 1L, Long::sum);
+    }
+    List<TaskCount> result = new ArrayList<>();
+    counts.forEach((status, byDueDate) -> byDueDate.forEach(
+        (dueDate, count) -> result.add(new TaskCount(status, dueDate, count))));
+    return result;
+  }
+
+  @Override
+  public Page<Task> getAllTasks(Pageable pageable) {
+    return allPaged(pageable, InMemoryTaskServiceImpl::copy);
+  }
+
+  @Override
+  public Page<TaskView> getAllTasks(Pageable pageable, Set<TaskField> fields) {
+    return allPaged(pageable, task -> TaskView.of(task, fields));
+  }
+
+  private <T> Page<T> allPaged(Pageable pageable, Function<Task, T> mapper) {
+    List<T> content = page(query(null, null, null, pageable.getSort()), pageable, mapper);
+    return new PageImpl<>(content, pageable, tasks.size());
+  }
+
+  @Override
+  public CursorPage<Task> getTasksByCursor(String cursor, int size, String sortBy,
+      Direction direction) {
+    size = TaskServiceSupport.bounded(size, paginationProperties.getMaxPageSize());
+    TaskCursor after = cursor == null ? null : TaskCursor.decode(cursor);
+    if (after != null) {
+      sortBy = after.getSortBy();
+      direction = after.getDirection();
+    }
+    boolean ascending = direction == Direction.ASC;
+
+    Stream<Long> ordered;
+    if ("id".equals(sortBy)) {
+      NavigableSet<Long> all = ascending ? ids : ids.descendingSet();
+      ordered = (after == null ? all : all.tailSet(after.getId(), false)).stream();
+    } else if ("dueDate".equals(sortBy)) {
+      ordered = seekByDueDate(after, ascending);
+    } else {
+      throw new InvalidCursorException(
+          "Keyset pagination supports sortBy 'id' or 'dueDate', got: " + sortBy);
+    }
+
+    // Fetch one extra task to learn whether another slice exists.
+    List<Task> slice = lookup(ordered, task -> true).limit(size + 1L)
+        .map(InMemoryTaskServiceImpl::copy).collect(Collectors.toList());
+    boolean hasNext = slice.size() > size;
+    List<Task> content = hasNext ? new ArrayList<>(slice.subList(0, size)) : slice;
+    String nextCursor = hasNext
+        ? TaskCursor.of(sortBy, direction, content.get(size - 1)).encode()
+        : null;
+    return new CursorPage<>(content, content.size(), hasNext, nextCursor);
+  }
+
+  /**
+   * Same order as the JPA engine: tasks with a due date first, then tasks without one by id.
+   */
+  private Stream<Long> seekByDueDate(TaskCursor after, boolean ascending) {
+    NavigableMap<LocalDate, NavigableSet<Long>> dated =
+        ascending ? byDueDate : byDueDate.descendingMap();
+    NavigableSet<Long> undatedIds = ascending ? undated : undated.descendingSet();
+    if (after == null) {
+      return Stream.concat(idsByDate(dated, ascending), undatedIds.stream());
+    }
+    if (after.getDueDate() == null) {
+      return undatedIds.tailSet(after.getId(), false).stream();
+    }
+    NavigableSet<Long> sameDate = byDueDate.getOrDefault(after.getDueDate(),
+        Collections.emptyNavigableSet());
+    Stream<Long> restOfDate =
+        (ascending ? sameDate : sameDate.descendingSet()).tailSet(after.getId(), false).stream();
+    Stream<Long> laterDates = idsByDate(dated.tailMap(after.getDueDate(), false), ascending);
+    return Stream.concat(Stream.concat(restOfDate, laterDates), undatedIds.stream());
+  }
+
+  @Override
+  public List<Task> filterTasks(Status status, LocalDate dueDate, Pageable pageable) {
+    List<Task> tasks = filter(status, dueDate, pageable, InMemoryTaskServiceImpl::copy);
+    if (tasks.isEmpty()) {
+      throw NoTasksFoundException.filtered(status, dueDate);
+    }
+    return tasks;
+  }
+
+  @Override
+  public List<TaskView> filterTasks(Status status, LocalDate dueDate, Pageable pageable,
+      Set<TaskField> fields) {
+    return filter(status, dueDate, pageable, task -> TaskView.of(task, fields));
+  }
+
+  private <T> List<T> filter(Status status, LocalDate dueDate, Pageable pageable,
+      Function<Task, T> mapper) {
+    pageable = TaskServiceSupport.bounded(pageable, paginationProperties.getMaxPageSize());
+    return page(query(status, dueDate, null, pageable.getSort()), pageable, mapper);
+  }
+
+  @Override
+  public List<Task> getTasksTillDate(LocalDate dueDate, Pageable pageable) {
+    List<Task> tasks = tillDate(dueDate, pageable, InMemoryTaskServiceImpl::copy);
+    if (tasks.isEmpty()) {
+      throw NoTasksFoundException.tillDate(dueDate);
+    }
+    return tasks;
+  }
+
+  @Override
+  public List<TaskView> getTasksTillDate(LocalDate dueDate, Pageable pageable,
+      Set<TaskField> fields) {
+    return tillDate(dueDate, pageable, task -> TaskView.of(task, fields));
+  }
+
+  private <T> List<T> tillDate(LocalDate dueDate, Pageable pageable, Function<Task, T> mapper) {
+    pageable = TaskServiceSupport.bounded(pageable, paginationProperties.getMaxPageSize());
+    return page(query(null, null, dueDate, pageable.getSort()), pageable, mapper);
+  }
+
+  /**
+   * Tasks matching every non-null filter, in {@code sort} order. Sorting by id or by due date
+   * (then id) walks an index lazily, so a page costs its offset plus its size; any other sort
+   * collects the matches and sorts them. Nulls sort first ascending, as in H2.
+   */
+  private Stream<Task> query(Status status, LocalDate dueDate, LocalDate dueOnOrBefore,
+      Sort sort) {
+    Predicate<Task> filter = task -> (status == null || status == task.getStatus())
+        && (dueDate == null || dueDate.equals(task.getDueDate()))
+        && (dueOnOrBefore == null
+        || task.getDueDate() != null && !task.getDueDate().isAfter(dueOnOrBefore));
+
+    List<Sort.Order> orders = sort.toList();
+    Sort.Order first = orders.isEmpty() ? Sort.Order.asc("id") : orders.get(0);
+    boolean thenById = orders.size() <= 1 || orders.size() == 2
+        && "id".equals(orders.get(1).getProperty())
+        && orders.get(1).getDirection() == first.getDirection();
+
+    if ("id".equals(first.getProperty()) && orders.size() <= 1) {
+      NavigableSet<Long> candidates = candidatesById(status, dueDate);
+      return lookup((first.isAscending() ? candidates : candidates.descendingSet()).stream(),
+          filter);
+    }
+    if ("dueDate".equals(first.getProperty()) && thenById) {
+      return lookup(candidatesByDueDate(dueDate, dueOnOrBefore, first.isAscending()), filter);
+    }
+    return lookup(candidatesById(status, dueDate).stream(), filter).sorted(comparator(sort));
+  }
+
+  // The smallest index that covers the equality filters, in id order.
+  private NavigableSet<Long> candidatesById(Status status, LocalDate dueDate) {
+    if (dueDate != null) {
+      return byDueDate.getOrDefault(dueDate, Collections.emptyNavigableSet());
+    }
+    return status != null ? byStatus.get(status) : ids;
+  }
+
+  private Stream<Long> candidatesByDueDate(LocalDate dueDate, LocalDate dueOnOrBefore,
+      boolean ascending) {
+    if (dueDate != null) {
+      NavigableSet<Long> sameDate = byDueDate.getOrDefault(dueDate,
+          Collections.emptyNavigableSet());
+      return (ascending ? sameDate : sameDate.descendingSet()).stream();
+    }
+    NavigableMap<LocalDate, NavigableSet<Long>> dated =
+        dueOnOrBefore == null ? byDueDate : byDueDate.headMap(dueOnOrBefore, true);
+    if (dueOnOrBefore != null) {
+      return idsByDate(ascending ? dated : dated.descendingMap(), ascending);
+    }
+    return ascending
+        ? Stream.concat(undated.stream(), idsByDate(dated, true))
+        : Stream.concat(idsByDate(dated.descendingMap(), false),
+            undated.descendingSet().stream());
+  }
+
+  private static Stream<Long> idsByDate(NavigableMap<LocalDate, NavigableSet<Long>> dated,
+      boolean ascending) {
+    return dated.values().stream()
+        .flatMap(sameDate -> (ascending ? sameDate : sameDate.descendingSet()).stream());
+  }
+
+  // Indexes may briefly disagree with the map during a write, so each hit is re-checked.
+  private Stream<Task> lookup(Stream<Long> candidateIds, Predicate<Task> filter) {
+    return candidateIds.map(id -> tasks.get(id.longValue()))
+        .filter(Objects::nonNull)
+        .filter(filter);
+  }
+
+  private static <T> List<T> page(Stream<Task> ordered, Pageable pageable,
+      Function<Task, T> mapper) {
+    Stream<Task> page = pageable.isPaged()
+        ? ordered.skip(pageable.getOffset()).limit(pageable.getPageSize())
+        : ordered;
+    return page.map(mapper).collect(Collectors.toList());
+  }
+
+  private static Comparator<Task> comparator(Sort sort) {
+    Comparator<Task> comparator = null;
+    for (Sort.Order order : sort) {
+      Comparator<Task> next = Comparator.comparing(property(order.getProperty()),
+          Comparator.nullsFirst(Comparator.naturalOrder()));
+      next = order.isAscending() ? next : next.reversed();
+      comparator = comparator == null ? next : comparator.thenComparing(next);
+    }
+    Comparator<Task> byId = Comparator.comparing(Task::getId);
+    return comparator == null ? byId : comparator.thenComparing(byId);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Function<Task, Comparable<Object>> property(String name) {
+    Function<Task, ? extends Comparable> getter;
+    switch (name) {
+      case "id":
+        getter = Task::getId;
+        break;
+      case "title":
+        getter = Task::getTitle;
+        break;
+      case "description":
+        getter = Task::getDescription;
+        break;
+      case "status":
+        // Stored as a string column, so the JPA engine orders statuses by name.
+        getter = task -> task.getStatus() == null ? null : task.getStatus().name();
+        break;
+      case "dueDate":
+        getter = Task::getDueDate;
+        break;
+      case "version":
+        getter = Task::getVersion;
+        break;
+      default:
+        throw new PropertyReferenceException(name, ClassTypeInformation.from(Task.class),
+            Collections.emptyList());
+    }
+    return (Function<Task, Comparable<Object>>) getter;
+  }
+
+  // Adds the new entries before dropping the old ones, so an unchanged task never disappears.
+  private void reindex(Task current, Task updated) {
+    long id = updated.getId();
+    if (current.getStatus() != updated.getStatus()) {
+      if (updated.getStatus() != null) {
+        byStatus.get(updated.getStatus()).add(id);
+      }
+      if (current.getStatus() != null) {
+        byStatus.get(current.getStatus()).remove(id);
+      }
+    }
+    if (!Objects.equals(current.getDueDate(), updated.getDueDate())) {
+      dueDateIds(updated.getDueDate()).add(id);
+      dueDateIds(current.getDueDate()).remove(id);
+    }
+  }
+
+  private void index(Task task) {
+    long id = task.getId();
+    if (task.getStatus() != null) {
+      byStatus.get(task.getStatus()).add(id);
+    }
+    dueDateIds(task.getDueDate()).add(id);
+  }
+
+  private void unindex(Task task) {
+    long id = task.getId();
+    if (task.getStatus() != null) {
+      byStatus.get(task.getStatus()).remove(id);
+    }
+    dueDateIds(task.getDueDate()).remove(id);
+  }
+
+  private NavigableSet<Long> dueDateIds(LocalDate dueDate) {
+    return dueDate == null
+        ? undated
+        : byDueDate.computeIfAbsent(dueDate, date -> new ConcurrentSkipListSet<>());
+  }
+
+  private Object lockFor(long id) {
+    return locks[(int) (id ^ (id >>> 32)) & (LOCK_STRIPES - 1)];
+  }
+
+  private static Task copy(Task task) {
+    return Task.builder()
+        .id(task.getId())
+        .title(task.getTitle())
+        .description(task.getDescription())
+        .status(task.getStatus())
+        .dueDate(task.getDueDate())
+        .version(task.getVersion())
+        .build();
+  }
+}
@@ -1,108 +1,481 @@
 package org.mikhi.taskM.service.impl;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
 import javax.validation.Valid;
+import javax.validation.Validator;
 import javax.validation.constraints.NotNull;
+import org.mikhi.taskM.config.CacheConfig;
+import org.mikhi.taskM.config.TaskBatchProperties;
+import org.mikhi.taskM.config.TaskPaginationProperties;
+import org.mikhi.taskM.datasource.ReplicaRoutingDataSource;
+import org.mikhi.taskM.event.TaskChangedEvent;
+import org.mikhi.taskM.exception.InvalidCursorException;
 import org.mikhi.taskM.exception.NoTasksFoundException;
 import org.mikhi.taskM.exception.TaskNotFoundException;
+import org.mikhi.taskM.exception.TaskVersionConflictException;
+import org.mikhi.taskM.model.BatchItemResult;
+import org.mikhi.taskM.model.CursorPage;
+import org.mikhi.taskM.model.Direction;
 import org.mikhi.taskM.model.Status;
 import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskCount;
+import org.mikhi.taskM.model.TaskCursor;
+import org.mikhi.taskM.model.TaskField;
+import org.mikhi.taskM.model.TaskView;
 import org.mikhi.taskM.repository.TaskRepository;
+import org.mikhi.taskM.repository.TaskSpecifications;
 import org.mikhi.taskM.service.TaskService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * JPA storage engine, the default ({@code task.storage.engine=jpa}).
+ * <p>
+ * Query methods run in read-only transactions. Spring then marks the Hibernate session read-only,
+ * so loaded entities keep no dirty-checking snapshot, switches it to {@code FlushMode.MANUAL} so
+ * nothing is flushed at commit, and flags the JDBC connection read-only.
+ */
 @Service
 @Transactional
+@ConditionalOnProperty(name = "task.storage.engine", havingValue = "jpa", matchIfMissing = true)
 public class TaskServiceImpl implements TaskService {
 
   private final TaskRepository taskRepository;
+  private final EntityManager entityManager;
+  private final PlatformTransactionManager transactionManager;
+  private final Validator validator;
+  private final TaskBatchProperties batchProperties;
+  private final TaskPaginationProperties paginationProperties;
+  private final ApplicationEventPublisher events;
 
-  public TaskServiceImpl(TaskRepository taskRepository) {
+  public TaskServiceImpl(TaskRepository taskRepository, EntityManager entityManager,
+      PlatformTransactionManager transactionManager, Validator validator,
+      TaskBatchProperties batchProperties, TaskPaginationProperties paginationProperties,
+      ApplicationEventPublisher events) {
     this.taskRepository = taskRepository;
+    this.entityManager = entityManager;
+    this.transactionManager = transactionManager;
+    this.validator = validator;
+    this.batchProperties = batchProperties;
+    this.paginationProperties = paginationProperties;
+    this.events = events;
   }
 
   @Override
+  @CachePut(cacheNames = CacheConfig.TASKS_CACHE, key = "#result.id")
   public Task createTask(@Valid @NotNull Task task) {
-    return taskRepository.save(task);
+    Task created = taskRepository.save(task);
+    events.publishEvent(TaskChangedEvent.created(created));
+    return created;
   }
 
+  /**
+   * Cache misses are read from the primary even with replicas configured: a row from a lagging
+   * replica would stay cached for every client, including the one that just wrote it.
+   */
   @Override
+  @Cacheable(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
+  @Transactional(readOnly = true)
   public Task getTaskById(@NotNull Long id) {
-    return taskRepository.findById(id)
+    return ReplicaRoutingDataSource.readFromPrimary(() -> taskRepository.findById(id))
         .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
   }
 
   @Override
+  @Transactional(readOnly = true)
+  public List<Task> getTasksByIds(@NotNull List<Long> ids) {
+    Map<Long, Task> found = taskRepository.findAllById(ids).stream()
+        .collect(Collectors.toMap(Task::getId, Function.identity()));
+    return ids.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+  }
+
+  @Override
+  @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
   public Task updateTask(@NotNull Long id, @Valid @NotNull Task task) {
-    if (!taskRepository.existsById(id)) {
-      throw new TaskNotFoundException("Task not found with id: " + id);
+    return updateTask(id, task, null);
+  }
+
+  /**
+   * Updates the task only if its current version equals {@code expectedVersion} (any version
+   * when {@code null}). The returned task carries the new version.
+   */
+  @Override
+  @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
+  public Task updateTask(@NotNull Long id, @Valid @NotNull Task task, Long expectedVersion) {
+    if (taskRepository.updateById(id, task, expectedVersion) == 0) {
+      throw writeRejected(id, expectedVersion);
     }
     task.setId(id);
-    return taskRepository.save(task);
+    // The update keeps the row locked until commit, so no other write can come in between.
+    task.setVersion(expectedVersion == null
+        ? taskRepository.findVersionById(id) : expectedVersion + 1);
+    events.publishEvent(TaskChangedEvent.updated(task));
+    return task;
   }
 
   @Override
+  @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
   public String deleteTask(@NotNull Long id) {
-    if (!taskRepository.existsById(id)) {
-      throw new TaskNotFoundException("Task not found with id: " + id);
+    return deleteTask(id, null);
+  }
+
+  @Override
+  @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
+  public String deleteTask(@NotNull Long id, Long expectedVersion) {
+    if (taskRepository.deleteTaskById(id, expectedVersion) == 0) {
+      throw writeRejected(id, expectedVersion);
     }
-    taskRepository.deleteById(id);
+    events.publishEvent(TaskChangedEvent.deleted(id, null));
     return "Task deleted successfully";
   }
 
+  // Only runs on the failure path, to tell a missing task from a stale version.
+  private RuntimeException writeRejected(Long id, Long expectedVersion) {
+    if (expectedVersion != null && taskRepository.existsById(id)) {
+      return new TaskVersionConflictException(
+          String.format("Task with id %d has been modified since version %d", id,
+              expectedVersion));
+    }
+    return new TaskNotFoundException("Task not found with id: " + id);
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public List<BatchItemResult> createTasks(@NotNull List<Task> tasks) {
+    return processInChunks(tasks, this::createChunk);
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, allEntries = true)
+  public List<BatchItemResult> updateTasks(@NotNull List<Task> tasks) {
+    return processInChunks(tasks, this::updateChunk);
+  }
+
   @Override
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, allEntries = true)
+  public List<BatchItemResult> deleteTasks(@NotNull List<Long> ids) {
+    return processInChunks(ids, this::deleteChunk);
+  }
+
+  /**
+   * Runs {@code chunkWriter} over consecutive chunks of {@code items}, each in its own
+   * transaction. A chunk that fails to commit reports every item in it as failed and does not
+   * stop the chunks after it.
+   * <p>
+   * Change events are built once the chunk is flushed, so they carry the versions written.
+   */
+  private <T> List<BatchItemResult> processInChunks(List<T> items, ChunkWriter<T> chunkWriter) {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    int chunkSize = batchProperties.getChunkSize();
+    List<BatchItemResult> results = new ArrayList<>(items.size());
+    for (int from = 0; from < items.size(); from += chunkSize) {
+      int offset = from;
+      List<T> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+      try {
+        results.addAll(transactionTemplate.execute(status -> {
+          List<Supplier<TaskChangedEvent>> changes = new ArrayList<>(chunk.size());
+          List<BatchItemResult> chunkResults = chunkWriter.write(chunk, offset, changes);
+          entityManager.flush();
+          changes.forEach(change -> events.publishEvent(change.get()));
+          entityManager.clear();
+          return chunkResults;
+        }));
+      } catch (RuntimeException e) {
+        for (int i = 0; i < chunk.size(); i++) {
+          results.add(new BatchItemResult(offset + i, null, false,
+              "Chunk rolled back: " + e.getMessage()));
+        }
+      }
+    }
+    return results;
+  }
+
+  private List<BatchItemResult> createChunk(List<Task> chunk, int offset,
+      List<Supplier<TaskChangedEvent>> changes) {
+    BatchItemResult[] results = new BatchItemResult[chunk.size()];
+    List<Task> accepted = new ArrayList<>(chunk.size());
+    for (int i = 0; i < chunk.size(); i++) {
+      Task task = chunk.get(i);
+      String violations = TaskServiceSupport.violations(validator, task);
+      if (violations != null) {
+        results[i] = new BatchItemResult(offset + i, null, false, violations);
+      } else {
+        // A task read back from GET carries both; a version would make saveAll merge a copy.
+        task.setId(null);
+        task.setVersion(null);
+        accepted.add(task);
+      }
+    }
+    // The pooled sequence assigns ids here; the INSERTs are sent in JDBC batches at flush.
+    taskRepository.saveAll(accepted);
+    for (int i = 0; i < chunk.size(); i++) {
+      if (results[i] == null) {
+        Task created = chunk.get(i);
+        results[i] = new BatchItemResult(offset + i, created.getId(), true,
+            "Task created successfully");
+        changes.add(() -> TaskChangedEvent.created(created));
+      }
+    }
+    return Arrays.asList(results);
+  }
+
+  private List<BatchItemResult> updateChunk(List<Task> chunk, int offset,
+      List<Supplier<TaskChangedEvent>> changes) {
+    Set<Long> ids = chunk.stream().filter(Objects::nonNull).map(Task::getId)
+        .filter(Objects::nonNull).collect(Collectors.toSet());
+    Map<Long, Task> existing = taskRepository.findAllById(ids).stream()
+        .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+    List<BatchItemResult> results = new ArrayList<>(chunk.size());
+    for (int i = 0; i < chunk.size(); i++) {
+      Task task = chunk.get(i);
+      Long id = task == null ? null : task.getId();
+      String violations = TaskServiceSupport.violations(validator, task);
+      if (violations == null && id == null) {
+        violations = "id is mandatory";
+      }
+      Task current = id == null ? null : existing.get(id);
+      if (violations != null) {
+        results.add(new BatchItemResult(offset + i, id, false, violations));
+      } else if (current == null) {
+        results.add(new BatchItemResult(offset + i, id, false, "Task not found with id: " + id));
+      } else {
+        // Managed entity: dirty checking turns these into batched UPDATEs at flush.
+        current.setTitle(task.getTitle());
+        current.setDescription(task.getDescription());
+        current.setStatus(task.getStatus());
+        current.setDueDate(task.getDueDate());
+        results.add(new BatchItemResult(offset + i, id, true, "Task updated successfully"));
+        changes.add(() -> TaskChangedEvent.updated(current));
+      }
+    }
+    return results;
+  }
+
+  private List<BatchItemResult> deleteChunk(List<Long> chunk, int offset,
+      List<Supplier<TaskChangedEvent>> changes) {
+    Set<Long> existing = new HashSet<>(taskRepository.findExistingIds(chunk));
+    taskRepository.deleteAllByIdInBatch(existing);
+
+    List<BatchItemResult> results = new ArrayList<>(chunk.size());
+    for (int i = 0; i < chunk.size(); i++) {
+      Long id = chunk.get(i);
+      // Removing from the set reports a duplicated id as deleted only once.
+      boolean deleted = id != null && existing.remove(id);
+      results.add(new BatchItemResult(offset + i, id, deleted,
+          deleted ? "Task deleted successfully" : "Task not found with id: " + id));
+      if (deleted) {
+        changes.add(() -> TaskChangedEvent.deleted(id, null));
+      }
+    }
+    return results;
+  }
+
+  @FunctionalInterface
+  private interface ChunkWriter<T> {
+
+    List<BatchItemResult> write(List<T> chunk, int offset,
+        List<Supplier<TaskChangedEvent>> changes);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
   public List<Task> getAllTasks() {
     List<Task> tasks = taskRepository.findAll();
     if (tasks.isEmpty()) {
-      throw new NoTasksFoundException("No tasks found in the system");
+      throw NoTasksFoundException.noTasks();
     }
     return tasks;
   }
 
+  /**
+   * Hands every task to {@code consumer} one at a time, detaching each entity once it has been
+   * consumed so the persistence context does not grow with the table.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public void streamAllTasks(Consumer<Task> consumer) {
+    try (Stream<Task> tasks = taskRepository.streamAll()) {
+      tasks.forEach(task -> {
+        consumer.accept(task);
+        entityManager.detach(task);
+      });
+    }
+  }
+
+  /**
+   * Read-write on purpose, so it runs on the primary: callers compare it with the writes they
+   * have seen commit, and a lagging replica would not have them yet.
+   */
+  @Override
+  public List<TaskCount> countTasksByStatusAndDueDate() {
+    return taskRepository.countByStatusAndDueDate();
+  }
+
   @Override
+  @Transactional(readOnly = true)
   public Page<Task> getAllTasks(Pageable pageable) {
     return taskRepository.findAll(pageable);
   }
 
   @Override
-  public List<Task> filterTasks(Status status) {
-    List<Task> tasks = taskRepository.findByStatus(status);
-    if (tasks.isEmpty()) {
-      throw new NoTasksFoundException("No tasks found with status: " + status);
+  @Transactional(readOnly = true)
+  public CursorPage<Task> getTasksByCursor(String cursor, int size, String sortBy,
+      Direction direction) {
+    size = TaskServiceSupport.bounded(size, paginationProperties.getMaxPageSize());
+    TaskCursor after = cursor == null ? null : TaskCursor.decode(cursor);
+    if (after != null) {
+      sortBy = after.getSortBy();
+      direction = after.getDirection();
     }
-    return tasks;
+    Sort.Direction sortDirection = Sort.Direction.valueOf(direction.name());
+    // Fetch one extra row to learn whether another slice exists without counting.
+    int limit = size + 1;
+
+    List<Task> tasks;
+    if ("id".equals(sortBy)) {
+      tasks = seekById(after, sortDirection, limit);
+    } else if ("dueDate".equals(sortBy)) {
+      tasks = seekByDueDate(after, sortDirection, limit);
+    } else {
+      throw new InvalidCursorException(
+          "Keyset pagination supports sortBy 'id' or 'dueDate', got: " + sortBy);
+    }
+
+    boolean hasNext = tasks.size() > size;
+    List<Task> content = hasNext ? new ArrayList<>(tasks.subList(0, size)) : tasks;
+    String nextCursor = hasNext
+        ? TaskCursor.of(sortBy, direction, content.get(size - 1)).encode()
+        : null;
+    return new CursorPage<>(content, content.size(), hasNext, nextCursor);
   }
 
-  @Override
-  public List<Task> filterTasks(LocalDate dueDate) {
-    List<Task> tasks = taskRepository.findByDueDate(dueDate);
-    if (tasks.isEmpty()) {
-      throw new NoTasksFoundException("No tasks found with due date: " + dueDate);
+  private List<Task> seekById(TaskCursor after, Sort.Direction direction, int limit) {
+    Pageable pageable = PageRequest.of(0, limit, Sort.by(direction, "id"));
+    if (after == null) {
+      return taskRepository.findAllBy(pageable);
+    }
+    return direction.isAscending()
+        ? taskRepository.findByIdGreaterThan(after.getId(), pageable)
+        : taskRepository.findByIdLessThan(after.getId(), pageable);
+  }
+
+  /**
+   * Tasks with a due date come first, followed by tasks without one ordered by id, so a cursor
+   * can cross from the first region into the second without falling back to OFFSET.
+   */
+  private List<Task> seekByDueDate(TaskCursor after, Sort.Direction direction, int limit) {
+    List<Task> tasks = new ArrayList<>(limit);
+    boolean inDatedRegion = after == null || after.getDueDate() != null;
+
+    if (inDatedRegion) {
+      Pageable pageable = PageRequest.of(0, limit, Sort.by(direction, "dueDate", "id"));
+      if (after == null) {
+        tasks.addAll(taskRepository.findByDueDateIsNotNull(pageable));
+      } else if (direction.isAscending()) {
+        tasks.addAll(
+            taskRepository.findAfterDueDateKey(after.getDueDate(), after.getId(), pageable));
+      } else {
+        tasks.addAll(
+            taskRepository.findBeforeDueDateKey(after.getDueDate(), after.getId(), pageable));
+      }
+    }
+
+    if (tasks.size() < limit) {
+      Pageable pageable = PageRequest.of(0, limit - tasks.size(), Sort.by(direction, "id"));
+      if (inDatedRegion) {
+        tasks.addAll(taskRepository.findByDueDateIsNull(pageable));
+      } else if (direction.isAscending()) {
+        tasks.addAll(taskRepository.findByDueDateIsNullAndIdGreaterThan(after.getId(), pageable));
+      } else {
+        tasks.addAll(taskRepository.findByDueDateIsNullAndIdLessThan(after.getId(), pageable));
+      }
     }
     return tasks;
   }
 
   @Override
-  public List<Task> filterTasks(Status status, LocalDate dueDate) {
-    List<Task> tasks = taskRepository.findByStatusAndDueDate(status, dueDate);
+  @Transactional(readOnly = true)
+  public List<Task> filterTasks(Status status, LocalDate dueDate, Pageable pageable) {
+    Specification<Task> spec = Specification.where(TaskSpecifications.hasStatus(status))
+        .and(TaskSpecifications.hasDueDate(dueDate));
+    List<Task> tasks = taskRepository.findBounded(spec,
+        TaskServiceSupport.bounded(pageable, paginationProperties.getMaxPageSize()));
     if (tasks.isEmpty()) {
-      throw new NoTasksFoundException(
-          String.format("No tasks found with status: %s and due date: %s", status, dueDate)
-      );
+      throw NoTasksFoundException.filtered(status, dueDate);
     }
     return tasks;
   }
 
   @Override
-  public List<Task> getTasksTillDate(LocalDate dueDate) {
-    List<Task> tasks = taskRepository.findByDueDateLessThanEqual(dueDate);
+  @Transactional(readOnly = true)
+  public List<Task> getTasksTillDate(LocalDate dueDate, Pageable pageable) {
+    List<Task> tasks = taskRepository.findBounded(TaskSpecifications.dueOnOrBefore(dueDate),
+        TaskServiceSupport.bounded(pageable, paginationProperties.getMaxPageSize()));
     if (tasks.isEmpty()) {
-      throw new NoTasksFoundException(" No tasks found with due date till: " + dueDate);
+      throw NoTasksFoundException.tillDate(dueDate);
     }
     return tasks;
   }
-}
\ No newline at end of file
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<TaskView> getAllTasks(Set<TaskField> fields) {
+    return taskRepository.findViews(null, Pageable.unpaged(), fields);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Page<TaskView> getAllTasks(Pageable pageable, Set<TaskField> fields) {
+    // Counts only when the page alone does not tell the total.
+    return PageableExecutionUtils.getPage(taskRepository.findViews(null, pageable, fields),
+        pageable, taskRepository::count);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<TaskView> filterTasks(Status status, LocalDate dueDate, Pageable pageable,
+      Set<TaskField> fields) {
+    Specification<Task> spec = Specification.where(TaskSpecifications.hasStatus(status))
+        .and(TaskSpecifications.hasDueDate(dueDate));
+    return taskRepository.findViews(spec,
+        TaskServiceSupport.bounded(pageable, paginationProperties.getMaxPageSize()), fields);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<TaskView> getTasksTillDate(LocalDate dueDate, Pageable pageable,
+      Set<TaskField> fields) {
+    return taskRepository.findViews(TaskSpecifications.dueOnOrBefore(dueDate),
+        TaskServiceSupport.bounded(pageable, paginationProperties.getMaxPageSize()), fields);
+  }
+}
@@ -0,0 +1,61 @@
+package org.mikhi.taskM.service.impl;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import org.mikhi.taskM.exception.InvalidCursorException;
+import org.mikhi.taskM.model.Task;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Rules shared by the {@code TaskService} storage engines, so both answer with the same messages
+ * and limits.
+ */
+final class TaskServiceSupport {
+
+  private TaskServiceSupport() {
+  }
+
+  /**
+   * Returns the constraint violations of {@code task} as one message, or {@code null} if it is
+   * valid.
+   */
+  static String violations(Validator validator, Task task) {
+    if (task == null) {
+      return "task is mandatory";
+    }
+    Set<ConstraintViolation<Task>> violations = validator.validate(task);
+    if (violations.isEmpty()) {
+      return null;
+    }
+    return violations.stream()
+        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+        .collect(Collectors.joining(", "));
+  }
+
+  /**
+   * Caps the page size at {@code maxPageSize}, whatever the caller asked for.
+   */
+  static Pageable bounded(Pageable pageable, int maxPageSize) {
+    if (pageable.isUnpaged()) {
+      return PageRequest.of(0, maxPageSize, pageable.getSort());
+    }
+    if (pageable.getPageSize() <= maxPageSize) {
+      return pageable;
+    }
+    return PageRequest.of(pageable.getPageNumber(), maxPageSize, pageable.getSort());
+  }
+
+  /**
+   * Caps a keyset slice size at {@code maxPageSize}. Sizes below one are rejected.
+   */
+  static int bounded(int size, int maxPageSize) {
+    if (size < 1) {
+      throw new InvalidCursorException(
+          "Keyset pagination needs a size of at least 1, got: " + size);
+    }
+    return Math.min(size, maxPageSize);
+  }
+}
@@ -0,0 +1,166 @@
+package org.mikhi.taskM.stats;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.Value;
+import org.jctools.maps.NonBlockingHashMapLong;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskCount;
+import org.mikhi.taskM.model.TaskStats;
+
+/**
+ * Task counts per status and due date, kept up to date one task at a time.
+ * <p>
+ * An update or delete has to take the task out of the count it was in, and the JPA engine does not
+ * read a task before writing it. So the status and due date counted for every task are kept here
+ * too, in a map of long ids to {@link Key}s shared by all tasks with the same status and due date.
+ * <p>
+ * {@link #stats} sums the counts once per change and date and hands out the same result until the
+ * next one, so serving it costs the same whatever the number of tasks. Every method holds the
+ * monitor; each one touches a handful of map entries, except {@link #stats} after a change, which
+ * walks one entry per distinct status and due date.
+ */
+public class TaskStatsCounters {
+
+  private final NonBlockingHashMapLong<Key> tasks = new NonBlockingHashMapLong<>();
+  private final Map<Key, Count> counts = new HashMap<>();
+  private long changes;
+  private TaskStats stats;
+  private long statsChanges = -1;
+
+  /**
+   * Counts the task, moving it out of the count it was in when it was counted before.
+   */
+  public synchronized void put(Task task) {
+    Key key = count(new Key(task.getStatus(), task.getDueDate()), 1).key;
+    Key previous = tasks.put(task.getId().longValue(), key);
+    if (previous != null) {
+      count(previous, -1);
+    }
+    changes++;
+  }
+
+  public synchronized void remove(long id) {
+    Key previous = tasks.remove(id);
+    if (previous != null) {
+      count(previous, -1);
+      changes++;
+    }
+  }
+
+  public synchronized void clear() {
+    tasks.clear();
+    counts.clear();
+    changes++;
+  }
+
+  public synchronized int size() {
+    return tasks.size();
+  }
+
+  /**
+   * Number of calls that changed the counts so far.
+   */
+  public synchronized long changes() {
+    return changes;
+  }
+
+  private Count count(Key key, int delta) {
+    Count count = counts.computeIfAbsent(key, Count::new);
+    count.value += delta;
+    if (count.value == 0) {
+      counts.remove(key);
+    }
+    return count;
+  }
+
+  /**
+   * Whether the counts are exactly {@code expected}, one entry per status and due date with
+   * tasks.
+   */
+  public synchronized boolean matches(List<TaskCount> expected) {
+    if (expected.size() != counts.size()) {
+      return false;
+    }
+    for (TaskCount taskCount : expected) {
+      Count count = counts.get(new Key(taskCount.getStatus(), taskCount.getDueDate()));
+      if (count == null || count.value != taskCount.getCount()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public synchronized TaskStats stats(LocalDate date) {
+    if (stats == null || statsChanges != changes || !stats.getDate().equals(date)) {
+      stats = sum(date);
+      statsChanges = changes;
+    }
+    return stats;
+  }
+
+  private TaskStats sum(LocalDate date) {
+    long total = 0;
+    long[] byStatus = new long[Status.values().length];
+    long noStatus = 0;
+    long overdue = 0;
+    long noDueDate = 0;
+    TreeMap<LocalDate, Long> weeks = new TreeMap<>();
+    for (Count count : counts.values()) {
+      Status status = count.key.status;
+      LocalDate dueDate = count.key.dueDate;
+      total += count.value;
+      if (status == null) {
+        noStatus += count.value;
+      } else {
+        byStatus[status.ordinal()] += count.value;
+      }
+      if (dueDate == null) {
+        noDueDate += count.value;
+      } else {
+        if (dueDate.isBefore(date) && status != Status.DONE) {
+          overdue += count.value;
+        }
+        weeks.merge(dueDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)),
+            count.value, Long::sum);
+      }
+    }
+    Map<Status, Long> statuses = new EnumMap<>(Status.class);
+    for (Status status : Status.values()) {
+      statuses.put(status, byStatus[status.ordinal()]);
+    }
+    List<TaskStats.DueWeek> dueWeeks = new ArrayList<>(weeks.size());
+    weeks.forEach((weekStart, count) -> dueWeeks.add(new TaskStats.DueWeek(weekStart, count)));
+    return new TaskStats(date, total, Collections.unmodifiableMap(statuses), noStatus, overdue,
+        noDueDate, Collections.unmodifiableList(dueWeeks));
+  }
+
+  /**
+   * A status and due date, either of which may be {@code null}.
+   */
+  @Value
+  static class Key {
+
+    Status status;
+    LocalDate dueDate;
+  }
+
+  private static final class Count {
+
+    final Key key;
+    long value;
+
+    Count(Key key) {
+      this.key = key;
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package org.mikhi.taskM.stats;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.mikhi.taskM.config.TaskStatsProperties;
+import org.mikhi.taskM.event.TaskChangedEvent;
+import org.mikhi.taskM.model.TaskCount;
+import org.mikhi.taskM.model.TaskStats;
+import org.mikhi.taskM.service.TaskService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Task statistics from {@link TaskStatsCounters}, without querying the tasks.
+ * <p>
+ * The counters are built from every stored task once all beans are created, before the server
+ * takes requests, and then kept up to date from the {@link TaskChangedEvent}s of committed writes.
+ * Every {@code task.stats.reconcile-interval} they are checked against a {@code GROUP BY} count;
+ * writes that bypass the service, or missed events, show up there and the counters are rebuilt.
+ * <p>
+ * Events that arrive while the counters are rebuilt are held back and applied once every stored
+ * task is counted, so a task deleted or changed during a rebuild is not counted as it was read.
+ */
+@Slf4j
+@Service
+public class TaskStatsService implements SmartInitializingSingleton {
+
+  private final TaskStatsCounters counters = new TaskStatsCounters();
+  private final TaskService taskService;
+  private final TaskStatsProperties properties;
+  private ScheduledExecutorService reconciler;
+  // Events held back while the counters are rebuilt, null otherwise. Guarded by this.
+  private List<TaskChangedEvent> pending;
+
+  public TaskStatsService(TaskService taskService, TaskStatsProperties properties) {
+    this.taskService = taskService;
+    this.properties = properties;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    rebuild();
+    reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "task-stats-reconciler");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long interval = properties.getReconcileInterval().toMillis();
+    reconciler.scheduleWithFixedDelay(this::reconcileQuietly, interval, interval,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void close() {
+    if (reconciler != null) {
+      reconciler.shutdownNow();
+    }
+  }
+
+  public void rebuild() {
+    long start = System.nanoTime();
+    synchronized (this) {
+      pending = new ArrayList<>();
+    }
+    try {
+      counters.clear();
+      taskService.streamAllTasks(counters::put);
+    } finally {
+      synchronized (this) {
+        pending.forEach(this::apply);
+        pending = null;
+      }
+    }
+    log.info("Counted {} tasks for stats in {} ms", counters.size(),
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * Runs after commit, or straight away for an engine without transactions.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public synchronized void onTaskChanged(TaskChangedEvent event) {
+    if (pending != null) {
+      pending.add(event);
+    } else {
+      apply(event);
+    }
+  }
+
+  private void apply(TaskChangedEvent event) {
+    if (event.getType() == TaskChangedEvent.Type.DELETED) {
+      counters.remove(event.getTaskId());
+    } else {
+      counters.put(event.getTask());
+    }
+  }
+
+  public TaskStats getStats() {
+    return counters.stats(LocalDate.now());
+  }
+
+  /**
+   * Compares the counters with a count of the stored tasks and rebuilds them when they differ.
+   * Returns whether they were rebuilt. A write counted while the query ran makes the two
+   * incomparable, so the check is left to the next run.
+   */
+  public boolean reconcile() {
+    long changes = counters.changes();
+    List<TaskCount> counts = taskService.countTasksByStatusAndDueDate();
+    if (counters.changes() != changes) {
+      log.debug("Tasks changed while they were counted, stats not reconciled");
+      return false;
+    }
+    if (counters.matches(counts)) {
+      return false;
+    }
+    log.warn("Task stats differ from the stored tasks, rebuilding them");
+    rebuild();
+    return true;
+  }
+
+  // An exception would cancel the schedule.
+  private void reconcileQuietly() {
+    try {
+      reconcile();
+    } catch (RuntimeException e) {
+      log.warn("Could not reconcile task stats", e);
+    }
+  }
+}
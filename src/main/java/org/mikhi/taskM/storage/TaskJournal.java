@@ -0,0 +1,75 @@
+package org.mikhi.taskM.storage;
+
+import java.util.List;
+import org.mikhi.taskM.model.Task;
+
+/**
+ * Durability for the in-memory storage engine.
+ * <p>
+ * Every change is handed over together with the code that applies it in memory. The change is
+ * recorded first and the code runs once the record is durable, so a change is never visible
+ * before it would survive a restart.
+ */
+public interface TaskJournal {
+
+  /**
+   * Keeps nothing: changes are applied straight away and lost on restart.
+   */
+  TaskJournal NONE = new TaskJournal() {
+
+    @Override
+    public void open(Recovery recovery, Iterable<Task> live) {
+    }
+
+    @Override
+    public void put(Task task, Runnable apply) {
+      apply.run();
+    }
+
+    @Override
+    public void putAll(List<Task> tasks, Runnable apply) {
+      apply.run();
+    }
+
+    @Override
+    public void delete(long id, Runnable apply) {
+      apply.run();
+    }
+  };
+
+  /**
+   * Replays the persisted changes, in order, into {@code recovery}, then starts recording.
+   * {@code live} iterates the current tasks and is read when taking snapshots.
+   */
+  void open(Recovery recovery, Iterable<Task> live);
+
+  /**
+   * Records that {@code task} (with its id and version) is now stored, then runs {@code apply}.
+   */
+  void put(Task task, Runnable apply);
+
+  /**
+   * Same as {@link #put} for several tasks at once, sharing one disk sync.
+   */
+  void putAll(List<Task> tasks, Runnable apply);
+
+  /**
+   * Records that the task with {@code id} was deleted, then runs {@code apply}.
+   */
+  void delete(long id, Runnable apply);
+
+  /**
+   * Receives the persisted state while the journal is opened.
+   */
+  interface Recovery {
+
+    void put(Task task);
+
+    void delete(long id);
+
+    /**
+     * Ids up to {@code id} have been handed out, whether or not those tasks still exist.
+     */
+    void idsUsedUpTo(long id);
+  }
+}
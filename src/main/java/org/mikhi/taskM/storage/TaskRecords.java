@@ -0,0 +1,101 @@
+package org.mikhi.taskM.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+
+/**
+ * Binary layout of the records shared by the log and the snapshots.
+ * <p>
+ * A put record is {@code type, id, version, title, description, status, dueDate}; a delete record
+ * is {@code type, id}. Strings are a length (-1 for null) followed by UTF-8 bytes, the status is
+ * its ordinal (-1 for null) and the due date its epoch day ({@link Long#MIN_VALUE} for null).
+ */
+final class TaskRecords {
+
+  private static final byte PUT = 1;
+  private static final byte DELETE = 2;
+  private static final long NO_DATE = Long.MIN_VALUE;
+  private static final Status[] STATUSES = Status.values();
+
+  private TaskRecords() {
+  }
+
+  static byte[] put(Task task) {
+    byte[] title = utf8(task.getTitle());
+    byte[] description = utf8(task.getDescription());
+    ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + 8 + 4 + length(title) + 4
+        + length(description) + 1 + 8);
+    buffer.put(PUT)
+        .putLong(task.getId())
+        .putLong(task.getVersion());
+    putString(buffer, title);
+    putString(buffer, description);
+    buffer.put(task.getStatus() == null ? -1 : (byte) task.getStatus().ordinal())
+        .putLong(task.getDueDate() == null ? NO_DATE : task.getDueDate().toEpochDay());
+    return buffer.array();
+  }
+
+  static byte[] delete(long id) {
+    return ByteBuffer.allocate(1 + 8).put(DELETE).putLong(id).array();
+  }
+
+  /**
+   * Decodes one record, positioned at its first byte, and hands it to {@code put} or
+   * {@code delete}.
+   */
+  static void read(ByteBuffer record, Consumer<Task> put, LongConsumer delete) {
+    byte type = record.get();
+    long id = record.getLong();
+    if (type == DELETE) {
+      delete.accept(id);
+      return;
+    }
+    if (type != PUT) {
+      throw new IllegalStateException("Unknown task record type: " + type);
+    }
+    long version = record.getLong();
+    String title = getString(record);
+    String description = getString(record);
+    byte status = record.get();
+    long dueDate = record.getLong();
+    put.accept(Task.builder()
+        .id(id)
+        .version(version)
+        .title(title)
+        .description(description)
+        .status(status < 0 ? null : STATUSES[status])
+        .dueDate(dueDate == NO_DATE ? null : LocalDate.ofEpochDay(dueDate))
+        .build());
+  }
+
+  private static byte[] utf8(String value) {
+    return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static int length(byte[] value) {
+    return value == null ? 0 : value.length;
+  }
+
+  private static void putString(ByteBuffer buffer, byte[] value) {
+    if (value == null) {
+      buffer.putInt(-1);
+    } else {
+      buffer.putInt(value.length).put(value);
+    }
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] value = new byte[length];
+    buffer.get(value);
+    return new String(value, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,425 @@
+package org.mikhi.taskM.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+import org.mikhi.taskM.model.Task;
+
+/**
+ * {@link TaskJournal} backed by an append-only log of memory-mapped segments plus periodic
+ * snapshots.
+ * <p>
+ * Each record is framed as {@code length, CRC32, body} (see {@link TaskRecords}); replay stops at
+ * the first empty or corrupt frame of a segment, which drops a write torn by a crash. A writer
+ * waits until its record is forced to disk; writers arriving while a force is running are covered
+ * by the next one, so concurrent writes share fsyncs (group commit).
+ * <p>
+ * A snapshot starts a new segment {@code N}, writes every live task to {@code snapshot-N} and
+ * then deletes older segments and snapshots. Recovery loads the latest snapshot and replays
+ * segments {@code N} and later. Records are whole task states, so replaying one the snapshot
+ * already contains is harmless.
+ */
+@Slf4j
+public class TaskWriteAheadLog implements TaskJournal, Closeable {
+
+  private static final String SEGMENT_PREFIX = "wal-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final String SNAPSHOT_PREFIX = "snapshot-";
+  private static final String SNAPSHOT_SUFFIX = ".snap";
+  private static final int FRAME_HEADER = 8;
+  private static final int SNAPSHOT_MAGIC = 0x5441534B;
+
+  private final Path directory;
+  private final int segmentSize;
+  private final Duration snapshotInterval;
+  private final boolean fsync;
+
+  // Held shared from recording a change until it is applied, and exclusively while a snapshot
+  // cuts the log, so every change logged before the cut is visible to the snapshot.
+  private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+  private final Object appendLock = new Object();
+  private final Object syncLock = new Object();
+  private final AtomicLong durable = new AtomicLong();
+  // Highest id ever recorded; kept in snapshots so ids of deleted tasks are never reused.
+  private final AtomicLong highestId = new AtomicLong();
+
+  // Guarded by appendLock
+  private MappedByteBuffer segment;
+  private long segmentIndex;
+  private volatile long written;
+
+  private Iterable<Task> live;
+  private ScheduledExecutorService snapshots;
+
+  public TaskWriteAheadLog(Path directory, int segmentSize, Duration snapshotInterval,
+      boolean fsync) {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.snapshotInterval = snapshotInterval;
+    this.fsync = fsync;
+  }
+
+  @Override
+  public void open(Recovery recovery, Iterable<Task> live) {
+    if (this.live != null) {
+      throw new IllegalStateException("Write-ahead log is already open");
+    }
+    try {
+      Files.createDirectories(directory);
+      try (Stream<Path> files = Files.list(directory)) {
+        for (Path unfinished : files.filter(file -> file.toString().endsWith(".tmp"))
+            .collect(Collectors.toList())) {
+          Files.delete(unfinished);
+        }
+      }
+      long start = System.nanoTime();
+      Consumer<Task> put = task -> {
+        highestId.accumulateAndGet(task.getId(), Math::max);
+        recovery.put(task);
+      };
+      LongConsumer delete = id -> {
+        highestId.accumulateAndGet(id, Math::max);
+        recovery.delete(id);
+      };
+      List<Long> snapshotIndexes = indexes(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+      long firstSegment = 0;
+      if (!snapshotIndexes.isEmpty()) {
+        firstSegment = snapshotIndexes.get(snapshotIndexes.size() - 1);
+        highestId.set(readSnapshot(directory.resolve(snapshotName(firstSegment)), put));
+      }
+      long lastSegment = firstSegment - 1;
+      long records = 0;
+      for (long index : indexes(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+        if (index >= firstSegment) {
+          records += replay(directory.resolve(segmentName(index)), put, delete);
+          lastSegment = index;
+        }
+      }
+      log.info("Recovered tasks from {} (snapshot {}, {} log records) in {} ms", directory,
+          snapshotIndexes.isEmpty() ? "none" : firstSegment, records,
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      recovery.idsUsedUpTo(highestId.get());
+
+      // Never append after a possibly torn tail: continue in a fresh segment.
+      synchronized (appendLock) {
+        openSegment(lastSegment + 1);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot recover tasks from " + directory, e);
+    }
+    this.live = live;
+    if (!snapshotInterval.isZero() && !snapshotInterval.isNegative()) {
+      snapshots = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-wal-snapshot");
+        thread.setDaemon(true);
+        return thread;
+      });
+      long period = snapshotInterval.toMillis();
+      snapshots.scheduleWithFixedDelay(this::scheduledSnapshot, period, period,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Override
+  public void put(Task task, Runnable apply) {
+    highestId.accumulateAndGet(task.getId(), Math::max);
+    record(List.of(TaskRecords.put(task)), apply);
+  }
+
+  @Override
+  public void putAll(List<Task> tasks, Runnable apply) {
+    tasks.forEach(task -> highestId.accumulateAndGet(task.getId(), Math::max));
+    record(tasks.stream().map(TaskRecords::put).collect(Collectors.toList()), apply);
+  }
+
+  @Override
+  public void delete(long id, Runnable apply) {
+    highestId.accumulateAndGet(id, Math::max);
+    record(List.of(TaskRecords.delete(id)), apply);
+  }
+
+  private void record(List<byte[]> records, Runnable apply) {
+    int[] checksums = new int[records.size()];
+    for (int i = 0; i < checksums.length; i++) {
+      byte[] record = records.get(i);
+      if (FRAME_HEADER + record.length > segmentSize - 4) {
+        throw new IllegalArgumentException(
+            "Task record of " + record.length + " bytes does not fit in a log segment");
+      }
+      checksums[i] = checksum(ByteBuffer.wrap(record));
+    }
+    checkpointLock.readLock().lock();
+    try {
+      long end;
+      synchronized (appendLock) {
+        if (segment == null) {
+          throw new IllegalStateException("Write-ahead log is not open");
+        }
+        for (int i = 0; i < checksums.length; i++) {
+          append(records.get(i), checksums[i]);
+        }
+        end = written;
+      }
+      if (fsync) {
+        awaitDurable(end);
+      }
+      apply.run();
+    } finally {
+      checkpointLock.readLock().unlock();
+    }
+  }
+
+  // Caller holds appendLock
+  private void append(byte[] record, int checksum) {
+    int frameLength = FRAME_HEADER + record.length;
+    // Keep four zero bytes at the end of a segment so replay always finds an empty frame.
+    if (segment.remaining() < frameLength + 4) {
+      roll();
+    }
+    segment.putInt(record.length).putInt(checksum).put(record);
+    written = segmentIndex * segmentSize + segment.position();
+  }
+
+  /**
+   * Returns once everything up to {@code position} is on disk. The thread that gets the sync lock
+   * forces all records written so far, including those of the threads queued behind it.
+   */
+  private void awaitDurable(long position) {
+    if (durable.get() >= position) {
+      return;
+    }
+    synchronized (syncLock) {
+      if (durable.get() >= position) {
+        return;
+      }
+      MappedByteBuffer current;
+      long target;
+      synchronized (appendLock) {
+        current = segment;
+        target = written;
+      }
+      current.force();
+      durable.accumulateAndGet(target, Math::max);
+    }
+  }
+
+  // Caller holds appendLock
+  private void roll() {
+    if (fsync) {
+      segment.force();
+      durable.accumulateAndGet(written, Math::max);
+    }
+    try {
+      openSegment(segmentIndex + 1);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot start a new log segment in " + directory, e);
+    }
+  }
+
+  // Caller holds appendLock
+  private void openSegment(long index) throws IOException {
+    try (FileChannel channel = FileChannel.open(directory.resolve(segmentName(index)),
+        StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+    segmentIndex = index;
+    written = index * segmentSize;
+  }
+
+  private static long replay(Path file, Consumer<Task> put, LongConsumer delete)
+      throws IOException {
+    long records = 0;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      while (buffer.remaining() >= FRAME_HEADER) {
+        int length = buffer.getInt();
+        int expected = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining()) {
+          break;
+        }
+        ByteBuffer record = buffer.slice();
+        record.limit(length);
+        if (checksum(record.duplicate()) != expected) {
+          log.warn("Ignoring a torn record at the end of {}", file.getFileName());
+          break;
+        }
+        TaskRecords.read(record, put, delete);
+        buffer.position(buffer.position() + length);
+        records++;
+      }
+    }
+    return records;
+  }
+
+  /**
+   * Writes every live task to a new snapshot and deletes the segments and snapshots it replaces.
+   */
+  public void snapshot() {
+    long index;
+    checkpointLock.writeLock().lock();
+    try {
+      synchronized (appendLock) {
+        roll();
+        index = segmentIndex;
+      }
+    } finally {
+      checkpointLock.writeLock().unlock();
+    }
+
+    Path target = directory.resolve(snapshotName(index));
+    Path temporary = directory.resolve(snapshotName(index) + ".tmp");
+    try {
+      // Layout: magic, (length, record)*, 0, highest id, CRC32 of the records.
+      CRC32 crc = new CRC32();
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+        out.writeInt(SNAPSHOT_MAGIC);
+        for (Task task : live) {
+          byte[] record = TaskRecords.put(task);
+          out.writeInt(record.length);
+          out.write(record);
+          crc.update(record);
+        }
+        out.writeInt(0);
+        out.writeLong(highestId.get());
+        out.writeLong(crc.getValue());
+      }
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        channel.force(true);
+      }
+      Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+
+      for (long older : indexes(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+        if (older < index) {
+          Files.deleteIfExists(directory.resolve(snapshotName(older)));
+        }
+      }
+      for (long older : indexes(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+        if (older < index) {
+          Files.deleteIfExists(directory.resolve(segmentName(older)));
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot write snapshot " + target, e);
+    }
+  }
+
+  private void scheduledSnapshot() {
+    try {
+      snapshot();
+    } catch (RuntimeException e) {
+      log.warn("Task snapshot failed, keeping the log", e);
+    }
+  }
+
+  // Returns the highest id recorded when the snapshot was taken.
+  private static long readSnapshot(Path file, Consumer<Task> put) throws IOException {
+    CRC32 crc = new CRC32();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer buffer = fill(channel, ByteBuffer.allocate(1 << 20).flip(), 8);
+      if (buffer.getInt() != SNAPSHOT_MAGIC) {
+        throw new IOException("Not a task snapshot: " + file);
+      }
+      for (int length = buffer.getInt(); length > 0; length = buffer.getInt()) {
+        // The record plus the next length
+        buffer = fill(channel, buffer, length + 4);
+        ByteBuffer record = buffer.slice();
+        record.limit(length);
+        crc.update(record.duplicate());
+        TaskRecords.read(record, put, id -> {
+        });
+        buffer.position(buffer.position() + length);
+      }
+      buffer = fill(channel, buffer, 16);
+      long highestId = buffer.getLong();
+      if (buffer.getLong() != crc.getValue()) {
+        throw new IOException("Task snapshot is corrupt: " + file);
+      }
+      return highestId;
+    }
+  }
+
+  // Makes at least `bytes` bytes readable from `buffer`, growing it if needed.
+  private static ByteBuffer fill(FileChannel channel, ByteBuffer buffer, int bytes)
+      throws IOException {
+    if (buffer.remaining() >= bytes) {
+      return buffer;
+    }
+    ByteBuffer target = buffer.capacity() >= bytes
+        ? buffer.compact()
+        : ByteBuffer.allocate(Math.max(bytes, 2 * buffer.capacity())).put(buffer);
+    while (target.position() < bytes) {
+      if (channel.read(target) < 0) {
+        throw new EOFException("Task snapshot is truncated");
+      }
+    }
+    return target.flip();
+  }
+
+  @Override
+  public void close() {
+    if (snapshots != null) {
+      snapshots.shutdown();
+      try {
+        snapshots.awaitTermination(1, TimeUnit.MINUTES);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    synchronized (appendLock) {
+      if (segment != null) {
+        segment.force();
+        segment = null;
+      }
+    }
+  }
+
+  private List<Long> indexes(String prefix, String suffix) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.map(file -> file.getFileName().toString())
+          .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+          .map(name -> Long.parseLong(
+              name.substring(prefix.length(), name.length() - suffix.length())))
+          .sorted()
+          .collect(Collectors.toCollection(ArrayList::new));
+    }
+  }
+
+  private static String segmentName(long index) {
+    return String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+  }
+
+  private static String snapshotName(long index) {
+    return String.format("%s%020d%s", SNAPSHOT_PREFIX, index, SNAPSHOT_SUFFIX);
+  }
+
+  private static int checksum(ByteBuffer record) {
+    CRC32 crc = new CRC32();
+    crc.update(record);
+    return (int) crc.getValue();
+  }
+}
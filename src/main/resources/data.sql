@@ -0,0 +1,8 @@
+-- Sample tasks for local development. Not loaded under the prod profile, where the database
+-- may outlive a restart and the fixed ids would clash.
+INSERT INTO task (id, title, description, status, due_date)
+VALUES (1, 'Project Setup', 'Initialize Spring Boot project structure', 'IN_PROGRESS','2024-04-10'),
+       (2, 'API Documentation', 'Create Swagger documentation for REST endpoints', 'TODO', '2024-04-15'),
+       (3, 'Database Design', 'Design and implement database schema', 'DONE', '2024-04-05'),
+       (4, 'Unit Testing', 'Write unit tests for service layer', 'TODO', '2024-04-20'),
+       (5, 'Security Implementation', 'Add Spring Security configuration', 'TODO', '2024-04-25');
@@ -4,13 +4,14 @@ CREATE TABLE IF NOT EXISTS task (
     title       VARCHAR(255) NOT NULL,
     description VARCHAR(1000),
     status      VARCHAR(50),
-    due_date    DATE
+    due_date    DATE,
+    version     BIGINT DEFAULT 0 NOT NULL
 );
 
+-- Id sequence used by the pooled generator on Task (allocation size 50). It starts at 100 so the
+-- first block handed out (51..100) stays clear of the sample rows in data.sql.
+CREATE SEQUENCE IF NOT EXISTS task_seq START WITH 100 INCREMENT BY 50;
 
-INSERT INTO task (id, title, description, status, due_date)
-VALUES (1, 'Project Setup', 'Initialize Spring Boot project structure', 'IN_PROGRESS','2024-04-10'),
-       (2, 'API Documentation', 'Create Swagger documentation for REST endpoints', 'TODO', '2024-04-15'),
-       (3, 'Database Design', 'Design and implement database schema', 'DONE', '2024-04-05'),
-       (4, 'Unit Testing', 'Write unit tests for service layer', 'TODO', '2024-04-20'),
-       (5, 'Security Implementation', 'Add Spring Security configuration', 'TODO', '2024-04-25');
\ No newline at end of file
+-- Indexes backing the status / due-date filters
+CREATE INDEX IF NOT EXISTS idx_task_status_due_date ON task (status, due_date);
+CREATE INDEX IF NOT EXISTS idx_task_due_date ON task (due_date);
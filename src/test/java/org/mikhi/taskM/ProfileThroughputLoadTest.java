@@ -0,0 +1,125 @@
+package org.mikhi.taskM;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load test comparing HTTP throughput of the shipped configuration with and without the
+ * {@code prod} profile.
+ * <p>
+ * Each run boots the application on a random port from {@code src/main/resources} (the test
+ * {@code application.properties} would otherwise shadow the real one) and drives it with
+ * {@value #CLIENTS} concurrent clients, each looping create, get, update and filter. Excluded from
+ * the default build; run with {@code mvn test -P load-test}.
+ */
+@Slf4j
+@Tag("load")
+class ProfileThroughputLoadTest {
+
+  private static final int CLIENTS = 16;
+  private static final Duration WARMUP = Duration.ofSeconds(5);
+  private static final Duration MEASUREMENT = Duration.ofSeconds(15);
+  private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+  @Test
+  void prodProfile_hasHigherThroughputThanDefault() throws Exception {
+    double defaultThroughput = measureThroughput();
+    double prodThroughput = measureThroughput("prod");
+
+    log.info("default: {} req/s, prod: {} req/s", Math.round(defaultThroughput),
+        Math.round(prodThroughput));
+    assertTrue(prodThroughput > defaultThroughput,
+        String.format("prod %.0f req/s is not faster than default %.0f req/s", prodThroughput,
+            defaultThroughput));
+  }
+
+  private double measureThroughput(String... profiles) throws Exception {
+    try (ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(TaskManagementApplication.class)
+            .profiles(profiles)
+            // All clients share one address; the per-client rate limit would cap the load.
+            .properties("spring.config.location=file:src/main/resources/", "server.port=0",
+                "task.rate-limit.enabled=false")
+            .run()) {
+      String baseUrl = "http://localhost:"
+          + context.getEnvironment().getRequiredProperty("local.server.port") + "/v1/tasks";
+      HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+      drive(client, baseUrl, WARMUP);
+      return drive(client, baseUrl, MEASUREMENT) / (double) MEASUREMENT.toSeconds();
+    }
+  }
+
+  /**
+   * Runs the workload for {@code duration} and returns the number of successful requests.
+   */
+  private long drive(HttpClient client, String baseUrl, Duration duration) throws Exception {
+    LongAdder completed = new LongAdder();
+    long deadline = System.nanoTime() + duration.toNanos();
+    ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+    try {
+      List<Future<?>> running = new ArrayList<>();
+      for (int i = 0; i < CLIENTS; i++) {
+        running.add(clients.submit(() -> {
+          while (System.nanoTime() < deadline) {
+            workloadIteration(client, baseUrl, completed);
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : running) {
+        future.get();
+      }
+    } finally {
+      clients.shutdownNow();
+    }
+    return completed.sum();
+  }
+
+  private void workloadIteration(HttpClient client, String baseUrl, LongAdder completed)
+      throws Exception {
+    String body = "{\"title\":\"Load\",\"status\":\"TODO\",\"dueDate\":\"2024-05-01\"}";
+    HttpResponse<String> created = send(client, HttpRequest.newBuilder(URI.create(baseUrl))
+        .header("Content-Type", "application/json")
+        .POST(BodyPublishers.ofString(body)), completed);
+    Matcher id = ID.matcher(created.body());
+    if (!id.find()) {
+      return;
+    }
+    URI taskUri = URI.create(baseUrl + "/" + id.group(1));
+    send(client, HttpRequest.newBuilder(taskUri).GET(), completed);
+    send(client, HttpRequest.newBuilder(taskUri)
+        .header("Content-Type", "application/json")
+        .PUT(BodyPublishers.ofString(body.replace("TODO", "IN_PROGRESS"))), completed);
+    send(client, HttpRequest.newBuilder(URI.create(baseUrl + "/filter?status=TODO&size=20"))
+        .GET(), completed);
+  }
+
+  private HttpResponse<String> send(HttpClient client, HttpRequest.Builder request,
+      LongAdder completed) throws Exception {
+    HttpResponse<String> response = client.send(request.build(), BodyHandlers.ofString());
+    if (response.statusCode() / 100 == 2) {
+      completed.increment();
+    }
+    return response;
+  }
+}
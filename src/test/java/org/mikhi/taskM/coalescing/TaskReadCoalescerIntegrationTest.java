@@ -0,0 +1,180 @@
+package org.mikhi.taskM.coalescing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.exception.TaskNotFoundException;
+import org.mikhi.taskM.metrics.StatementCounter;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskField;
+import org.mikhi.taskM.model.TaskView;
+import org.mikhi.taskM.repository.TaskRepository;
+import org.mikhi.taskM.service.TaskService;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Thundering herd against {@link TaskReadCoalescer}: many threads ask for the same task or page
+ * at once while the query is slowed down, and the SQL statements the herd prepares are counted.
+ * Not {@code @Transactional}, since calls inside a transaction are not coalesced.
+ */
+@SpringBootTest
+class TaskReadCoalescerIntegrationTest {
+
+  private static final int THREADS = 32;
+  private static final long QUERY_MILLIS = 200;
+  private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+  private static final Set<TaskField> FIELDS = Set.of(TaskField.ID, TaskField.TITLE);
+
+  @Autowired
+  private TaskService taskService;
+
+  @SpyBean
+  private TaskRepository taskRepository;
+
+  @Autowired
+  private StatementCounter statementCounter;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private final AtomicInteger queries = new AtomicInteger();
+  private final AtomicInteger statements = new AtomicInteger();
+  private ExecutorService executor;
+  private Task task;
+
+  @BeforeEach
+  void setUp() {
+    // The repository is a JDK proxy, so its spy delegates through the default answer.
+    Answer<?> real = mockingDetails(taskRepository).getMockCreationSettings().getDefaultAnswer();
+    Answer<?> slow = invocation -> {
+      queries.incrementAndGet();
+      Object result = real.answer(invocation);
+      Thread.sleep(QUERY_MILLIS);
+      return result;
+    };
+    doAnswer(slow).when(taskRepository).findById(any());
+    doAnswer(slow).when(taskRepository).findViews(any(), any(), any());
+    taskRepository.deleteAll();
+    task = taskRepository.save(Task.builder().title("Popular").status(Status.TODO).build());
+    executor = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+    taskRepository.deleteAll();
+  }
+
+  @Test
+  void thunderingHerd_getTaskById_sharesOneQuery() throws Exception {
+    double coalescedBefore = coalesced("getTaskById");
+
+    List<Object> results = herd(() -> taskService.getTaskById(task.getId()));
+
+    report("getTaskById");
+    assertTrue(queries.get() < THREADS / 4, queries + " queries for " + THREADS + " calls");
+    assertEquals(THREADS - queries.get(), coalesced("getTaskById") - coalescedBefore);
+    results.forEach(result -> assertEquals(task.getId(), ((Task) result).getId()));
+  }
+
+  @Test
+  void thunderingHerd_filterTasks_sharesOneQuery() throws Exception {
+    List<Object> results = herd(
+        () -> taskService.filterTasks(Status.TODO, null, FIRST_PAGE, FIELDS));
+
+    report("filterTasks");
+    assertTrue(queries.get() < THREADS / 4, queries + " queries for " + THREADS + " calls");
+    for (Object result : results) {
+      @SuppressWarnings("unchecked")
+      List<TaskView> views = (List<TaskView>) result;
+      assertEquals("Popular", views.get(0).getTitle());
+    }
+  }
+
+  @Test
+  void thunderingHerd_missingTask_allCallsSeeTheFailure() throws Exception {
+    List<Object> results = herd(() -> {
+      try {
+        return taskService.getTaskById(-1L);
+      } catch (TaskNotFoundException e) {
+        return e;
+      }
+    });
+
+    assertTrue(queries.get() < THREADS / 4, queries + " queries for " + THREADS + " calls");
+    results.forEach(result -> assertTrue(result instanceof TaskNotFoundException));
+  }
+
+  @Test
+  void callsAfterAWrite_doNotJoinAQueryStartedBefore() throws Exception {
+    Future<Task> before = executor.submit(() -> taskService.getTaskById(task.getId()));
+    Thread.sleep(QUERY_MILLIS / 4);
+    taskService.updateTask(task.getId(), Task.builder().title("Renamed").build());
+
+    Task after = taskService.getTaskById(task.getId());
+
+    assertEquals("Popular", before.get(10, TimeUnit.SECONDS).getTitle());
+    assertEquals("Renamed", after.getTitle());
+  }
+
+  /**
+   * Starts {@value #THREADS} calls at once and waits for all of them.
+   */
+  private List<Object> herd(Callable<Object> call) throws Exception {
+    CountDownLatch ready = new CountDownLatch(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Object>> futures = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      futures.add(executor.submit(() -> {
+        ready.countDown();
+        start.await();
+        long before = statementCounter.current();
+        try {
+          return call.call();
+        } finally {
+          statements.addAndGet((int) (statementCounter.current() - before));
+        }
+      }));
+    }
+    ready.await();
+    start.countDown();
+    List<Object> results = new ArrayList<>();
+    for (Future<Object> future : futures) {
+      results.add(future.get(30, TimeUnit.SECONDS));
+    }
+    return results;
+  }
+
+  private void report(String operation) {
+    System.out.printf("%s: %d concurrent calls, %d queries, %d SQL statements%n", operation,
+        THREADS, queries.get(), statements.get());
+  }
+
+  private double coalesced(String operation) {
+    return meterRegistry.find(TaskReadCoalescer.COALESCED).tag("operation", operation)
+        .counters().stream().mapToDouble(counter -> counter.count()).sum();
+  }
+}
@@ -0,0 +1,104 @@
+package org.mikhi.taskM.controller;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Full integration test for {@link TaskChangeController}: changes made through the task API reach
+ * long polls and event streams.
+ */
+@SpringBootTest(properties = "task.changes.poll-timeout=5s")
+@AutoConfigureMockMvc
+class TaskChangeControllerIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private long createTask(String title, Status status) throws Exception {
+    MvcResult result = mockMvc.perform(post("/v1/tasks")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(
+                Task.builder().title(title).status(status).build())))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    String body = mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+    return objectMapper.readTree(body).path("data").path("id").asLong();
+  }
+
+  @Test
+  void testPoll_AnswersWithTheNextChange() throws Exception {
+    MvcResult poll = mockMvc.perform(get("/v1/tasks/changes").param("status", "TODO"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    createTask("Done already", Status.DONE);
+    long id = createTask("Polled task", Status.TODO);
+
+    mockMvc.perform(asyncDispatch(poll))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.success", is(true)))
+        .andExpect(jsonPath("$.data.reset", is(false)))
+        .andExpect(jsonPath("$.data.changes", hasSize(1)))
+        .andExpect(jsonPath("$.data.changes[0].type", is("CREATED")))
+        .andExpect(jsonPath("$.data.changes[0].taskId", is((int) id)))
+        .andExpect(jsonPath("$.data.changes[0].task.title", is("Polled task")));
+  }
+
+  @Test
+  void testStream_SendsChangesAsServerSentEvents() throws Exception {
+    MvcResult stream = mockMvc.perform(get("/v1/tasks/changes")
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .param("status", "IN_PROGRESS"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    createTask("Not streamed", Status.TODO);
+    long id = createTask("Streamed task", Status.IN_PROGRESS);
+    mockMvc.perform(asyncDispatch(mockMvc.perform(delete("/v1/tasks/{id}", id)).andReturn()))
+        .andExpect(status().isOk());
+
+    String events = awaitContent(stream, "\"type\":\"DELETED\"");
+    assertTrue(MediaType.TEXT_EVENT_STREAM.isCompatibleWith(
+        MediaType.parseMediaType(stream.getResponse().getContentType())));
+    assertTrue(events.contains("\"title\":\"Streamed task\""), events);
+    assertTrue(events.contains("id:"), events);
+    assertFalse(events.contains("Not streamed"), events);
+  }
+
+  private static String awaitContent(MvcResult result, String expected) throws Exception {
+    long deadline = System.currentTimeMillis() + 5000;
+    String content = result.getResponse().getContentAsString();
+    while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+      content = result.getResponse().getContentAsString();
+    }
+    return content;
+  }
+}
@@ -0,0 +1,108 @@
+package org.mikhi.taskM.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Response compression and HTTP/2 on the embedded server, configured as shipped in
+ * {@code src/main/resources/application.properties}.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@TestPropertySource(locations = "file:src/main/resources/application.properties",
+    properties = {"spring.datasource.url=jdbc:h2:mem:http", "spring.sql.init.mode=never"})
+class TaskControllerHttpTest {
+
+  @LocalServerPort
+  private int port;
+
+  @Autowired
+  private TaskRepository taskRepository;
+
+  private final HttpClient client = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_2)
+      .build();
+
+  @BeforeEach
+  void setUp() {
+    taskRepository.deleteAll();
+    List<Task> tasks = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      tasks.add(Task.builder().title("Task " + i).description("Compressible description")
+          .status(Status.TODO).build());
+    }
+    taskRepository.saveAll(tasks);
+  }
+
+  private HttpResponse<byte[]> get(String path, boolean gzip)
+      throws IOException, InterruptedException {
+    HttpRequest.Builder request = HttpRequest.newBuilder(
+        URI.create("http://localhost:" + port + path));
+    if (gzip) {
+      request.header("Accept-Encoding", "gzip");
+    }
+    return client.send(request.build(), BodyHandlers.ofByteArray());
+  }
+
+  private static String gunzip(byte[] body) throws IOException {
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  void testListing_IsGzippedOverHttp2() throws Exception {
+    HttpResponse<byte[]> response = get("/v1/tasks/paginated?size=100", true);
+
+    assertEquals(200, response.statusCode());
+    assertEquals(HttpClient.Version.HTTP_2, response.version());
+    assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+    String json = gunzip(response.body());
+    assertTrue(json.contains("\"totalElements\":100"), json);
+    assertTrue(response.body().length * 4 < json.length(),
+        "Expected at least 4:1, got " + response.body().length + " of " + json.length());
+  }
+
+  @Test
+  void testListing_NotGzippedWhenNotAccepted() throws Exception {
+    HttpResponse<byte[]> response = get("/v1/tasks/paginated?size=100", false);
+
+    assertEquals(200, response.statusCode());
+    assertFalse(response.headers().firstValue("Content-Encoding").isPresent());
+    assertTrue(new String(response.body(), StandardCharsets.UTF_8)
+        .contains("\"totalElements\":100"));
+  }
+
+  @Test
+  void testSmallResponse_NotGzipped() throws Exception {
+    long id = taskRepository.findAll().get(0).getId();
+
+    HttpResponse<byte[]> response = get("/v1/tasks/" + id, true);
+
+    assertEquals(200, response.statusCode());
+    assertFalse(response.headers().firstValue("Content-Encoding").isPresent());
+  }
+}
@@ -1,29 +1,43 @@
 package org.mikhi.taskM.controller;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mikhi.taskM.model.Status;
 import org.mikhi.taskM.model.Task;
 import org.mikhi.taskM.repository.TaskRepository;
+import org.mikhi.taskM.search.TaskSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
 /**
  * Full integration test for {@link TaskController}.
@@ -32,7 +46,7 @@ import org.springframework.test.web.servlet.MockMvc;
  * the complete flow: Controller -> Service -> Repository. An embedded database (e.g., H2) is used
  * to persist test data.
  */
-@SpringBootTest
+@SpringBootTest(properties = "task.batch.chunk-size=2") // Small chunks exercise chunk boundaries
 @AutoConfigureMockMvc
 class TaskControllerIntegrationTest {
 
@@ -45,6 +59,9 @@ class TaskControllerIntegrationTest {
   @Autowired
   private ObjectMapper objectMapper;
 
+  @Autowired
+  private TaskSearchService searchService;
+
   @BeforeEach
   void setUp() {
     taskRepository.deleteAll();
@@ -54,7 +71,7 @@ class TaskControllerIntegrationTest {
   void testCreateTask_Success() throws Exception {
     Task task = Task.builder().title("Test Task").description("Test Description").build();
 
-    mockMvc.perform(post("/v1/tasks")
+    perform(post("/v1/tasks")
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(task)))
         .andExpect(status().isCreated())
@@ -67,7 +84,7 @@ class TaskControllerIntegrationTest {
   void testGetTaskById_Success() throws Exception {
     Task task = taskRepository.save(Task.builder().title("Test Task").build());
 
-    mockMvc.perform(get("/v1/tasks/{id}", task.getId()))
+    perform(get("/v1/tasks/{id}", task.getId()))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.success", is(true)))
         .andExpect(jsonPath("$.message", containsString("found successfully")))
@@ -76,7 +93,7 @@ class TaskControllerIntegrationTest {
 
   @Test
   void testGetTaskById_NotFound() throws Exception {
-    mockMvc.perform(get("/v1/tasks/{id}", 999))
+    perform(get("/v1/tasks/{id}", 999))
         .andExpect(status().isNotFound())
         .andExpect(jsonPath("$.status", is(404)))
         .andExpect(jsonPath("$.message", containsString("Task not found with id: 999")));
@@ -87,7 +104,7 @@ class TaskControllerIntegrationTest {
     Task task = taskRepository.save(Task.builder().title("Old Task").build());
     Task updatedTask = Task.builder().title("Updated Task").build();
 
-    mockMvc.perform(put("/v1/tasks/{id}", task.getId())
+    perform(put("/v1/tasks/{id}", task.getId())
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(updatedTask)))
         .andExpect(status().isOk())
@@ -96,11 +113,70 @@ class TaskControllerIntegrationTest {
         .andExpect(jsonPath("$.data.title", is("Updated Task")));
   }
 
+  @Test
+  void testGetTaskById_NotModified() throws Exception {
+    Task task = taskRepository.save(Task.builder().title("Test Task").build());
+
+    String eTag = perform(get("/v1/tasks/{id}", task.getId()))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"0\""))
+        .andReturn().getResponse().getHeader("ETag");
+
+    perform(get("/v1/tasks/{id}", task.getId()).header("If-None-Match", eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void testUpdateTask_IfMatch() throws Exception {
+    Task task = taskRepository.save(Task.builder().title("Old Task").build());
+    Task updatedTask = Task.builder().title("Updated Task").build();
+
+    perform(put("/v1/tasks/{id}", task.getId())
+            .header("If-Match", "\"0\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(updatedTask)))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"1\""))
+        .andExpect(jsonPath("$.data.version", is(1)));
+
+    // The same precondition no longer holds once the task has moved on to version 1.
+    perform(put("/v1/tasks/{id}", task.getId())
+            .header("If-Match", "\"0\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(updatedTask)))
+        .andExpect(status().isPreconditionFailed())
+        .andExpect(jsonPath("$.status", is(412)));
+
+    perform(delete("/v1/tasks/{id}", task.getId()).header("If-Match", "\"0\""))
+        .andExpect(status().isPreconditionFailed());
+    perform(delete("/v1/tasks/{id}", task.getId()).header("If-Match", "\"1\""))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void testUpdateTask_WithoutIfMatch_ReturnsNewVersion() throws Exception {
+    Task task = taskRepository.save(Task.builder().title("Old Task").build());
+    Task updatedTask = Task.builder().title("Updated Task").build();
+
+    for (int version = 1; version <= 2; version++) {
+      perform(put("/v1/tasks/{id}", task.getId())
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(objectMapper.writeValueAsString(updatedTask)))
+          .andExpect(status().isOk())
+          .andExpect(header().string("ETag", "\"" + version + "\""))
+          .andExpect(jsonPath("$.data.version", is(version)));
+    }
+    // The returned tag is good for the next conditional write without reading the task first.
+    perform(delete("/v1/tasks/{id}", task.getId()).header("If-Match", "\"2\""))
+        .andExpect(status().isOk());
+  }
+
   @Test
   void testUpdateTask_NotFound() throws Exception {
     Task updatedTask = Task.builder().title("NonExistentTask").build();
 
-    mockMvc.perform(put("/v1/tasks/{id}", 999)
+    perform(put("/v1/tasks/{id}", 999)
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(updatedTask)))
         .andExpect(status().isNotFound())
@@ -112,7 +188,7 @@ class TaskControllerIntegrationTest {
   void testDeleteTask_Success() throws Exception {
     Task task = taskRepository.save(Task.builder().title("Task to Delete").build());
 
-    mockMvc.perform(delete("/v1/tasks/{id}", task.getId()))
+    perform(delete("/v1/tasks/{id}", task.getId()))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.success", is(true)))
         .andExpect(jsonPath("$.message", containsString("deleted successfully")));
@@ -120,7 +196,7 @@ class TaskControllerIntegrationTest {
 
   @Test
   void testDeleteTask_NotFound() throws Exception {
-    mockMvc.perform(delete("/v1/tasks/{id}", 999))
+    perform(delete("/v1/tasks/{id}", 999))
         .andExpect(status().isNotFound())
         .andExpect(jsonPath("$.status", is(404)))
         .andExpect(jsonPath("$.message", containsString("Task not found with id: 999")));
@@ -134,7 +210,7 @@ class TaskControllerIntegrationTest {
     );
     taskRepository.saveAll(tasks);
 
-    mockMvc.perform(get("/v1/tasks"))
+    perform(get("/v1/tasks"))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.success", is(true)))
         .andExpect(jsonPath("$.message", is("Tasks retrieved successfully")))
@@ -143,7 +219,7 @@ class TaskControllerIntegrationTest {
 
   @Test
   void testGetAllTasks_NoTasksFound() throws Exception {
-    mockMvc.perform(get("/v1/tasks"))
+    perform(get("/v1/tasks"))
         .andExpect(status().isNotFound())
         .andExpect(jsonPath("$.status", is(404)))
         .andExpect(jsonPath("$.message", is("No tasks found in the system")));
@@ -153,16 +229,128 @@ class TaskControllerIntegrationTest {
   void testFilterTasks_ByStatus_Success() throws Exception {
     Task task = taskRepository.save(Task.builder().title("Task 1").status(Status.TODO).build());
 
-    mockMvc.perform(get("/v1/tasks/filter").param("status", "TODO"))
+    perform(get("/v1/tasks/filter").param("status", "TODO"))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.success", is(true)))
         .andExpect(jsonPath("$.message", is("Tasks filtered by status")))
         .andExpect(jsonPath("$.data[0].status", is("TODO")));
   }
 
+  @Test
+  void testFilterTasks_NotModifiedUntilATaskChanges() throws Exception {
+    Task task = Task.builder().title("Task 1").status(Status.TODO).build();
+    perform(post("/v1/tasks").contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(task)));
+
+    String eTag = perform(get("/v1/tasks/filter").param("status", "TODO"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", startsWith("W/\"")))
+        .andReturn().getResponse().getHeader("ETag");
+
+    perform(get("/v1/tasks/filter").param("status", "TODO").header("If-None-Match", eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+    perform(post("/v1/tasks").contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(task)));
+    perform(get("/v1/tasks/filter").param("status", "TODO").header("If-None-Match", eTag))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", not(eTag)))
+        .andExpect(jsonPath("$.data", hasSize(2)));
+  }
+
+  @Test
+  void testSearchTasks_FollowsWrites() throws Exception {
+    for (String title : Arrays.asList("Fix login bug", "Login page copy", "Release notes")) {
+      perform(post("/v1/tasks").contentType(MediaType.APPLICATION_JSON)
+          .content(objectMapper.writeValueAsString(Task.builder().title(title).build())));
+    }
+
+    perform(get("/v1/tasks/search").param("q", "login b"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.totalElements", is(1)))
+        .andExpect(jsonPath("$.data.content[0].task.title", is("Fix login bug")))
+        .andExpect(jsonPath("$.data.content[0].score", greaterThan(0.0)));
+
+    long id = taskRepository.findAll().stream()
+        .filter(task -> task.getTitle().equals("Login page copy"))
+        .findFirst().orElseThrow().getId();
+    perform(put("/v1/tasks/{id}", id).contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(Task.builder().title("Signup page").build())));
+    perform(get("/v1/tasks/search").param("q", "login"))
+        .andExpect(jsonPath("$.data.totalElements", is(1)));
+
+    perform(delete("/v1/tasks/{id}", id));
+    perform(get("/v1/tasks/search").param("q", "page"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.totalElements", is(0)))
+        .andExpect(jsonPath("$.data.content", hasSize(0)));
+  }
+
+  @Test
+  void testSearchTasks_RebuildFindsTasksStoredDirectly() throws Exception {
+    taskRepository.save(Task.builder().title("Imported task").build());
+
+    perform(get("/v1/tasks/search").param("q", "imported"))
+        .andExpect(jsonPath("$.data.totalElements", is(0)));
+    searchService.rebuild();
+    perform(get("/v1/tasks/search").param("q", "imported"))
+        .andExpect(jsonPath("$.data.content[0].task.title", is("Imported task")));
+  }
+
+  @Test
+  void testFilterTasks_Paged() throws Exception {
+    LocalDate dueDate = LocalDate.now();
+    taskRepository.saveAll(Arrays.asList(
+        Task.builder().title("Later").status(Status.TODO).dueDate(dueDate.plusDays(1)).build(),
+        Task.builder().title("Sooner").status(Status.TODO).dueDate(dueDate).build(),
+        Task.builder().title("Done").status(Status.DONE).dueDate(dueDate).build()
+    ));
+
+    perform(get("/v1/tasks/filter").param("status", "TODO").param("page", "1")
+        .param("size", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data", hasSize(1)))
+        .andExpect(jsonPath("$.data[0].title", is("Later")));
+  }
+
+  @Test
+  void testFilterTasks_SparseFields() throws Exception {
+    taskRepository.save(Task.builder().title("Task 1").description("Not needed")
+        .status(Status.TODO).build());
+
+    perform(get("/v1/tasks/filter").param("status", "TODO").param("fields", "id,title,dueDate"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data[0].title", is("Task 1")))
+        .andExpect(jsonPath("$.data[0].dueDate").value(nullValue()))
+        .andExpect(jsonPath("$.data[0].description").doesNotExist())
+        .andExpect(jsonPath("$.data[0].status").doesNotExist());
+  }
+
+  @Test
+  void testGetAllTasksPaginated_CompactEnvelope() throws Exception {
+    taskRepository.saveAll(Arrays.asList(
+        Task.builder().title("Task 1").build(),
+        Task.builder().title("Task 2").build(),
+        Task.builder().title("Task 3").build()
+    ));
+
+    perform(get("/v1/tasks/paginated").param("page", "1").param("size", "2")
+        .param("sortBy", "id").param("fields", "title"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.content", hasSize(1)))
+        .andExpect(jsonPath("$.data.content[0].title", is("Task 3")))
+        .andExpect(jsonPath("$.data.page", is(1)))
+        .andExpect(jsonPath("$.data.size", is(2)))
+        .andExpect(jsonPath("$.data.totalElements", is(3)))
+        .andExpect(jsonPath("$.data.totalPages", is(2)))
+        .andExpect(jsonPath("$.data.pageable").doesNotExist())
+        .andExpect(jsonPath("$.data.sort").doesNotExist());
+  }
+
   @Test
   void testFilterTasks_ByStatus_NoTasksFound() throws Exception {
-    mockMvc.perform(get("/v1/tasks/filter").param("status", "DONE"))
+    perform(get("/v1/tasks/filter").param("status", "DONE"))
         .andExpect(status().isNotFound())
         .andExpect(jsonPath("$.status", is(404)))
         .andExpect(jsonPath("$.message", containsString("No tasks found with status: DONE")));
@@ -172,7 +360,7 @@ class TaskControllerIntegrationTest {
   void testFilterTasks_ByDueDate_NoTasksFound() throws Exception {
     LocalDate dueDate = LocalDate.now();
 
-    mockMvc.perform(get("/v1/tasks/filter").param("dueDate", dueDate.toString()))
+    perform(get("/v1/tasks/filter").param("dueDate", dueDate.toString()))
         .andExpect(status().isNotFound())
         .andExpect(jsonPath("$.status", is(404)))
         .andExpect(
@@ -184,7 +372,7 @@ class TaskControllerIntegrationTest {
     LocalDate dueDate = LocalDate.now();
     Task task = taskRepository.save(Task.builder().title("Task 1").dueDate(dueDate).build());
 
-    mockMvc.perform(get("/v1/tasks/till-date").param("dueDate", dueDate.toString()))
+    perform(get("/v1/tasks/till-date").param("dueDate", dueDate.toString()))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.success", is(true)))
         .andExpect(jsonPath("$.message", containsString("retrieved successfully")))
@@ -195,12 +383,181 @@ class TaskControllerIntegrationTest {
   void testGetTasksTillDate_NoTasksFound() throws Exception {
     LocalDate dueDate = LocalDate.now();
 
-    mockMvc.perform(get("/v1/tasks/till-date").param("dueDate", dueDate.toString()))
+    perform(get("/v1/tasks/till-date").param("dueDate", dueDate.toString()))
         .andExpect(status().isNotFound())
         .andExpect(jsonPath("$.status", is(404)))
         .andExpect(
             jsonPath("$.message", containsString("No tasks found with due date till: " + dueDate)));
   }
 
+  @Test
+  void testGetTasksByCursor_Success() throws Exception {
+    taskRepository.saveAll(Arrays.asList(
+        Task.builder().title("Task 1").build(),
+        Task.builder().title("Task 2").build()
+    ));
+
+    perform(get("/v1/tasks/paginated/keyset").param("size", "1").param("sortBy", "id"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.success", is(true)))
+        .andExpect(jsonPath("$.data.content", hasSize(1)))
+        .andExpect(jsonPath("$.data.content[0].title", is("Task 1")))
+        .andExpect(jsonPath("$.data.hasNext", is(true)));
+  }
+
+  @Test
+  void testGetTasksByCursor_InvalidCursor() throws Exception {
+    perform(get("/v1/tasks/paginated/keyset").param("cursor", "garbage"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.status", is(400)))
+        .andExpect(jsonPath("$.message", containsString("Invalid cursor")));
+  }
+
+  @Test
+  void testGetTasksByCursor_SizeBelowOne() throws Exception {
+    for (String size : Arrays.asList("0", "-1")) {
+      perform(get("/v1/tasks/paginated/keyset").param("size", size))
+          .andExpect(status().isBadRequest())
+          .andExpect(jsonPath("$.status", is(400)))
+          .andExpect(jsonPath("$.message", containsString("size of at least 1")));
+    }
+  }
+
+  @Test
+  void testExportTasks_Ndjson() throws Exception {
+    taskRepository.saveAll(Arrays.asList(
+        Task.builder().title("Task 1").build(),
+        Task.builder().title("Task 2").build()
+    ));
+
+    MvcResult mvcResult = mockMvc.perform(get("/v1/tasks/export"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    mvcResult.getAsyncResult();
+
+    String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/x-ndjson"))
+        .andReturn().getResponse().getContentAsString().split("\n");
+
+    assertEquals(2, lines.length);
+    assertEquals("Task 1", objectMapper.readValue(lines[0], Task.class).getTitle());
+    assertEquals("Task 2", objectMapper.readValue(lines[1], Task.class).getTitle());
+  }
+
+  @Test
+  void testExportTasks_JsonArray() throws Exception {
+    taskRepository.saveAll(Arrays.asList(
+        Task.builder().title("Task 1").build(),
+        Task.builder().title("Task 2").build()
+    ));
+
+    MvcResult mvcResult = mockMvc.perform(get("/v1/tasks/export").param("format", "JSON"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    mvcResult.getAsyncResult();
+
+    mockMvc.perform(asyncDispatch(mvcResult))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$", hasSize(2)))
+        .andExpect(jsonPath("$[1].title", is("Task 2")));
+  }
+
+  @Test
+  void testCreateTasksBatch_ReportsEachItem() throws Exception {
+    List<Task> tasks = Arrays.asList(
+        Task.builder().title("Task 1").build(),
+        Task.builder().title("").build(),
+        Task.builder().title("Task 3").build()
+    );
+
+    perform(post("/v1/tasks/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(tasks)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.success", is(false)))
+        .andExpect(jsonPath("$.message", is("2 of 3 tasks created successfully")))
+        .andExpect(jsonPath("$.data", hasSize(3)))
+        .andExpect(jsonPath("$.data[0].success", is(true)))
+        .andExpect(jsonPath("$.data[1].index", is(1)))
+        .andExpect(jsonPath("$.data[1].success", is(false)))
+        .andExpect(jsonPath("$.data[1].message", containsString("title is mandatory")))
+        .andExpect(jsonPath("$.data[2].success", is(true)));
+
+    assertEquals(2, taskRepository.count());
+  }
+
+  @Test
+  void testCreateTasksBatch_TasksReadBackWithIdAndVersion() throws Exception {
+    Task existing = taskRepository.save(Task.builder().title("Existing").build());
+    // As a client would send a task it got from GET /v1/tasks/{id}.
+    List<Task> tasks = List.of(Task.builder().id(existing.getId()).title("Copy 1")
+        .version(existing.getVersion()).build(), Task.builder().title("Copy 2").version(3L).build());
+
+    perform(post("/v1/tasks/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(tasks)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.success", is(true)))
+        .andExpect(jsonPath("$.data[0].id", not(existing.getId().intValue())));
+
+    assertEquals(3, taskRepository.count());
+    assertEquals("Existing", taskRepository.findById(existing.getId()).orElseThrow().getTitle());
+  }
 
-}
\ No newline at end of file
+  @Test
+  void testUpdateTasksBatch_ReportsMissingTasks() throws Exception {
+    Task task1 = taskRepository.save(Task.builder().title("Old 1").build());
+    Task task2 = taskRepository.save(Task.builder().title("Old 2").build());
+    List<Task> updates = Arrays.asList(
+        Task.builder().id(task1.getId()).title("New 1").status(Status.DONE).build(),
+        Task.builder().id(999_999L).title("Missing").build(),
+        Task.builder().id(task2.getId()).title("New 2").build()
+    );
+
+    perform(put("/v1/tasks/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(updates)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.message", is("2 of 3 tasks updated successfully")))
+        .andExpect(jsonPath("$.data[1].success", is(false)))
+        .andExpect(jsonPath("$.data[1].message", is("Task not found with id: 999999")));
+
+    assertEquals("New 1", taskRepository.findById(task1.getId()).orElseThrow().getTitle());
+    assertEquals(Status.DONE, taskRepository.findById(task1.getId()).orElseThrow().getStatus());
+    assertEquals("New 2", taskRepository.findById(task2.getId()).orElseThrow().getTitle());
+  }
+
+  @Test
+  void testDeleteTasksBatch_Success() throws Exception {
+    Task task1 = taskRepository.save(Task.builder().title("Task 1").build());
+    Task task2 = taskRepository.save(Task.builder().title("Task 2").build());
+    Task task3 = taskRepository.save(Task.builder().title("Task 3").build());
+
+    perform(delete("/v1/tasks/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(
+                Arrays.asList(task1.getId(), task3.getId(), 999_999L))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.message", is("2 of 3 tasks deleted successfully")))
+        .andExpect(jsonPath("$.data[2].success", is(false)));
+
+    assertEquals(List.of(task2.getId()),
+        taskRepository.findAll().stream().map(Task::getId).collect(Collectors.toList()));
+  }
+
+  /**
+   * Performs the request and, if the controller went async, dispatches the async result so the
+   * returned actions always describe the final response.
+   */
+  private ResultActions perform(RequestBuilder request) throws Exception {
+    ResultActions actions = mockMvc.perform(request);
+    MvcResult mvcResult = actions.andReturn();
+    if (!mvcResult.getRequest().isAsyncStarted()) {
+      return actions;
+    }
+    mvcResult.getAsyncResult();
+    return mockMvc.perform(asyncDispatch(mvcResult));
+  }
+}
@@ -1,28 +1,46 @@
 package org.mikhi.taskM.controller;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Clock;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.event.TaskChangeTracker;
 import org.mikhi.taskM.exception.TaskNotFoundException;
 import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskField;
+import org.mikhi.taskM.model.TaskView;
+import org.mikhi.taskM.search.TaskSearchService;
 import org.mikhi.taskM.service.TaskService;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
 /**
  * // TaskControllerWebTest Web layer test for {@link TaskController} using {@code @WebMvcTest}.
@@ -39,9 +57,26 @@ class TaskControllerMockMvcTest {
   @MockBean
   private TaskService taskService;
 
+  @MockBean
+  private TaskSearchService searchService;
+
   @Autowired
   private ObjectMapper objectMapper;
 
+  @TestConfiguration
+  static class ChangeTrackerConfig {
+
+    /**
+     * Started a second before the requests, so Last-Modified is sent from the first one.
+     */
+    @Bean
+    TaskChangeTracker changeTracker() {
+      Clock clock = Mockito.mock(Clock.class);
+      Mockito.when(clock.millis()).thenReturn(10_000L, 11_000L);
+      return new TaskChangeTracker(clock);
+    }
+  }
+
   @Test
   void testCreateTask_Success() throws Exception {
     Task task = Task.builder().title("Test Task").description("Test Description").build();
@@ -50,7 +85,7 @@ class TaskControllerMockMvcTest {
 
     Mockito.when(taskService.createTask(Mockito.any(Task.class))).thenReturn(createdTask);
 
-    mockMvc.perform(post("/v1/tasks")
+    perform(post("/v1/tasks")
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(task)))
         .andExpect(status().isCreated())
@@ -65,7 +100,7 @@ class TaskControllerMockMvcTest {
 
     Mockito.when(taskService.getTaskById(1L)).thenReturn(task);
 
-    mockMvc.perform(get("/v1/tasks/{id}", 1L))
+    perform(get("/v1/tasks/{id}", 1L))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.success", is(true)))
         .andExpect(jsonPath("$.message", containsString("found successfully")))
@@ -77,7 +112,7 @@ class TaskControllerMockMvcTest {
     Mockito.when(taskService.getTaskById(999L))
         .thenThrow(new TaskNotFoundException("Task not found with id: 999"));
 
-    mockMvc.perform(get("/v1/tasks/{id}", 999L))
+    perform(get("/v1/tasks/{id}", 999L))
         .andExpect(status().isNotFound())
         .andExpect(jsonPath("$.message", containsString("Task not found with id: 999")));
   }
@@ -86,10 +121,11 @@ class TaskControllerMockMvcTest {
   void testUpdateTask_Success() throws Exception {
     Task updatedTask = Task.builder().id(1L).title("Updated Task").build();
 
-    Mockito.when(taskService.updateTask(Mockito.eq(1L), Mockito.any(Task.class)))
+    Mockito.when(
+            taskService.updateTask(Mockito.eq(1L), Mockito.any(Task.class), Mockito.isNull()))
         .thenReturn(updatedTask);
 
-    mockMvc.perform(put("/v1/tasks/{id}", 1L)
+    perform(put("/v1/tasks/{id}", 1L)
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(updatedTask)))
         .andExpect(status().isOk())
@@ -100,9 +136,9 @@ class TaskControllerMockMvcTest {
 
   @Test
   void testDeleteTask_Success() throws Exception {
-    Mockito.when(taskService.deleteTask(1L)).thenReturn("Task deleted successfully");
+    Mockito.when(taskService.deleteTask(1L, null)).thenReturn("Task deleted successfully");
 
-    mockMvc.perform(delete("/v1/tasks/{id}", 1L))
+    perform(delete("/v1/tasks/{id}", 1L))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.success", is(true)))
         .andExpect(jsonPath("$.message", containsString("deleted successfully")));
@@ -115,12 +151,70 @@ class TaskControllerMockMvcTest {
         Task.builder().id(2L).title("Task 2").build()
     );
 
-    Mockito.when(taskService.getAllTasks()).thenReturn(tasks);
+    Mockito.when(taskService.getAllTasks(TaskField.ALL)).thenReturn(tasks.stream()
+        .map(task -> TaskView.of(task, TaskField.ALL)).collect(Collectors.toList()));
 
-    mockMvc.perform(get("/v1/tasks"))
+    perform(get("/v1/tasks"))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.success", is(true)))
         .andExpect(jsonPath("$.message", is("Tasks retrieved successfully")))
-        .andExpect(jsonPath("$.data", hasSize(tasks.size())));
+        .andExpect(jsonPath("$.data", hasSize(tasks.size())))
+        .andExpect(jsonPath("$.data[0]", hasKey("description")))
+        .andExpect(jsonPath("$.data[0]", hasKey("version")));
+  }
+
+  @Test
+  void testGetAllTasks_SparseFields_OnlyRequestedFieldsSerialized() throws Exception {
+    Set<TaskField> fields = EnumSet.of(TaskField.ID, TaskField.TITLE);
+    Task task = Task.builder().id(1L).title("Task 1").description("Long text").build();
+    Mockito.when(taskService.getAllTasks(fields)).thenReturn(List.of(TaskView.of(task, fields)));
+
+    perform(get("/v1/tasks").param("fields", "title, id"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data[0].id", is(1)))
+        .andExpect(jsonPath("$.data[0].title", is("Task 1")))
+        .andExpect(jsonPath("$.data[0].description").doesNotExist())
+        .andExpect(jsonPath("$.data[0].status").doesNotExist());
+  }
+
+  @Test
+  void testGetAllTasks_UnknownField_ReturnsBadRequest() throws Exception {
+    mockMvc.perform(get("/v1/tasks").param("fields", "id,owner"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message", containsString("Unknown field 'owner'")));
+
+    Mockito.verifyNoInteractions(taskService);
+  }
+
+  @Test
+  void testGetAllTasks_IfNoneMatchCurrent_ReturnsNotModifiedWithoutQuerying() throws Exception {
+    Mockito.when(taskService.getAllTasks(TaskField.ALL))
+        .thenReturn(List.of(TaskView.of(Task.builder().id(1L).build(), TaskField.ALL)));
+    String eTag = perform(get("/v1/tasks"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"")))
+        .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    Mockito.clearInvocations(taskService);
+
+    mockMvc.perform(get("/v1/tasks").header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+    Mockito.verifyNoInteractions(taskService);
+  }
+
+  /**
+   * Performs the request and, if the controller went async, dispatches the async result so the
+   * returned actions always describe the final response.
+   */
+  private ResultActions perform(RequestBuilder request) throws Exception {
+    ResultActions actions = mockMvc.perform(request);
+    MvcResult mvcResult = actions.andReturn();
+    if (!mvcResult.getRequest().isAsyncStarted()) {
+      return actions;
+    }
+    mvcResult.getAsyncResult();
+    return mockMvc.perform(asyncDispatch(mvcResult));
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package org.mikhi.taskM.controller;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.event.TaskChangeTracker;
+import org.mikhi.taskM.search.TaskSearchService;
+import org.mikhi.taskM.service.TaskService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Web layer test for {@link TaskController} when the executor behind its async endpoints is
+ * saturated and refuses new work.
+ */
+@WebMvcTest(TaskController.class)
+@Import(TaskChangeTracker.class)
+class TaskControllerOverloadTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockBean
+  private TaskService taskService;
+
+  @MockBean
+  private TaskSearchService searchService;
+
+  @MockBean(name = "taskServiceExecutor")
+  private AsyncTaskExecutor taskServiceExecutor;
+
+  @MockBean(name = "taskExportExecutor")
+  private AsyncTaskExecutor taskExportExecutor;
+
+  @Test
+  void testGetTaskById_ExecutorFull_ReturnsServiceUnavailable() throws Exception {
+    when(taskServiceExecutor.submit(any(Runnable.class)))
+        .thenThrow(new TaskRejectedException("Executor is full"));
+
+    mockMvc.perform(get("/v1/tasks/{id}", 1L))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string("Retry-After", "1"))
+        .andExpect(jsonPath("$.status", is(503)))
+        .andExpect(jsonPath("$.message", is("Server is busy, please retry later")));
+
+    verify(taskService, never()).getTaskById(any());
+  }
+
+  @Test
+  void testExportTasks_ExportExecutorFull_ReturnsServiceUnavailable() throws Exception {
+    when(taskExportExecutor.submit(any(Runnable.class)))
+        .thenThrow(new TaskRejectedException("Executor is full"));
+
+    mockMvc.perform(get("/v1/tasks/export"))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string("Retry-After", "1"))
+        .andExpect(jsonPath("$.status", is(503)));
+
+    // Exports never take a thread from the executor the other endpoints share.
+    verify(taskServiceExecutor, never()).submit(any(Runnable.class));
+    verify(taskService, never()).streamAllTasks(any());
+  }
+}
@@ -2,31 +2,48 @@ package org.mikhi.taskM.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mikhi.taskM.exception.NoTasksFoundException;
+import org.mikhi.taskM.event.TaskChangeTracker;
+import org.mikhi.taskM.event.TaskChangedEvent;
+import org.mikhi.taskM.exception.ErrorResponse;
 import org.mikhi.taskM.exception.TaskNotFoundException;
 import org.mikhi.taskM.model.ApiResponseDto;
+import org.mikhi.taskM.model.CompactPage;
 import org.mikhi.taskM.model.Direction;
 import org.mikhi.taskM.model.Status;
 import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskField;
+import org.mikhi.taskM.model.TaskView;
+import org.mikhi.taskM.search.TaskSearchService;
 import org.mikhi.taskM.service.TaskService;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 /**
  * Unit test for {@link TaskController} using {@code  @InjectMocks}.
@@ -37,9 +54,17 @@ import org.springframework.http.ResponseEntity;
  */
 class TaskControllerUnitTest {
 
+  private static final Pageable FIRST_PAGE = PageRequest.of(0, 100, Sort.by("dueDate", "id"));
+
   @Mock
   private TaskService taskService;
 
+  @Mock
+  private TaskSearchService searchService;
+
+  @Spy
+  private TaskChangeTracker changeTracker = new TaskChangeTracker();
+
   @InjectMocks
   private TaskController taskController;
 
@@ -48,14 +73,18 @@ class TaskControllerUnitTest {
     MockitoAnnotations.openMocks(this);
   }
 
+  private static ServletWebRequest request() {
+    return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+  }
+
   @Test
-  void testCreateTask_Success() {
+  void testCreateTask_Success() throws Exception {
     Task task = Task.builder().title("TestTask").build();
     Task createdTask = Task.builder().id(1L).title("TestTask").build();
 
     when(taskService.createTask(task)).thenReturn(createdTask);
 
-    ResponseEntity<ApiResponseDto<Task>> response = taskController.createTask(task);
+    ResponseEntity<ApiResponseDto<Task>> response = taskController.createTask(task).call();
 
     assertNotNull(response);
     assertEquals(201, response.getStatusCodeValue());
@@ -66,13 +95,13 @@ class TaskControllerUnitTest {
   }
 
   @Test
-  void testGetTaskById_Success() {
+  void testGetTaskById_Success() throws Exception {
     Long taskId = 5L;
     Task mockTask = Task.builder().id(taskId).title("TestTask").status(Status.TODO).build();
 
     when(taskService.getTaskById(taskId)).thenReturn(mockTask);
 
-    ResponseEntity<ApiResponseDto<Task>> response = taskController.getTaskById(taskId);
+    ResponseEntity<ApiResponseDto<Task>> response = taskController.getTaskById(taskId).call();
 
     assertNotNull(response);
     assertEquals(200, response.getStatusCodeValue());
@@ -85,28 +114,29 @@ class TaskControllerUnitTest {
   }
 
   @Test
-  void testGetTaskById_NotFound() {
+  void testGetTaskById_NotFound() throws Exception {
     Long taskId = 99L;
 
     when(taskService.getTaskById(taskId)).thenThrow(
         new TaskNotFoundException("Task not found with id: " + taskId));
 
     Exception exception = assertThrows(TaskNotFoundException.class,
-        () -> taskController.getTaskById(taskId));
+        () -> taskController.getTaskById(taskId).call());
 
     assertEquals("Task not found with id: " + taskId, exception.getMessage());
   }
 
   @Test
-  void testUpdateTask_Success() {
+  void testUpdateTask_Success() throws Exception {
     Long taskId = 2L;
     Task task = Task.builder().title("UpdatedTask").status(Status.IN_PROGRESS).build();
     Task updatedTask = Task.builder().id(taskId).title("UpdatedTask").status(Status.IN_PROGRESS)
         .build();
 
-    when(taskService.updateTask(taskId, task)).thenReturn(updatedTask);
+    when(taskService.updateTask(taskId, task, null)).thenReturn(updatedTask);
 
-    ResponseEntity<ApiResponseDto<Task>> response = taskController.updateTask(taskId, task);
+    ResponseEntity<ApiResponseDto<Task>> response =
+        taskController.updateTask(taskId, task, null).call();
 
     assertNotNull(response);
     assertEquals(200, response.getStatusCodeValue());
@@ -119,27 +149,28 @@ class TaskControllerUnitTest {
   }
 
   @Test
-  void testUpdateTask_NotFound() {
+  void testUpdateTask_NotFound() throws Exception {
     Long taskId = 99L;
     Task task = Task.builder().title("NonExistentTask").build();
 
-    when(taskService.updateTask(taskId, task)).thenThrow(
+    when(taskService.updateTask(taskId, task, null)).thenThrow(
         new TaskNotFoundException("Task not found with id: " + taskId));
 
     Exception exception = assertThrows(TaskNotFoundException.class,
-        () -> taskController.updateTask(taskId, task));
+        () -> taskController.updateTask(taskId, task, null).call());
 
     assertEquals("Task not found with id: " + taskId, exception.getMessage());
   }
 
 
   @Test
-  void testDeleteTask_Success() {
+  void testDeleteTask_Success() throws Exception {
     Long taskId = 1L;
 
-    when(taskService.deleteTask(taskId)).thenReturn("Task deleted successfully");
+    when(taskService.deleteTask(taskId, null)).thenReturn("Task deleted successfully");
 
-    ResponseEntity<ApiResponseDto<String>> response = taskController.deleteTask(taskId);
+    ResponseEntity<ApiResponseDto<String>> response =
+        taskController.deleteTask(taskId, null).call();
 
     assertNotNull(response);
     assertEquals(200, response.getStatusCodeValue());
@@ -150,47 +181,96 @@ class TaskControllerUnitTest {
   }
 
   @Test
-  void testDeleteTask_NotFound() {
+  void testDeleteTask_NotFound() throws Exception {
     Long taskId = 9L;
 
-    when(taskService.deleteTask(taskId)).thenThrow(
+    when(taskService.deleteTask(taskId, null)).thenThrow(
         new TaskNotFoundException("Task not found with id: " + taskId));
 
     Exception exception = assertThrows(TaskNotFoundException.class,
-        () -> taskController.deleteTask(taskId));
+        () -> taskController.deleteTask(taskId, null).call());
 
     assertEquals("Task not found with id: " + taskId, exception.getMessage());
   }
 
   @Test
-  void testGetAllTasks_Success() {
+  void testGetAllTasks_NotModified_SkipsService() {
+    MockHttpServletRequest unchanged = new MockHttpServletRequest("GET", "/v1/tasks");
+    unchanged.addHeader(HttpHeaders.IF_NONE_MATCH, changeTracker.eTag());
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    assertNull(taskController.getAllTasks(null, new ServletWebRequest(unchanged, response)));
+    assertEquals(304, response.getStatus());
+    assertEquals(changeTracker.eTag(), response.getHeader(HttpHeaders.ETAG));
+    verifyNoInteractions(taskService);
+  }
+
+  @Test
+  void testGetAllTasks_WriteInTheSecondOfThePreviousPoll_IsNotHiddenBy304() throws Exception {
+    AtomicLong now = new AtomicLong(10_000);
+    Clock clock = mock(Clock.class);
+    when(clock.millis()).thenAnswer(invocation -> now.get());
+    TaskChangeTracker tracker = new TaskChangeTracker(clock);
+    TaskController controller = new TaskController(taskService, null, tracker, searchService,
+        null);
+    when(taskService.getAllTasks(TaskField.ALL)).thenReturn(views(List.of(
+        Task.builder().id(1L).build())));
+    String ifModifiedSince = "Thu, 01 Jan 1970 00:00:11 GMT";
+
+    now.set(11_100);
+    tracker.onTaskChanged(TaskChangedEvent.created(Task.builder().id(1L).build()));
+    now.set(11_300);
+    MockHttpServletResponse poll = new MockHttpServletResponse();
+    controller.getAllTasks(null, new ServletWebRequest(
+        new MockHttpServletRequest("GET", "/v1/tasks"), poll)).call();
+    // Any later change in this second would leave a Last-Modified of 00:00:11 as it is.
+    assertNull(poll.getHeader(HttpHeaders.LAST_MODIFIED));
+
+    now.set(11_600);
+    tracker.onTaskChanged(TaskChangedEvent.created(Task.builder().id(2L).build()));
+    now.set(11_800);
+    MockHttpServletRequest repoll = new MockHttpServletRequest("GET", "/v1/tasks");
+    repoll.addHeader(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSince);
+    assertNotNull(controller.getAllTasks(null,
+        new ServletWebRequest(repoll, new MockHttpServletResponse())));
+
+    now.set(12_100);
+    MockHttpServletResponse unchanged = new MockHttpServletResponse();
+    assertNull(controller.getAllTasks(null,
+        new ServletWebRequest(repoll, unchanged)));
+    assertEquals(304, unchanged.getStatus());
+    assertEquals(ifModifiedSince, unchanged.getHeader(HttpHeaders.LAST_MODIFIED));
+  }
+
+  @Test
+  void testGetAllTasks_Success() throws Exception {
     List<Task> tasks = Arrays.asList(Task.builder().id(1L).build(), Task.builder().id(2L).build());
 
-    when(taskService.getAllTasks()).thenReturn(tasks);
+    when(taskService.getAllTasks(TaskField.ALL)).thenReturn(views(tasks));
 
-    ResponseEntity<ApiResponseDto<List<Task>>> response = taskController.getAllTasks();
+    ResponseEntity<?> response = taskController.getAllTasks(null, request()).call();
 
     assertNotNull(response);
     assertEquals(200, response.getStatusCodeValue());
     assertNotNull(response.getBody());
-    assertTrue(response.getBody().isSuccess());
-    assertEquals("Tasks retrieved successfully", response.getBody().getMessage());
-    assertEquals(2, response.getBody().getData().size());
+    assertTrue(listBody(response).isSuccess());
+    assertEquals("Tasks retrieved successfully", listBody(response).getMessage());
+    assertEquals(2, listBody(response).getData().size());
   }
 
   @Test
-  void testGetAllTasks_NoTasksFound() {
-    when(taskService.getAllTasks()).thenThrow(
-        new NoTasksFoundException("No tasks found in the system"));
+  void testGetAllTasks_NoTasksFound() throws Exception {
+    when(taskService.getAllTasks(TaskField.ALL)).thenReturn(List.of());
 
-    Exception exception = assertThrows(NoTasksFoundException.class,
-        () -> taskController.getAllTasks());
+    ResponseEntity<?> response = taskController.getAllTasks(null, request()).call();
 
-    assertEquals("No tasks found in the system", exception.getMessage());
+    assertEquals(404, response.getStatusCodeValue());
+    assertEquals("No tasks found in the system", errorMessage(response));
   }
 
+
   @Test
-  void testGetAllTasksPaginated_Success() {
+  void testGetAllTasksPaginated_Success() throws Exception {
 
     String sortBy = "dueDate";
     Direction direction = Direction.ASC;
@@ -208,19 +288,19 @@ class TaskControllerUnitTest {
         Task.builder().id(5L).title("Task 5").status(Status.IN_PROGRESS)
             .dueDate(LocalDate.of(2020, 10, 20)).build()
     );
-    Page<Task> taskPage = new PageImpl<>(taskList, pageable, taskList.size());
+    Page<TaskView> taskPage = new PageImpl<>(views(taskList), pageable, taskList.size());
 
-    when(taskService.getAllTasks(pageable)).thenReturn(taskPage);
-    ResponseEntity<ApiResponseDto<Page<Task>>> allTasksPaginated = taskController.getAllTasksPaginated(
+    when(taskService.getAllTasks(pageable, TaskField.ALL)).thenReturn(taskPage);
+    ResponseEntity<ApiResponseDto<CompactPage<TaskView>>> allTasksPaginated = taskController.getAllTasksPaginated(
         0, 5,
-        sortBy, direction);
+        sortBy, direction, null, request()).call();
     assertNotNull(allTasksPaginated);
     assertEquals(200, allTasksPaginated.getStatusCodeValue());
     assertNotNull(allTasksPaginated.getBody());
     assertTrue(allTasksPaginated.getBody().isSuccess());
     assertEquals("Success", allTasksPaginated.getBody().getMessage());
     assertEquals(5, allTasksPaginated.getBody().getData().getContent().size());
-    List<Task> tasks = allTasksPaginated.getBody().getData().getContent();
+    List<TaskView> tasks = allTasksPaginated.getBody().getData().getContent();
     tasks.stream().reduce((prev, next) -> {
       assertTrue(prev.getDueDate().isAfter(next.getDueDate()),
           "Task with due date " + prev.getDueDate() + " is not greater than " + next.getDueDate());
@@ -231,95 +311,115 @@ class TaskControllerUnitTest {
 
 
   @Test
-  void testFilterTasks_ByStatus_Success() {
+  void testFilterTasks_ByStatus_Success() throws Exception {
     Status status = Status.TODO;
     List<Task> tasks = Arrays.asList(Task.builder().id(1L).status(status).build());
 
-    when(taskService.filterTasks(status)).thenReturn(tasks);
+    when(taskService.filterTasks(status, null, FIRST_PAGE, TaskField.ALL)).thenReturn(views(tasks));
 
-    ResponseEntity<ApiResponseDto<List<Task>>> response = taskController.filterTasks(status, null);
+    ResponseEntity<?> response =
+        taskController.filterTasks(status, null, 0, 100, null, request()).call();
 
     assertNotNull(response);
     assertEquals(200, response.getStatusCodeValue());
     assertNotNull(response.getBody());
-    assertTrue(response.getBody().isSuccess());
-    assertEquals("Tasks filtered by status", response.getBody().getMessage());
-    assertEquals(1, response.getBody().getData().size());
+    assertTrue(listBody(response).isSuccess());
+    assertEquals("Tasks filtered by status", listBody(response).getMessage());
+    assertEquals(1, listBody(response).getData().size());
   }
 
   @Test
-  void testFilterTasks_ByStatus_NoTasksFound() {
+  void testFilterTasks_ByStatus_NoTasksFound() throws Exception {
     Status status = Status.DONE;
 
-    when(taskService.filterTasks(status)).thenThrow(
-        new NoTasksFoundException("No tasks found with status: " + status));
+    when(taskService.filterTasks(status, null, FIRST_PAGE, TaskField.ALL)).thenReturn(List.of());
 
-    Exception exception = assertThrows(NoTasksFoundException.class,
-        () -> taskController.filterTasks(status, null));
+    ResponseEntity<?> response =
+        taskController.filterTasks(status, null, 0, 100, null, request()).call();
 
-    assertEquals("No tasks found with status: " + status, exception.getMessage());
+    assertEquals(404, response.getStatusCodeValue());
+    assertEquals("No tasks found with status: " + status, errorMessage(response));
   }
 
+
   @Test
-  void testFilterTasks_ByDueDate_Success() {
+  void testFilterTasks_ByDueDate_Success() throws Exception {
     LocalDate dueDate = LocalDate.now();
     List<Task> tasks = Arrays.asList(Task.builder().id(1L).dueDate(dueDate).build());
 
-    when(taskService.filterTasks(dueDate)).thenReturn(tasks);
+    when(taskService.filterTasks(null, dueDate, FIRST_PAGE, TaskField.ALL)).thenReturn(views(tasks));
 
-    ResponseEntity<ApiResponseDto<List<Task>>> response = taskController.filterTasks(null, dueDate);
+    ResponseEntity<?> response =
+        taskController.filterTasks(null, dueDate, 0, 100, null, request()).call();
 
     assertNotNull(response);
     assertEquals(200, response.getStatusCodeValue());
     assertNotNull(response.getBody());
-    assertTrue(response.getBody().isSuccess());
-    assertEquals("Tasks filtered by due date", response.getBody().getMessage());
-    assertEquals(1, response.getBody().getData().size());
+    assertTrue(listBody(response).isSuccess());
+    assertEquals("Tasks filtered by due date", listBody(response).getMessage());
+    assertEquals(1, listBody(response).getData().size());
   }
 
 
   @Test
-  void testFilterTasks_ByDueDate_NoTasksFound() {
+  void testFilterTasks_ByDueDate_NoTasksFound() throws Exception {
     LocalDate dueDate = LocalDate.now();
 
-    when(taskService.filterTasks(dueDate)).thenThrow(
-        new NoTasksFoundException("No tasks found with due date: " + dueDate));
+    when(taskService.filterTasks(null, dueDate, FIRST_PAGE, TaskField.ALL)).thenReturn(List.of());
 
-    Exception exception = assertThrows(NoTasksFoundException.class,
-        () -> taskController.filterTasks(null, dueDate));
+    ResponseEntity<?> response =
+        taskController.filterTasks(null, dueDate, 0, 100, null, request()).call();
 
-    assertEquals("No tasks found with due date: " + dueDate, exception.getMessage());
+    assertEquals(404, response.getStatusCodeValue());
+    assertEquals("No tasks found with due date: " + dueDate, errorMessage(response));
   }
 
 
+
   @Test
-  void testGetTasksTillDate_Success() {
+  void testGetTasksTillDate_Success() throws Exception {
     LocalDate dueDate = LocalDate.now();
     List<Task> tasks = Arrays.asList(Task.builder().id(1L).dueDate(dueDate).build());
 
-    when(taskService.getTasksTillDate(dueDate)).thenReturn(tasks);
+    when(taskService.getTasksTillDate(dueDate, FIRST_PAGE, TaskField.ALL)).thenReturn(views(tasks));
 
-    ResponseEntity<ApiResponseDto<List<Task>>> response = taskController.getTasksTillDate(dueDate);
+    ResponseEntity<?> response =
+        taskController.getTasksTillDate(dueDate, 0, 100, null, request()).call();
 
     assertNotNull(response);
     assertEquals(200, response.getStatusCodeValue());
     assertNotNull(response.getBody());
-    assertTrue(response.getBody().isSuccess());
+    assertTrue(listBody(response).isSuccess());
     assertEquals("Tasks with due date till " + dueDate + " retrieved successfully",
-        response.getBody().getMessage());
-    assertEquals(1, response.getBody().getData().size());
+        listBody(response).getMessage());
+    assertEquals(1, listBody(response).getData().size());
   }
 
   @Test
-  void testGetTasksTillDate_NoTasksFound() {
+  void testGetTasksTillDate_NoTasksFound() throws Exception {
     LocalDate dueDate = LocalDate.now();
 
-    when(taskService.getTasksTillDate(dueDate)).thenThrow(
-        new NoTasksFoundException("No tasks found with due date till: " + dueDate));
+    when(taskService.getTasksTillDate(dueDate, FIRST_PAGE, TaskField.ALL)).thenReturn(List.of());
+
+    ResponseEntity<?> response =
+        taskController.getTasksTillDate(dueDate, 0, 100, null, request()).call();
 
-    Exception exception = assertThrows(NoTasksFoundException.class,
-        () -> taskController.getTasksTillDate(dueDate));
+    assertEquals(404, response.getStatusCodeValue());
+    assertEquals(" No tasks found with due date till: " + dueDate, errorMessage(response));
+  }
+
+
+  @SuppressWarnings("unchecked")
+  private static ApiResponseDto<List<TaskView>> listBody(ResponseEntity<?> response) {
+    return (ApiResponseDto<List<TaskView>>) response.getBody();
+  }
+
+  private static String errorMessage(ResponseEntity<?> response) {
+    return ((ErrorResponse) response.getBody()).getMessage();
+  }
 
-    assertEquals("No tasks found with due date till: " + dueDate, exception.getMessage());
+  private static List<TaskView> views(List<Task> tasks) {
+    return tasks.stream().map(task -> TaskView.of(task, TaskField.ALL))
+        .collect(Collectors.toList());
   }
-}
\ No newline at end of file
+}
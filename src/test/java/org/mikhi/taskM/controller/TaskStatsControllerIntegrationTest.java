@@ -0,0 +1,119 @@
+package org.mikhi.taskM.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.repository.TaskRepository;
+import org.mikhi.taskM.stats.TaskStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+/**
+ * Full integration test for {@link TaskStatsController}. Other tests share the database, so
+ * counts are compared with those taken at the start of each test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskStatsControllerIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private TaskRepository taskRepository;
+
+  @Autowired
+  private TaskStatsService statsService;
+
+  @BeforeEach
+  void reconcile() {
+    // Tasks other tests stored directly would otherwise count as drift here.
+    statsService.reconcile();
+  }
+
+  private JsonNode perform(RequestBuilder request) throws Exception {
+    MvcResult result = mockMvc.perform(request)
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    String body = mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().is2xxSuccessful())
+        .andReturn().getResponse().getContentAsString();
+    return objectMapper.readTree(body).path("data");
+  }
+
+  private long createTask(Status status, LocalDate dueDate) throws Exception {
+    return perform(post("/v1/tasks")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(
+            Task.builder().title("Counted").status(status).dueDate(dueDate).build())))
+        .path("id").asLong();
+  }
+
+  private JsonNode stats() throws Exception {
+    String body = mockMvc.perform(get("/v1/tasks/stats"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    return objectMapper.readTree(body).path("data");
+  }
+
+  @Test
+  void testStats_FollowWrites() throws Exception {
+    JsonNode before = stats();
+    LocalDate yesterday = LocalDate.now().minusDays(1);
+
+    long overdue = createTask(Status.TODO, yesterday);
+    createTask(Status.IN_PROGRESS, null);
+    long deleted = createTask(Status.TODO, null);
+    perform(put("/v1/tasks/" + overdue)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(
+            Task.builder().title("Counted").status(Status.DONE).dueDate(yesterday).build())));
+    perform(delete("/v1/tasks/" + deleted));
+
+    JsonNode after = stats();
+    assertEquals(2, after.path("total").asLong() - before.path("total").asLong());
+    assertEquals(1, after.path("byStatus").path("DONE").asLong()
+        - before.path("byStatus").path("DONE").asLong());
+    assertEquals(1, after.path("byStatus").path("IN_PROGRESS").asLong()
+        - before.path("byStatus").path("IN_PROGRESS").asLong());
+    assertEquals(0, after.path("byStatus").path("TODO").asLong()
+        - before.path("byStatus").path("TODO").asLong());
+    assertEquals(before.path("overdue").asLong(), after.path("overdue").asLong());
+    assertEquals(1, after.path("noDueDate").asLong() - before.path("noDueDate").asLong());
+    assertFalse(statsService.reconcile());
+  }
+
+  @Test
+  void testReconcile_CatchesWritesThatBypassTheService() throws Exception {
+    long total = stats().path("total").asLong();
+    taskRepository.save(Task.builder().title("Stored directly").status(Status.TODO).build());
+
+    assertEquals(total, stats().path("total").asLong());
+    assertTrue(statsService.reconcile());
+    assertEquals(total + 1, stats().path("total").asLong());
+    assertFalse(statsService.reconcile());
+  }
+}
@@ -0,0 +1,146 @@
+package org.mikhi.taskM.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.config.TaskDataSourceProperties.LoadBalancing;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReplicaRoutingDataSourceTest {
+
+  private static final Duration WINDOW = Duration.ofSeconds(5);
+
+  private final AtomicLong nanos = new AtomicLong();
+  private final HikariDataSource replica0 = mock(HikariDataSource.class);
+  private final HikariDataSource replica1 = mock(HikariDataSource.class);
+
+  @AfterEach
+  void tearDown() {
+    TaskClientContext.clear();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+  }
+
+  private ReplicaRoutingDataSource routing(LoadBalancing loadBalancing) {
+    ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(mock(DataSource.class),
+        List.of(replica0, replica1), loadBalancing, WINDOW, nanos::get);
+    routing.afterPropertiesSet();
+    return routing;
+  }
+
+  private static Object route(ReplicaRoutingDataSource routing, boolean readOnly) {
+    TransactionSynchronizationManager.initSynchronization();
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    try {
+      return routing.determineCurrentLookupKey();
+    } finally {
+      complete(TransactionSynchronization.STATUS_COMMITTED);
+    }
+  }
+
+  private static void complete(int status) {
+    List<TransactionSynchronization> synchronizations =
+        TransactionSynchronizationManager.getSynchronizations();
+    TransactionSynchronizationManager.clearSynchronization();
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+  }
+
+  private static HikariPoolMXBean activeConnections(int active) {
+    HikariPoolMXBean pool = mock(HikariPoolMXBean.class);
+    when(pool.getActiveConnections()).thenReturn(active);
+    return pool;
+  }
+
+  @Test
+  void testWrites_GoToPrimary() {
+    ReplicaRoutingDataSource routing = routing(LoadBalancing.ROUND_ROBIN);
+
+    assertEquals(ReplicaRoutingDataSource.PRIMARY, route(routing, false));
+    assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+  }
+
+  @Test
+  void testReads_RoundRobinOverReplicas() {
+    ReplicaRoutingDataSource routing = routing(LoadBalancing.ROUND_ROBIN);
+
+    assertEquals(List.of("replica-0", "replica-1", "replica-0"),
+        List.of(route(routing, true), route(routing, true), route(routing, true)));
+  }
+
+  @Test
+  void testReads_LeastLoadedReplica() {
+    HikariPoolMXBean busy = activeConnections(7);
+    HikariPoolMXBean idle = activeConnections(2);
+    when(replica0.getHikariPoolMXBean()).thenReturn(busy);
+    when(replica1.getHikariPoolMXBean()).thenReturn(idle);
+    ReplicaRoutingDataSource routing = routing(LoadBalancing.LEAST_LOADED);
+
+    assertEquals("replica-1", route(routing, true));
+    assertEquals("replica-1", route(routing, true));
+  }
+
+  @Test
+  void testReadYourWrites_WriterStaysOnPrimaryForTheWindow() {
+    ReplicaRoutingDataSource routing = routing(LoadBalancing.ROUND_ROBIN);
+    TaskClientContext.set("writer");
+    route(routing, false);
+
+    assertEquals(ReplicaRoutingDataSource.PRIMARY, route(routing, true));
+    TaskClientContext.set("reader");
+    assertEquals("replica-0", route(routing, true));
+
+    TaskClientContext.set("writer");
+    nanos.addAndGet(WINDOW.toNanos());
+    assertEquals("replica-1", route(routing, true));
+  }
+
+  @Test
+  void testReadYourWrites_RolledBackWriteDoesNotStick() {
+    ReplicaRoutingDataSource routing = routing(LoadBalancing.ROUND_ROBIN);
+    TaskClientContext.set("writer");
+    TransactionSynchronizationManager.initSynchronization();
+    routing.determineCurrentLookupKey();
+    complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+    assertEquals("replica-0", route(routing, true));
+  }
+
+  @Test
+  void testReadFromPrimary_RoutesReadsToPrimaryOnlyInside() {
+    ReplicaRoutingDataSource routing = routing(LoadBalancing.ROUND_ROBIN);
+
+    assertEquals(ReplicaRoutingDataSource.PRIMARY,
+        ReplicaRoutingDataSource.readFromPrimary(() -> route(routing, true)));
+    assertEquals("replica-0", route(routing, true));
+    assertTrue(ReplicaRoutingDataSource.readFromPrimary(() -> routing.readsFromPrimary(null)));
+    assertFalse(routing.readsFromPrimary(null));
+  }
+
+  @Test
+  void testPropagate_CarriesClientToAnotherThread() throws InterruptedException {
+    TaskClientContext.set("writer");
+    String[] seen = new String[1];
+    Thread thread = new Thread(
+        TaskClientContext.propagate(() -> seen[0] = TaskClientContext.current()));
+
+    thread.start();
+    thread.join();
+
+    assertEquals("writer", seen[0]);
+  }
+}
@@ -0,0 +1,176 @@
+package org.mikhi.taskM.datasource;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Read/write routing against three H2 databases: a primary and two replicas that nothing
+ * replicates to, so a read shows which database served it.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+    "task.datasource.replicas[0].url=" + ReplicaRoutingIntegrationTest.REPLICA_0,
+    "task.datasource.replicas[1].url=" + ReplicaRoutingIntegrationTest.REPLICA_1,
+    "task.datasource.read-your-writes-window=1h"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingIntegrationTest {
+
+  static final String REPLICA_0 = "jdbc:h2:mem:routing-replica-0;DB_CLOSE_DELAY=-1;"
+      + "INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'";
+  static final String REPLICA_1 = "jdbc:h2:mem:routing-replica-1;DB_CLOSE_DELAY=-1;"
+      + "INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private TaskRepository taskRepository;
+
+  @BeforeEach
+  void setUp() {
+    taskRepository.deleteAll();
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    execute(REPLICA_0, "DELETE FROM task");
+    execute(REPLICA_1, "DELETE FROM task");
+  }
+
+  @Test
+  void writerReadsItsOwnWriteFromThePrimary() throws Exception {
+    perform(post("/v1/tasks")
+            .header("X-Client-Id", "writer")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"title\":\"Written\",\"status\":\"TODO\"}"))
+        .andExpect(status().isCreated());
+
+    assertTrue(export("writer").contains("Written"));
+    // Another client reads from a replica, which never received the write.
+    assertEquals("", export("reader"));
+  }
+
+  @Test
+  void listsCarryingAnETag_areReadFromThePrimary() throws Exception {
+    // A replica that lags behind still holds a task the primary no longer has.
+    for (String replica : List.of(REPLICA_0, REPLICA_1)) {
+      execute(replica,
+          "INSERT INTO task (id, title, status, version) VALUES (1, 'Deleted', 'TODO', 0)");
+    }
+    perform(post("/v1/tasks")
+            .header("X-Client-Id", "writer")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"title\":\"Written\",\"status\":\"TODO\"}"))
+        .andExpect(status().isCreated());
+
+    String eTag = perform(get("/v1/tasks/filter").param("status", "TODO")
+            .header("X-Client-Id", "reader"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.length()", is(1)))
+        .andExpect(jsonPath("$.data[0].title", is("Written")))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    perform(get("/v1/tasks/filter").param("status", "TODO")
+            .header("X-Client-Id", "reader")
+            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  void readerAfterAWrite_doesNotCacheTheReplicasStaleRow() throws Exception {
+    String created = perform(post("/v1/tasks")
+            .header("X-Client-Id", "writer")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"title\":\"Original\",\"status\":\"TODO\"}"))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+    long id = JsonPath.parse(created).read("$.data.id", Long.class);
+    // Both replicas lag behind: they hold the task as it was before the update.
+    for (String replica : List.of(REPLICA_0, REPLICA_1)) {
+      execute(replica, "INSERT INTO task (id, title, status, version) VALUES (" + id
+          + ", 'Original', 'TODO', 0)");
+    }
+    perform(put("/v1/tasks/" + id)
+            .header("X-Client-Id", "writer")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"title\":\"Updated\",\"status\":\"TODO\"}"))
+        .andExpect(status().isOk());
+
+    perform(get("/v1/tasks/" + id).header("X-Client-Id", "reader"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.title", is("Updated")));
+    perform(get("/v1/tasks/" + id).header("X-Client-Id", "writer"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.title", is("Updated")));
+  }
+
+  @Test
+  void readsAlternateBetweenReplicas() throws Exception {
+    execute(REPLICA_0,
+        "INSERT INTO task (id, title, status, version) VALUES (1, 'On replica 0', 'TODO', 0)");
+
+    List<String> exports = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      exports.add(export("reader"));
+    }
+
+    assertEquals(2, exports.stream().filter(export -> export.contains("On replica 0")).count(),
+        exports::toString);
+    assertEquals(2, exports.stream().filter(String::isEmpty).count(), exports::toString);
+  }
+
+  private static void execute(String url, String sql) throws SQLException {
+    try (Connection connection = DriverManager.getConnection(url, "sa", "");
+        Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+
+  /**
+   * The NDJSON export as {@code client} sees it. The export is not validated against the change
+   * counter, so it reads from a replica unless the client has to read its own writes.
+   */
+  private String export(String client) throws Exception {
+    return perform(get("/v1/tasks/export").header("X-Client-Id", client))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+  }
+
+  private ResultActions perform(RequestBuilder request) throws Exception {
+    ResultActions actions = mockMvc.perform(request);
+    MvcResult mvcResult = actions.andReturn();
+    if (!mvcResult.getRequest().isAsyncStarted()) {
+      return actions;
+    }
+    mvcResult.getAsyncResult();
+    return mockMvc.perform(asyncDispatch(mvcResult));
+  }
+}
@@ -0,0 +1,138 @@
+package org.mikhi.taskM.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.config.TaskChangeFeedProperties;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskChange;
+import org.mikhi.taskM.model.TaskChanges;
+
+class TaskChangeFeedTest {
+
+  private TaskChangeFeed feed;
+
+  @BeforeEach
+  void setUp() {
+    TaskChangeFeedProperties properties = new TaskChangeFeedProperties();
+    properties.setBufferSize(4);
+    properties.setPollTimeout(Duration.ofMillis(200));
+    feed = new TaskChangeFeed(properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    feed.close();
+  }
+
+  private void created(long id, Status status) {
+    feed.onTaskChanged(TaskChangedEvent.created(
+        Task.builder().id(id).title("Task " + id).status(status).version(0L).build()));
+  }
+
+  private static TaskChanges await(CompletableFuture<TaskChanges> poll) throws Exception {
+    return poll.get(5, TimeUnit.SECONDS);
+  }
+
+  private static List<Long> ids(TaskChanges changes) {
+    return changes.getChanges().stream().map(TaskChange::getTaskId).collect(Collectors.toList());
+  }
+
+  @Test
+  void testPoll_WaitsForTheNextChange() throws Exception {
+    created(1L, Status.TODO);
+    CompletableFuture<TaskChanges> poll = feed.poll(null, null);
+    Thread.sleep(50);
+    assertFalse(poll.isDone());
+
+    created(2L, Status.TODO);
+
+    TaskChanges changes = await(poll);
+    assertEquals(List.of(2L), ids(changes));
+    assertEquals(changes.getChanges().get(0).getSequence(), changes.getLastSequence());
+    assertFalse(changes.isReset());
+  }
+
+  @Test
+  void testPoll_ResumesAfterSequence() throws Exception {
+    created(1L, Status.TODO);
+    long since = await(feed.poll(null, null)).getLastSequence();
+    created(2L, Status.TODO);
+    created(3L, Status.DONE);
+
+    TaskChanges changes = await(feed.poll(since, null));
+    assertEquals(List.of(2L, 3L), ids(changes));
+    assertEquals(List.of(3L), ids(await(feed.poll(since + 1, null))));
+  }
+
+  @Test
+  void testPoll_FiltersByStatusAndTimesOutPastSkippedChanges() throws Exception {
+    CompletableFuture<TaskChanges> poll = feed.poll(null, Set.of(Status.TODO));
+    created(1L, Status.DONE);
+
+    TaskChanges changes = await(poll);
+    assertTrue(changes.getChanges().isEmpty());
+    created(2L, Status.TODO);
+
+    assertEquals(List.of(2L),
+        ids(await(feed.poll(changes.getLastSequence(), Set.of(Status.TODO)))));
+  }
+
+  @Test
+  void testPoll_DeletionOfUnknownStatusReachesEveryFilter() throws Exception {
+    CompletableFuture<TaskChanges> poll = feed.poll(null, Set.of(Status.IN_PROGRESS));
+
+    feed.onTaskChanged(TaskChangedEvent.deleted(7L, null));
+
+    TaskChange change = await(poll).getChanges().get(0);
+    assertEquals(TaskChangedEvent.Type.DELETED, change.getType());
+    assertEquals(7L, change.getTaskId());
+    assertNull(change.getTask());
+  }
+
+  @Test
+  void testPoll_TooFarBehind_Resets() throws Exception {
+    CompletableFuture<TaskChanges> first = feed.poll(null, null);
+    created(1L, Status.TODO);
+    long since = await(first).getLastSequence() - 1;
+    for (long id = 2; id <= 5; id++) {
+      created(id, Status.TODO);
+    }
+
+    TaskChanges changes = await(feed.poll(since, null));
+    assertTrue(changes.isReset());
+    assertEquals(since + 5, changes.getLastSequence());
+    assertEquals(List.of(5L), ids(await(feed.poll(since + 4, null))));
+  }
+
+  @Test
+  void testPoll_SequenceFromAnotherRun_Resets() throws Exception {
+    assertTrue(await(feed.poll(42L, null)).isReset());
+  }
+
+  @Test
+  void testSubscribers_Gauge() throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    feed.bindTo(registry);
+    CompletableFuture<TaskChanges> poll = feed.poll(null, null);
+    assertEquals(1.0, registry.get("task.changes.subscribers").gauge().value());
+
+    created(1L, Status.TODO);
+    await(poll);
+
+    assertEquals(0.0, registry.get("task.changes.subscribers").gauge().value());
+  }
+}
@@ -0,0 +1,87 @@
+package org.mikhi.taskM.metrics;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.exception.TaskNotFoundException;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.service.TaskService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Verifies the {@link TaskServiceMetrics} meters and their exposure on the Prometheus endpoint.
+ */
+@SpringBootTest(properties = {
+    "management.endpoints.web.exposure.include=prometheus",
+    "management.metrics.distribution.percentiles-histogram.task.service=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class TaskServiceMetricsIntegrationTest {
+
+  @Autowired
+  private TaskService taskService;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Test
+  void recordsTimingAndStatementsPerOperation() {
+    Task task = taskService.createTask(Task.builder().title("Metrics").build());
+    double statementsBefore = statements("deleteTask").totalAmount();
+
+    taskService.deleteTask(task.getId());
+
+    Timer deleteTimer = meterRegistry.get(TaskServiceMetrics.TIMER)
+        .tag("operation", "deleteTask").tag("exception", "none").timer();
+    assertTrue(deleteTimer.count() >= 1);
+    // A single DELETE statement
+    assertEquals(1, statements("deleteTask").totalAmount() - statementsBefore);
+  }
+
+  @Test
+  void tagsFailedCallsWithTheException() {
+    assertThrows(TaskNotFoundException.class, () -> taskService.getTaskById(-1L));
+
+    Timer failures = meterRegistry.get(TaskServiceMetrics.TIMER)
+        .tag("operation", "getTaskById").tag("exception", "TaskNotFoundException").timer();
+    assertTrue(failures.count() >= 1);
+  }
+
+  @Test
+  void exposesPrometheusEndpoint() throws Exception {
+    taskService.createTask(Task.builder().title("Scraped").build());
+
+    mockMvc.perform(get("/actuator/prometheus"))
+        .andExpect(status().isOk())
+        .andExpect(content().string(containsString(
+            "task_service_seconds_count{exception=\"none\",operation=\"createTask\",}")))
+        .andExpect(content().string(containsString("task_service_seconds_bucket")))
+        .andExpect(content().string(containsString("task_service_statements_count")))
+        .andExpect(content().string(containsString("spring_data_repository_invocations_seconds")))
+        .andExpect(content().string(containsString("hikaricp_connections_active")));
+  }
+
+  // Registering is idempotent: returns the existing summary, or an empty one before first use.
+  private DistributionSummary statements(String operation) {
+    return DistributionSummary.builder(TaskServiceMetrics.STATEMENTS)
+        .tag("operation", operation)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,105 @@
+package org.mikhi.taskM.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  // A 304 or a cache hit next to a query.
+  private static final long FAST = TimeUnit.MICROSECONDS.toNanos(20);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(5);
+
+  // Starts at 8, between 2 and 20; a window of 4 slower than twice the average halves the limit.
+  private final AdaptiveConcurrencyLimiter limiter =
+      new AdaptiveConcurrencyLimiter(8, 2, 20, 2.0, 0.5, 4);
+
+  /**
+   * Completes a window of requests with these latencies, each while at least half the limit is
+   * in use.
+   */
+  private void windowUnderLoad(long... latencies) {
+    for (long latency : latencies) {
+      while (limiter.getInFlight() * 2 < limiter.getLimit()) {
+        assertTrue(limiter.tryAcquire());
+      }
+      limiter.release(latency);
+    }
+  }
+
+  @Test
+  void testTryAcquire_UpToTheLimit() {
+    for (int i = 0; i < 8; i++) {
+      assertTrue(limiter.tryAcquire());
+    }
+
+    assertFalse(limiter.tryAcquire());
+    assertEquals(8, limiter.getInFlight());
+  }
+
+  @Test
+  void testRelease_WindowWithinToleranceRaisesTheLimit() {
+    windowUnderLoad(SLOW, SLOW, SLOW, SLOW);
+    // The first window only sets the average.
+    assertEquals(8, limiter.getLimit());
+
+    windowUnderLoad(SLOW, SLOW, SLOW, SLOW);
+    // By the square root of 8.
+    assertEquals(10, limiter.getLimit());
+
+    for (int i = 0; i < 10; i++) {
+      windowUnderLoad(SLOW, SLOW, SLOW, SLOW);
+    }
+    // Capped at the maximum.
+    assertEquals(20, limiter.getLimit());
+  }
+
+  @Test
+  void testRelease_SlowWindowLowersTheLimitOnce() {
+    windowUnderLoad(SLOW, SLOW, SLOW, SLOW);
+
+    windowUnderLoad(3 * SLOW, 3 * SLOW, 3 * SLOW, 3 * SLOW);
+
+    // Halved once for the window, not once per slow request.
+    assertEquals(4, limiter.getLimit());
+
+    for (int i = 0; i < 3; i++) {
+      windowUnderLoad(9 * SLOW, 9 * SLOW, 9 * SLOW, 9 * SLOW);
+    }
+    // Floored at the minimum.
+    assertEquals(2, limiter.getLimit());
+  }
+
+  @Test
+  void testRelease_MixOfFastAndSlowRequestsIsNotOverload() {
+    int previous = limiter.getLimit();
+    for (int i = 0; i < 10; i++) {
+      // Far slower than the fastest request, but no slower than the mix always is.
+      windowUnderLoad(FAST, SLOW, FAST, FAST);
+      windowUnderLoad(SLOW, FAST, SLOW, FAST);
+
+      assertTrue(limiter.getLimit() >= previous, "limit went down to " + limiter.getLimit());
+      previous = limiter.getLimit();
+    }
+    assertEquals(20, limiter.getLimit());
+
+    // Every request three times as slow as before is.
+    windowUnderLoad(3 * FAST, 3 * SLOW, 3 * FAST, 3 * SLOW);
+    assertEquals(10, limiter.getLimit());
+  }
+
+  @Test
+  void testRelease_LimitHoldsWhileMostlyUnused() {
+    // One request at a time: a window at the usual latency, then one ten times as slow.
+    for (long latency : new long[] {SLOW, SLOW, SLOW, SLOW, 10 * SLOW, 10 * SLOW, 10 * SLOW,
+        10 * SLOW}) {
+      assertTrue(limiter.tryAcquire());
+      limiter.release(latency);
+    }
+
+    assertEquals(8, limiter.getLimit());
+  }
+}
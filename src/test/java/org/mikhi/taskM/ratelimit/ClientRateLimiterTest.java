@@ -0,0 +1,55 @@
+package org.mikhi.taskM.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class ClientRateLimiterTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+  // 10 per second (one every 100ms), 3 at once.
+  private final ClientRateLimiter limiter =
+      new ClientRateLimiter(10, 3, 2, Duration.ofMinutes(1), now::get);
+
+  @Test
+  void testAcquire_BurstThenRate() {
+    assertEquals(0, limiter.acquire("a"));
+    assertEquals(0, limiter.acquire("a"));
+    assertEquals(0, limiter.acquire("a"));
+    assertEquals(100 * MILLIS, limiter.acquire("a"));
+
+    now.addAndGet(40 * MILLIS);
+    assertEquals(60 * MILLIS, limiter.acquire("a"));
+
+    now.addAndGet(60 * MILLIS);
+    assertEquals(0, limiter.acquire("a"));
+    assertEquals(100 * MILLIS, limiter.acquire("a"));
+  }
+
+  @Test
+  void testAcquire_BucketPerClient() {
+    for (int i = 0; i < 3; i++) {
+      limiter.acquire("a");
+    }
+
+    assertEquals(0, limiter.acquire("b"));
+    assertEquals(100 * MILLIS, limiter.acquire("a"));
+  }
+
+  @Test
+  void testAcquire_RefillsUpToTheBurstOnly() {
+    now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+    limiter.acquire("a");
+    now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(0, limiter.acquire("a"));
+    }
+    assertEquals(100 * MILLIS, limiter.acquire("a"));
+  }
+}
@@ -0,0 +1,77 @@
+package org.mikhi.taskM.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * {@link TaskRateLimitFilter} as registered by the application: in front of {@code /v1/tasks}
+ * only.
+ */
+@SpringBootTest(properties = {"task.rate-limit.rate=0.1", "task.rate-limit.burst=2"})
+@AutoConfigureMockMvc
+class TaskRateLimitFilterIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Test
+  void testTaskApi_RateLimitedPerClient() throws Exception {
+    double rejected = rateLimited();
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(get("/v1/tasks/stats").header("X-Client-Id", "limited"))
+          .andExpect(status().isOk());
+    }
+
+    mockMvc.perform(get("/v1/tasks/stats").header("X-Client-Id", "limited"))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().exists("Retry-After"));
+    mockMvc.perform(get("/v1/tasks/stats").header("X-Client-Id", "other"))
+        .andExpect(status().isOk());
+    // Outside /v1/tasks.
+    mockMvc.perform(get("/actuator/health").header("X-Client-Id", "limited"))
+        .andExpect(status().isOk());
+
+    assertEquals(rejected + 1, rateLimited());
+  }
+
+  @Test
+  void testAsyncRequest_CountedOnceAndReleasedWhenDone() throws Exception {
+    MvcResult result = mockMvc.perform(get("/v1/tasks/paginated").header("X-Client-Id", "async"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    assertEquals(1, inFlight());
+
+    mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+    assertEquals(0, inFlight());
+    // The dispatch back did not take a second token: one is left of the burst of two.
+    mockMvc.perform(get("/v1/tasks/stats").header("X-Client-Id", "async"))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/v1/tasks/stats").header("X-Client-Id", "async"))
+        .andExpect(status().isTooManyRequests());
+  }
+
+  private double rateLimited() {
+    return meterRegistry.get("task.ratelimit.rejected").tag("reason", "rate")
+        .functionCounter().count();
+  }
+
+  private double inFlight() {
+    return meterRegistry.get("task.ratelimit.concurrency.in.flight").gauge().value();
+  }
+}
@@ -0,0 +1,82 @@
+package org.mikhi.taskM.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class TaskRateLimitFilterTest {
+
+  private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter =
+      new AdaptiveConcurrencyLimiter(1, 1, 1, 2.0, 0.9, 100);
+  // 1 per second, 2 at once.
+  private final TaskRateLimitFilter filter = new TaskRateLimitFilter("X-Client-Id",
+      new ClientRateLimiter(1, 2, 100, Duration.ofMinutes(1), now::get), concurrencyLimiter,
+      List.of("/v1/tasks/changes"));
+
+  private static MockHttpServletRequest request(String uri, String client) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+    request.setAsyncSupported(true);
+    if (client != null) {
+      request.addHeader("X-Client-Id", client);
+    }
+    return request;
+  }
+
+  private MockHttpServletResponse perform(MockHttpServletRequest request, FilterChain chain)
+      throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, chain);
+    return response;
+  }
+
+  private MockHttpServletResponse perform(String client) throws Exception {
+    return perform(request("/v1/tasks", client), new MockFilterChain());
+  }
+
+  @Test
+  void testRateLimit_TooManyRequestsWithRetryAfter() throws Exception {
+    assertEquals(200, perform("a").getStatus());
+    assertEquals(200, perform("a").getStatus());
+
+    MockHttpServletResponse rejected = perform("a");
+
+    assertEquals(429, rejected.getStatus());
+    assertEquals("1", rejected.getHeader("Retry-After"));
+    assertEquals("application/json", rejected.getContentType());
+    assertEquals(
+        "{\"status\":429,\"message\":\"Too many requests from this client, retry later\"}",
+        rejected.getContentAsString());
+    // Clients are counted apart, by header or else by address.
+    assertEquals(200, perform("b").getStatus());
+    assertEquals(200, perform(null).getStatus());
+  }
+
+  @Test
+  void testConcurrencyLimit_HeldUntilAsyncProcessingCompletes() throws Exception {
+    MockHttpServletRequest async = request("/v1/tasks", "a");
+    perform(async, (request, response) -> request.startAsync());
+
+    MockHttpServletResponse rejected = perform("b");
+    assertEquals(503, rejected.getStatus());
+    assertEquals("1", rejected.getHeader("Retry-After"));
+    // Not counted: it would hold its place for as long as the stream is open.
+    assertEquals(200,
+        perform(request("/v1/tasks/changes", "c"), new MockFilterChain()).getStatus());
+
+    ((MockAsyncContext) async.getAsyncContext()).complete();
+
+    assertEquals(0, concurrencyLimiter.getInFlight());
+    assertEquals(200, perform("b").getStatus());
+    assertEquals(0, concurrencyLimiter.getInFlight());
+  }
+}
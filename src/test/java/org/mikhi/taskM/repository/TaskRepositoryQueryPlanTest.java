@@ -0,0 +1,141 @@
+package org.mikhi.taskM.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskField;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Query plan checks for the filter queries built from {@link TaskSpecifications}.
+ * <p>
+ * The SQL Hibernate generates for each query is captured with a
+ * {@link StatementInspector}, then run through H2's {@code EXPLAIN} with the same parameters. The
+ * test fails if the plan falls back to a table scan instead of one of the task indexes.
+ */
+@SpringBootTest(properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "org.mikhi.taskM.repository.TaskRepositoryQueryPlanTest$RecordingStatementInspector")
+class TaskRepositoryQueryPlanTest {
+
+  private static final int PAGE_SIZE = 20;
+  private static final Pageable PAGE = PageRequest.of(0, PAGE_SIZE, Sort.by("dueDate", "id"));
+
+  @Autowired
+  private TaskRepository taskRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    taskRepository.deleteAll();
+    List<Task> tasks = new ArrayList<>();
+    LocalDate start = LocalDate.of(2024, 1, 1);
+    for (int i = 0; i < 300; i++) {
+      tasks.add(Task.builder()
+          .title("Task " + i)
+          .status(Status.values()[i % Status.values().length])
+          .dueDate(start.plusDays(i % 60))
+          .build());
+    }
+    taskRepository.saveAll(tasks);
+    jdbcTemplate.execute("ANALYZE");
+    RecordingStatementInspector.STATEMENTS.clear();
+  }
+
+  @Test
+  void findBounded_byStatus_usesIndex() {
+    taskRepository.findBounded(TaskSpecifications.hasStatus(Status.TODO), PAGE);
+    assertIndexed(lastSelect(), "IDX_TASK_STATUS_DUE_DATE", Status.TODO.name(), PAGE_SIZE);
+  }
+
+  @Test
+  void findBounded_byDueDate_usesIndex() {
+    LocalDate dueDate = LocalDate.of(2024, 1, 10);
+    taskRepository.findBounded(TaskSpecifications.hasDueDate(dueDate), PAGE);
+    assertIndexed(lastSelect(), "IDX_TASK_DUE_DATE", dueDate, PAGE_SIZE);
+  }
+
+  @Test
+  void findBounded_byStatusAndDueDate_usesIndex() {
+    LocalDate dueDate = LocalDate.of(2024, 1, 10);
+    taskRepository.findBounded(Specification.where(TaskSpecifications.hasStatus(Status.DONE))
+        .and(TaskSpecifications.hasDueDate(dueDate)), PAGE);
+    // Either index narrows to one due date; H2 prefers the one that also serves the ORDER BY.
+    assertIndexed(lastSelect(), "IDX_TASK_", Status.DONE.name(), dueDate, PAGE_SIZE);
+  }
+
+  @Test
+  void findBounded_dueOnOrBefore_usesIndex() {
+    LocalDate dueDate = LocalDate.of(2024, 1, 3);
+    taskRepository.findBounded(TaskSpecifications.dueOnOrBefore(dueDate), PAGE);
+    assertIndexed(lastSelect(), "IDX_TASK_DUE_DATE", dueDate, PAGE_SIZE);
+  }
+
+  @Test
+  void findBounded_isLimitedWithoutCountQuery() {
+    List<Task> tasks = taskRepository.findBounded(null, PAGE);
+    assertEquals(PAGE_SIZE, tasks.size());
+    assertTrue(RecordingStatementInspector.STATEMENTS.stream()
+        .noneMatch(sql -> sql.toLowerCase().contains("count(")));
+  }
+
+  @Test
+  void findViews_selectsOnlyRequestedColumns() {
+    taskRepository.findViews(TaskSpecifications.hasStatus(Status.TODO), PAGE,
+        EnumSet.of(TaskField.ID, TaskField.TITLE));
+    String sql = lastSelect().toLowerCase();
+    assertFalse(sql.contains("description"), "Unrequested column selected: " + sql);
+    assertIndexed(lastSelect(), "IDX_TASK_STATUS_DUE_DATE", Status.TODO.name(), PAGE_SIZE);
+  }
+
+  private String lastSelect() {
+    List<String> selects = new ArrayList<>();
+    RecordingStatementInspector.STATEMENTS.stream()
+        .filter(sql -> sql.trim().toLowerCase().startsWith("select"))
+        .forEach(selects::add);
+    assertFalse(selects.isEmpty(), "No SELECT statement was captured");
+    return selects.get(selects.size() - 1);
+  }
+
+  private void assertIndexed(String sql, String expectedIndex, Object... params) {
+    assertEquals(params.length, sql.chars().filter(c -> c == '?').count(),
+        "Unexpected number of bind parameters in: " + sql);
+    String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, params);
+    assertFalse(plan.contains("tableScan"), "Query falls back to a table scan:\n" + plan);
+    assertTrue(plan.toUpperCase().contains(expectedIndex),
+        "Query does not use " + expectedIndex + ":\n" + plan);
+  }
+
+  /**
+   * Records every SQL statement Hibernate prepares, unchanged.
+   */
+  public static class RecordingStatementInspector implements StatementInspector {
+
+    static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+      STATEMENTS.add(sql);
+      return sql;
+    }
+  }
+}
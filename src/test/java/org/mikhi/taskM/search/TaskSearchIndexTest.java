@@ -0,0 +1,111 @@
+package org.mikhi.taskM.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.model.Task;
+
+class TaskSearchIndexTest {
+
+  private final TaskSearchIndex index = new TaskSearchIndex();
+
+  private void put(long id, String title, String description) {
+    index.put(Task.builder().id(id).title(title).description(description).build());
+  }
+
+  private List<Long> search(String query) {
+    return ids(index.search(query, 0, 10));
+  }
+
+  private static List<Long> ids(TaskSearchIndex.Result result) {
+    return result.getHits().stream().map(TaskSearchIndex.Hit::getId).collect(Collectors.toList());
+  }
+
+  @Test
+  void testTokenize_LowerCaseRunsOfLettersAndDigits() {
+    assertEquals(List.of("fix", "login", "bug", "v2", "über", "café"),
+        TaskSearchIndex.tokenize("Fix LOGIN-bug (v2): über_café"));
+  }
+
+  @Test
+  void testSearch_EveryTermMustMatch() {
+    put(1, "Fix login bug", "Users cannot sign in");
+    put(2, "Fix signup bug", null);
+    put(3, "Write docs", "Explain the login flow");
+
+    assertEquals(List.of(1L), search("login bug"));
+    assertEquals(List.of(1L, 2L), sorted(search("FIX bug")));
+    assertEquals(List.of(), search("login release"));
+    assertEquals(List.of(), search("  --  "));
+  }
+
+  @Test
+  void testSearch_LastTermMatchesAsPrefix() {
+    put(1, "Deploy release", null);
+    put(2, "Release notes", "Deployment checklist");
+    put(3, "Deploy", "Redeploy later");
+
+    assertEquals(List.of(1L, 2L, 3L), sorted(search("depl")));
+    assertEquals(List.of(2L), search("deployment rel"));
+    assertEquals(List.of(), search("depl release"));
+  }
+
+  @Test
+  void testSearch_RanksByBm25() {
+    put(1, "Database migration", "Migrate the database to the new cluster and check the data");
+    put(2, "Database", "Database database");
+    put(3, "Cluster upgrade", "No match here");
+    put(4, "Migration", "Plan it");
+
+    List<TaskSearchIndex.Hit> hits = index.search("database", 0, 10).getHits();
+    assertEquals(List.of(2L, 1L), ids(index.search("database", 0, 10)));
+    assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    // Shorter text with the same term frequency ranks first.
+    assertEquals(List.of(4L, 1L), search("migration"));
+  }
+
+  @Test
+  void testSearch_PagesWithTotal() {
+    for (long id = 1; id <= 5; id++) {
+      put(id, "Task " + id, null);
+    }
+
+    TaskSearchIndex.Result page = index.search("task", 2, 2);
+
+    assertEquals(5, page.getTotal());
+    assertEquals(List.of(3L, 4L), ids(page));
+    assertEquals(List.of(), ids(index.search("task", 10, 2)));
+  }
+
+  @Test
+  void testPutAndRemove_KeepTheIndexCurrent() {
+    put(1, "Old title", null);
+    put(1, "New title", null);
+    put(2, "Other title", null);
+
+    assertEquals(List.of(), search("old"));
+    assertEquals(List.of(1L), search("new"));
+
+    index.remove(1);
+
+    assertEquals(List.of(), search("new"));
+    assertEquals(List.of(2L), search("title"));
+    assertEquals(1, index.size());
+  }
+
+  @Test
+  void testPut_OlderVersionIgnored() {
+    index.put(Task.builder().id(1L).title("Second").version(2L).build());
+    index.put(Task.builder().id(1L).title("First").version(1L).build());
+
+    assertEquals(List.of(1L), search("second"));
+    assertEquals(List.of(), search("first"));
+  }
+
+  private static List<Long> sorted(List<Long> ids) {
+    return ids.stream().sorted().collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,80 @@
+package org.mikhi.taskM.service.impl;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.service.TaskService;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Runs the application under the {@code memory} profile: the in-memory engine must be picked and
+ * the context must start without any database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("memory")
+class InMemoryTaskServiceImplIntegrationTest {
+
+  @Autowired
+  private ApplicationContext context;
+
+  @Autowired
+  private TaskService taskService;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Test
+  void contextUsesInMemoryEngineWithoutDataSource() {
+    assertEquals(InMemoryTaskServiceImpl.class, AopUtils.getTargetClass(taskService));
+    assertEquals(0, context.getBeanNamesForType(DataSource.class).length);
+  }
+
+  @Test
+  void createAndGetTask_RoundTrip() throws Exception {
+    Task task = Task.builder().title("Memory Task").build();
+    MvcResult created = perform(post("/v1/tasks")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(task)))
+        .andExpect(status().isCreated())
+        .andReturn();
+    JsonNode data = objectMapper.readTree(created.getResponse().getContentAsString())
+        .get("data");
+
+    perform(get("/v1/tasks/{id}", data.get("id").asLong()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.title", is("Memory Task")))
+        .andExpect(jsonPath("$.data.version", is(0)));
+  }
+
+  private ResultActions perform(RequestBuilder requestBuilder) throws Exception {
+    MvcResult result = mockMvc.perform(requestBuilder)
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    return mockMvc.perform(asyncDispatch(result));
+  }
+}
@@ -0,0 +1,366 @@
+package org.mikhi.taskM.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mikhi.taskM.config.TaskPaginationProperties;
+import org.mikhi.taskM.event.TaskChangedEvent;
+import org.mikhi.taskM.exception.InvalidCursorException;
+import org.mikhi.taskM.exception.NoTasksFoundException;
+import org.mikhi.taskM.exception.TaskNotFoundException;
+import org.mikhi.taskM.exception.TaskVersionConflictException;
+import org.mikhi.taskM.model.BatchItemResult;
+import org.mikhi.taskM.model.CursorPage;
+import org.mikhi.taskM.model.Direction;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskCount;
+import org.mikhi.taskM.model.TaskField;
+import org.mikhi.taskM.model.TaskView;
+import org.mikhi.taskM.storage.TaskJournal;
+import org.mikhi.taskM.storage.TaskWriteAheadLog;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+
+class InMemoryTaskServiceImplTest {
+
+  private static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+  private static final Pageable BY_DUE_DATE = PageRequest.of(0, 100, Sort.by("dueDate", "id"));
+
+  private TaskPaginationProperties paginationProperties;
+  private InMemoryTaskServiceImpl taskService;
+  private List<Object> events;
+
+  @BeforeEach
+  void setUp() {
+    paginationProperties = new TaskPaginationProperties();
+    events = new ArrayList<>();
+    taskService = new InMemoryTaskServiceImpl(
+        Validation.buildDefaultValidatorFactory().getValidator(), paginationProperties,
+        TaskJournal.NONE, events::add);
+  }
+
+  private Task create(String title, Status status, LocalDate dueDate) {
+    return taskService.createTask(
+        Task.builder().title(title).status(status).dueDate(dueDate).build());
+  }
+
+  private static List<String> titles(List<Task> tasks) {
+    return tasks.stream().map(Task::getTitle).collect(Collectors.toList());
+  }
+
+  @Test
+  void testCreateAndGetTask() {
+    Task created = create("Task 1", Status.TODO, JAN_1);
+
+    Task found = taskService.getTaskById(created.getId());
+
+    assertEquals("Task 1", found.getTitle());
+    assertEquals(0L, found.getVersion());
+    assertNotSame(created, found);
+  }
+
+  @Test
+  void testWrites_PublishChangeEvents() {
+    Task created = create("Task 1", Status.TODO, JAN_1);
+    taskService.updateTask(created.getId(), Task.builder().title("Task 1b").status(Status.DONE)
+        .build());
+    taskService.deleteTask(created.getId());
+
+    assertEquals(List.of(TaskChangedEvent.Type.CREATED, TaskChangedEvent.Type.UPDATED,
+            TaskChangedEvent.Type.DELETED),
+        events.stream().map(event -> ((TaskChangedEvent) event).getType())
+            .collect(Collectors.toList()));
+    TaskChangedEvent deleted = (TaskChangedEvent) events.get(2);
+    assertEquals(created.getId(), deleted.getTaskId());
+    assertEquals(Status.DONE, deleted.getStatus());
+    assertEquals(1L, deleted.getTask().getVersion());
+  }
+
+  @Test
+  void testGetTaskById_ReturnsCopy() {
+    Task created = create("Task 1", Status.TODO, JAN_1);
+
+    taskService.getTaskById(created.getId()).setTitle("Changed");
+
+    assertEquals("Task 1", taskService.getTaskById(created.getId()).getTitle());
+  }
+
+  @Test
+  void testGetTasksByIds_InRequestedOrderWithoutUnknownIds() {
+    Task first = create("Task 1", Status.TODO, JAN_1);
+    Task second = create("Task 2", Status.TODO, JAN_1);
+
+    assertEquals(List.of("Task 2", "Task 1"),
+        titles(taskService.getTasksByIds(List.of(second.getId(), 42L, first.getId()))));
+  }
+
+  @Test
+  void testCountTasksByStatusAndDueDate() {
+    create("Task 1", Status.TODO, JAN_1);
+    create("Task 2", Status.TODO, JAN_1);
+    create("Task 3", Status.DONE, JAN_1);
+    create("Task 4", null, null);
+
+    assertEquals(Set.of(new TaskCount(Status.TODO, JAN_1, 2), new TaskCount(Status.DONE, JAN_1, 1),
+            new TaskCount(null, null, 1)),
+        new HashSet<>(taskService.countTasksByStatusAndDueDate()));
+  }
+
+  @Test
+  void testGetTaskById_NotFound() {
+    TaskNotFoundException e = assertThrows(TaskNotFoundException.class,
+        () -> taskService.getTaskById(42L));
+    assertEquals("Task not found with id: 42", e.getMessage());
+  }
+
+  @Test
+  void testUpdateTask_BumpsVersionAndReindexes() {
+    Task created = create("Task 1", Status.TODO, JAN_1);
+
+    Task updated = taskService.updateTask(created.getId(),
+        Task.builder().title("Task 1b").status(Status.DONE).dueDate(JAN_1.plusDays(1)).build(),
+        0L);
+
+    assertEquals(1L, updated.getVersion());
+    assertThrows(NoTasksFoundException.class,
+        () -> taskService.filterTasks(Status.TODO, null, BY_DUE_DATE));
+    assertEquals(List.of("Task 1b"),
+        titles(taskService.filterTasks(Status.DONE, JAN_1.plusDays(1), BY_DUE_DATE)));
+  }
+
+  @Test
+  void testUpdateTask_StaleVersion_Conflict() {
+    Task created = create("Task 1", Status.TODO, JAN_1);
+    taskService.updateTask(created.getId(), Task.builder().title("Task 1b").build());
+
+    assertThrows(TaskVersionConflictException.class, () -> taskService.updateTask(
+        created.getId(), Task.builder().title("Task 1c").build(), 0L));
+    assertEquals("Task 1b", taskService.getTaskById(created.getId()).getTitle());
+  }
+
+  @Test
+  void testUpdateTask_NotFound() {
+    assertThrows(TaskNotFoundException.class,
+        () -> taskService.updateTask(42L, Task.builder().title("Task").build(), 0L));
+  }
+
+  @Test
+  void testDeleteTask() {
+    Task created = create("Task 1", Status.TODO, JAN_1);
+
+    assertThrows(TaskVersionConflictException.class,
+        () -> taskService.deleteTask(created.getId(), 5L));
+    assertEquals("Task deleted successfully", taskService.deleteTask(created.getId(), 0L));
+    assertThrows(TaskNotFoundException.class, () -> taskService.getTaskById(created.getId()));
+    assertThrows(NoTasksFoundException.class, () -> taskService.getAllTasks());
+  }
+
+  @Test
+  void testFilterTasks_NoMatch_Messages() {
+    create("Task 1", Status.TODO, JAN_1);
+
+    assertEquals("No tasks found with status: DONE",
+        assertThrows(NoTasksFoundException.class,
+            () -> taskService.filterTasks(Status.DONE, null, BY_DUE_DATE)).getMessage());
+    assertEquals(" No tasks found with due date till: 2023-12-31",
+        assertThrows(NoTasksFoundException.class,
+            () -> taskService.getTasksTillDate(JAN_1.minusDays(1), BY_DUE_DATE)).getMessage());
+    // The projections answer with an empty list instead.
+    assertEquals(List.of(),
+        taskService.filterTasks(Status.DONE, null, BY_DUE_DATE, TaskField.ALL));
+    assertEquals(List.of(),
+        taskService.getTasksTillDate(JAN_1.minusDays(1), BY_DUE_DATE, TaskField.ALL));
+  }
+
+  @Test
+  void testGetTasksTillDate_SkipsUndatedTasks() {
+    create("Undated", Status.TODO, null);
+    create("Later", Status.TODO, JAN_1.plusDays(5));
+    create("Early", Status.TODO, JAN_1);
+
+    assertEquals(List.of("Early"), titles(taskService.getTasksTillDate(JAN_1, BY_DUE_DATE)));
+  }
+
+  @Test
+  void testGetAllTasks_SortedByDueDate_NullsFirstAscending() {
+    create("B", Status.TODO, JAN_1.plusDays(1));
+    create("Undated", Status.TODO, null);
+    create("A", Status.TODO, JAN_1);
+
+    Page<Task> asc = taskService.getAllTasks(PageRequest.of(0, 10, Sort.by("dueDate")));
+    Page<Task> desc = taskService.getAllTasks(
+        PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "dueDate")));
+
+    assertEquals(List.of("Undated", "A", "B"), titles(asc.getContent()));
+    assertEquals(List.of("B", "A", "Undated"), titles(desc.getContent()));
+    assertEquals(3, asc.getTotalElements());
+  }
+
+  @Test
+  void testGetAllTasks_SortedByOtherProperty() {
+    create("b", Status.TODO, JAN_1);
+    create("c", Status.DONE, JAN_1);
+    create("a", Status.IN_PROGRESS, JAN_1);
+
+    Page<Task> page = taskService.getAllTasks(PageRequest.of(1, 2, Sort.by("title")));
+
+    assertEquals(List.of("c"), titles(page.getContent()));
+    assertThrows(PropertyReferenceException.class,
+        () -> taskService.getAllTasks(PageRequest.of(0, 2, Sort.by("owner"))));
+  }
+
+  @Test
+  void testFilterTasks_PageSizeIsCapped() {
+    paginationProperties.setMaxPageSize(3);
+    for (int i = 0; i < 5; i++) {
+      create("Task " + i, Status.TODO, JAN_1);
+    }
+
+    assertEquals(3, taskService.filterTasks(Status.TODO, null, BY_DUE_DATE).size());
+  }
+
+  @Test
+  void testFilterTaskViews_OnlySelectedFields() {
+    Task created = create("Task 1", Status.TODO, JAN_1);
+
+    List<TaskView> views = taskService.filterTasks(Status.TODO, null, BY_DUE_DATE,
+        EnumSet.of(TaskField.ID, TaskField.TITLE));
+
+    assertEquals(1, views.size());
+    assertEquals(EnumSet.of(TaskField.ID, TaskField.TITLE), views.get(0).getFields());
+    assertEquals(created.getId(), views.get(0).getId());
+    assertEquals("Task 1", views.get(0).getTitle());
+    assertNull(views.get(0).getStatus());
+  }
+
+  @Test
+  void testGetTasksByCursor_ById() {
+    for (int i = 0; i < 5; i++) {
+      create("Task " + i, Status.TODO, JAN_1);
+    }
+
+    CursorPage<Task> first = taskService.getTasksByCursor(null, 3, "id", Direction.DESC);
+    CursorPage<Task> second = taskService.getTasksByCursor(first.getNextCursor(), 3, null, null);
+
+    assertEquals(List.of("Task 4", "Task 3", "Task 2"), titles(first.getContent()));
+    assertTrue(first.isHasNext());
+    assertEquals(List.of("Task 1", "Task 0"), titles(second.getContent()));
+    assertFalse(second.isHasNext());
+    assertNull(second.getNextCursor());
+  }
+
+  @Test
+  void testGetTasksByCursor_ByDueDate_UndatedLast() {
+    create("Undated", Status.TODO, null);
+    create("Jan 2", Status.TODO, JAN_1.plusDays(1));
+    create("Jan 1 a", Status.TODO, JAN_1);
+    create("Jan 1 b", Status.TODO, JAN_1);
+
+    List<String> seen = new ArrayList<>();
+    String cursor = null;
+    do {
+      CursorPage<Task> page = taskService.getTasksByCursor(cursor, 1, "dueDate", Direction.ASC);
+      seen.addAll(titles(page.getContent()));
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+
+    assertEquals(List.of("Jan 1 a", "Jan 1 b", "Jan 2", "Undated"), seen);
+  }
+
+  @Test
+  void testGetTasksByCursor_SizeIsCapped() {
+    paginationProperties.setMaxPageSize(3);
+    for (int i = 0; i < 5; i++) {
+      create("Task " + i, Status.TODO, JAN_1);
+    }
+
+    CursorPage<Task> page = taskService.getTasksByCursor(null, 10_000_000, "id", Direction.ASC);
+
+    assertEquals(3, page.getSize());
+    assertTrue(page.isHasNext());
+  }
+
+  @Test
+  void testGetTasksByCursor_SizeBelowOne() {
+    assertThrows(InvalidCursorException.class,
+        () -> taskService.getTasksByCursor(null, 0, "id", Direction.ASC));
+    assertThrows(InvalidCursorException.class,
+        () -> taskService.getTasksByCursor(null, -1, "id", Direction.ASC));
+  }
+
+  @Test
+  void testGetTasksByCursor_UnsupportedSort() {
+    assertThrows(InvalidCursorException.class,
+        () -> taskService.getTasksByCursor(null, 3, "title", Direction.ASC));
+  }
+
+  @Test
+  void testBatchOperations_ResultPerItem() {
+    List<BatchItemResult> created = taskService.createTasks(Arrays.asList(
+        Task.builder().title("Task 1").build(), Task.builder().title("").build()));
+
+    assertTrue(created.get(0).isSuccess());
+    assertFalse(created.get(1).isSuccess());
+    assertEquals("title: title is mandatory", created.get(1).getMessage());
+
+    Long id = created.get(0).getId();
+    List<BatchItemResult> updated = taskService.updateTasks(Arrays.asList(
+        Task.builder().id(id).title("Task 1b").build(),
+        Task.builder().id(99L).title("Missing").build()));
+    assertTrue(updated.get(0).isSuccess());
+    assertEquals("Task not found with id: 99", updated.get(1).getMessage());
+
+    List<BatchItemResult> deleted = taskService.deleteTasks(Arrays.asList(id, id));
+    assertTrue(deleted.get(0).isSuccess());
+    assertFalse(deleted.get(1).isSuccess());
+  }
+
+  @Test
+  void testRecover_RestoresTasksIndexesAndSequence(@TempDir Path directory) {
+    TaskWriteAheadLog wal = new TaskWriteAheadLog(directory, 1 << 20, Duration.ZERO, true);
+    InMemoryTaskServiceImpl before = new InMemoryTaskServiceImpl(
+        Validation.buildDefaultValidatorFactory().getValidator(), paginationProperties, wal,
+        events::add);
+    before.recover();
+    before.createTasks(Arrays.asList(Task.builder().title("Task 1").status(Status.TODO).build(),
+        Task.builder().title("Task 2").status(Status.TODO).dueDate(JAN_1).build()));
+    Task last = before.createTask(Task.builder().title("Task 3").build());
+    before.updateTask(1L, Task.builder().title("Task 1b").status(Status.DONE).build());
+    before.deleteTask(last.getId());
+    wal.close();
+
+    TaskWriteAheadLog reopened = new TaskWriteAheadLog(directory, 1 << 20, Duration.ZERO, true);
+    InMemoryTaskServiceImpl after = new InMemoryTaskServiceImpl(
+        Validation.buildDefaultValidatorFactory().getValidator(), paginationProperties,
+        reopened, events::add);
+    after.recover();
+
+    assertEquals(List.of("Task 1b", "Task 2"), titles(after.getAllTasks()));
+    assertEquals(1L, after.getTaskById(1L).getVersion());
+    assertEquals(List.of("Task 2"), titles(after.filterTasks(Status.TODO, JAN_1, BY_DUE_DATE)));
+    assertEquals(4L, after.createTask(Task.builder().title("Task 4").build()).getId());
+    reopened.close();
+  }
+}
@@ -0,0 +1,70 @@
+package org.mikhi.taskM.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.config.CacheConfig;
+import org.mikhi.taskM.exception.TaskNotFoundException;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.repository.TaskRepository;
+import org.mikhi.taskM.service.TaskService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+/**
+ * Verifies the read-through cache in front of {@link TaskServiceImpl#getTaskById(Long)}. Not
+ * transactional on purpose: cache writes are only applied once the service transaction commits.
+ */
+@SpringBootTest
+class TaskServiceImplCacheIntegrationTest {
+
+  @Autowired
+  private TaskService taskService;
+
+  @Autowired
+  private TaskRepository taskRepository;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  private CaffeineCache cache;
+
+  @BeforeEach
+  void setUp() {
+    taskRepository.deleteAll();
+    cache = (CaffeineCache) ((TransactionAwareCacheDecorator) cacheManager.getCache(
+        CacheConfig.TASKS_CACHE)).getTargetCache();
+    cache.clear();
+  }
+
+  @Test
+  void getTaskById_secondReadIsServedFromCache() {
+    Task saved = taskRepository.save(Task.builder().title("Cached").build());
+    CacheStats before = cache.getNativeCache().stats();
+
+    taskService.getTaskById(saved.getId());
+    taskService.getTaskById(saved.getId());
+
+    CacheStats delta = cache.getNativeCache().stats().minus(before);
+    assertEquals(1, delta.missCount());
+    assertEquals(1, delta.hitCount());
+  }
+
+  @Test
+  void writesKeepCacheCoherent() {
+    Task created = taskService.createTask(Task.builder().title("Original").build());
+    assertEquals("Original", cache.get(created.getId(), Task.class).getTitle());
+
+    taskService.updateTask(created.getId(), Task.builder().title("Updated").build());
+    assertEquals("Updated", taskService.getTaskById(created.getId()).getTitle());
+
+    taskService.deleteTask(created.getId());
+    assertThrows(TaskNotFoundException.class, () -> taskService.getTaskById(created.getId()));
+  }
+}
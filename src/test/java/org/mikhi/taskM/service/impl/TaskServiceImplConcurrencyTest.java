@@ -0,0 +1,128 @@
+package org.mikhi.taskM.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.exception.TaskVersionConflictException;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.repository.TaskRepository;
+import org.mikhi.taskM.service.TaskService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Contention test for conditional (versioned) updates. Runs without a test transaction so every
+ * thread commits on its own, as concurrent requests would.
+ */
+@SpringBootTest
+class TaskServiceImplConcurrencyTest {
+
+  private static final int THREADS = 16;
+
+  @Autowired
+  private TaskService taskService;
+
+  @Autowired
+  private TaskRepository taskRepository;
+
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    taskRepository.deleteAll();
+    executor = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void updateTask_sameExpectedVersion_exactlyOneWins() throws Exception {
+    Task task = taskRepository.save(Task.builder().title("Contended").build());
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger conflicts = new AtomicInteger();
+
+    List<Callable<Boolean>> writers = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      String title = "Writer " + i;
+      writers.add(() -> {
+        start.await();
+        try {
+          taskService.updateTask(task.getId(), Task.builder().title(title).build(), 0L);
+          return true;
+        } catch (TaskVersionConflictException e) {
+          conflicts.incrementAndGet();
+          return false;
+        }
+      });
+    }
+    List<Future<Boolean>> results = submitAll(writers);
+    start.countDown();
+
+    int wins = 0;
+    for (Future<Boolean> result : results) {
+      wins += result.get(30, TimeUnit.SECONDS) ? 1 : 0;
+    }
+    assertEquals(1, wins);
+    assertEquals(THREADS - 1, conflicts.get());
+    assertEquals(1L, taskRepository.findById(task.getId()).get().getVersion());
+  }
+
+  @Test
+  void updateTask_readModifyWriteWithRetry_losesNoUpdates() throws Exception {
+    Task task = taskRepository.save(Task.builder().title("0").build());
+    int incrementsPerThread = 10;
+    CountDownLatch start = new CountDownLatch(1);
+
+    List<Callable<Boolean>> writers = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      writers.add(() -> {
+        start.await();
+        for (int n = 0; n < incrementsPerThread; n++) {
+          while (true) {
+            // Read straight from the repository: a conditional write needs the current version.
+            Task current = taskRepository.findById(task.getId()).get();
+            Task next = Task.builder()
+                .title(String.valueOf(Integer.parseInt(current.getTitle()) + 1))
+                .build();
+            try {
+              taskService.updateTask(task.getId(), next, current.getVersion());
+              break;
+            } catch (TaskVersionConflictException e) {
+              // Lost the race; re-read and try again.
+            }
+          }
+        }
+        return true;
+      });
+    }
+    List<Future<Boolean>> results = submitAll(writers);
+    start.countDown();
+    for (Future<Boolean> result : results) {
+      result.get(60, TimeUnit.SECONDS);
+    }
+
+    Task result = taskRepository.findById(task.getId()).get();
+    assertEquals(String.valueOf(THREADS * incrementsPerThread), result.getTitle());
+    assertEquals((long) THREADS * incrementsPerThread, result.getVersion());
+  }
+
+  private List<Future<Boolean>> submitAll(List<Callable<Boolean>> tasks) {
+    List<Future<Boolean>> futures = new ArrayList<>();
+    tasks.forEach(t -> futures.add(executor.submit(t)));
+    return futures;
+  }
+}
@@ -3,28 +3,45 @@ package org.mikhi.taskM.service.impl;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.IntStream;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.config.TaskPaginationProperties;
+import org.mikhi.taskM.exception.InvalidCursorException;
 import org.mikhi.taskM.exception.NoTasksFoundException;
 import org.mikhi.taskM.exception.TaskNotFoundException;
+import org.mikhi.taskM.model.CursorPage;
+import org.mikhi.taskM.model.Direction;
 import org.mikhi.taskM.model.Status;
 import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskCount;
+import org.mikhi.taskM.model.TaskField;
+import org.mikhi.taskM.model.TaskView;
 import org.mikhi.taskM.repository.TaskRepository;
 import org.mikhi.taskM.service.TaskService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @Transactional
 class TaskServiceImplIntegrationTest {
 
@@ -34,6 +51,17 @@ class TaskServiceImplIntegrationTest {
   @Autowired
   private TaskRepository taskRepository;
 
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private TaskPaginationProperties paginationProperties;
+
+  private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
   private Task createTestTask(String title) {
     Task task = new Task();
     task.setTitle(title);
@@ -71,6 +99,33 @@ class TaskServiceImplIntegrationTest {
     assertThrows(TaskNotFoundException.class, () -> taskService.getTaskById(999L));
   }
 
+  @Test
+  void getTasksByIds_inRequestedOrder() {
+    Task first = taskRepository.save(createTestTask("First"));
+    Task second = taskRepository.save(createTestTask("Second"));
+
+    List<Task> result = taskService.getTasksByIds(List.of(second.getId(), 999L, first.getId()));
+
+    assertEquals(List.of("Second", "First"),
+        List.of(result.get(0).getTitle(), result.get(1).getTitle()));
+  }
+
+  @Test
+  void countTasksByStatusAndDueDate_groupsEveryTask() {
+    LocalDate dueDate = LocalDate.of(2024, 1, 1);
+    for (Status status : List.of(Status.TODO, Status.TODO, Status.DONE)) {
+      Task task = createTestTask("Dated");
+      task.setStatus(status);
+      task.setDueDate(dueDate);
+      taskRepository.save(task);
+    }
+    taskRepository.save(createTestTask("Undated"));
+
+    assertEquals(Set.of(new TaskCount(Status.TODO, dueDate, 2),
+            new TaskCount(Status.DONE, dueDate, 1), new TaskCount(null, null, 1)),
+        new HashSet<>(taskService.countTasksByStatusAndDueDate()));
+  }
+
   @Test
   void updateTask_success() {
     Task savedTask = taskRepository.save(createTestTask("OriginalTitle"));
@@ -121,7 +176,7 @@ class TaskServiceImplIntegrationTest {
     task.setStatus(Status.DONE);
     taskRepository.save(task);
 
-    List<Task> result = taskService.filterTasks(Status.DONE);
+    List<Task> result = taskService.filterTasks(Status.DONE, null, FIRST_PAGE);
 
     assertEquals(1, result.size());
     assertEquals(Status.DONE, result.get(0).getStatus());
@@ -129,7 +184,7 @@ class TaskServiceImplIntegrationTest {
 
   @Test
   void filterTasks_byStatus_noTasks() {
-    assertThrows(NoTasksFoundException.class, () -> taskService.filterTasks(Status.DONE));
+    assertThrows(NoTasksFoundException.class, () -> taskService.filterTasks(Status.DONE, null, FIRST_PAGE));
   }
 
   @Test
@@ -139,7 +194,7 @@ class TaskServiceImplIntegrationTest {
     task.setDueDate(date);
     taskRepository.save(task);
 
-    List<Task> result = taskService.filterTasks(date);
+    List<Task> result = taskService.filterTasks(null, date, FIRST_PAGE);
 
     assertEquals(1, result.size());
     assertEquals(date, result.get(0).getDueDate());
@@ -148,7 +203,7 @@ class TaskServiceImplIntegrationTest {
   @Test
   void filterTasks_byDueDate_noTasks() {
     LocalDate date = LocalDate.now();
-    assertThrows(NoTasksFoundException.class, () -> taskService.filterTasks(date));
+    assertThrows(NoTasksFoundException.class, () -> taskService.filterTasks(null, date, FIRST_PAGE));
   }
 
   @Test
@@ -159,7 +214,7 @@ class TaskServiceImplIntegrationTest {
     task.setDueDate(date);
     taskRepository.save(task);
 
-    List<Task> result = taskService.filterTasks(Status.TODO, date);
+    List<Task> result = taskService.filterTasks(Status.TODO, date, FIRST_PAGE);
 
     assertEquals(1, result.size());
     assertEquals(Status.TODO, result.get(0).getStatus());
@@ -169,7 +224,7 @@ class TaskServiceImplIntegrationTest {
   @Test
   void filterTasks_byStatusAndDueDate_noTasks() {
     LocalDate date = LocalDate.now();
-    assertThrows(NoTasksFoundException.class, () -> taskService.filterTasks(Status.DONE, date));
+    assertThrows(NoTasksFoundException.class, () -> taskService.filterTasks(Status.DONE, date, FIRST_PAGE));
   }
 
   @Test
@@ -182,12 +237,48 @@ class TaskServiceImplIntegrationTest {
     taskRepository.save(task1);
     taskRepository.save(task2);
 
-    List<Task> result = taskService.getTasksTillDate(date);
+    List<Task> result = taskService.getTasksTillDate(date, FIRST_PAGE);
 
     assertEquals(2, result.size());
     assertTrue(result.stream().noneMatch(t -> t.getDueDate().isAfter(date)));
   }
 
+  @Test
+  void filterTasks_capsPageSize_withoutCountQuery() {
+    for (int i = 1; i <= 3; i++) {
+      Task task = createTestTask("Task" + i);
+      task.setStatus(Status.TODO);
+      taskRepository.save(task);
+    }
+    taskRepository.flush();
+    int maxPageSize = paginationProperties.getMaxPageSize();
+    paginationProperties.setMaxPageSize(2);
+    try {
+      Statistics statistics = resetStatistics();
+
+      List<Task> result = taskService.filterTasks(Status.TODO, null,
+          PageRequest.of(0, 1000, Sort.by("id")));
+
+      assertEquals(2, result.size());
+      assertEquals("Task1", result.get(0).getTitle());
+      assertEquals(1, statistics.getPrepareStatementCount());
+    } finally {
+      paginationProperties.setMaxPageSize(maxPageSize);
+    }
+  }
+
+  @Test
+  void filterTasks_noFilters_returnsBoundedPage() {
+    for (int i = 1; i <= 3; i++) {
+      taskRepository.save(createTestTask("Task" + i));
+    }
+
+    List<Task> result = taskService.filterTasks(null, null, PageRequest.of(1, 2, Sort.by("id")));
+
+    assertEquals(1, result.size());
+    assertEquals("Task3", result.get(0).getTitle());
+  }
+
   @Test
   void getAllTasks_paginated_success() {
     // Save 5 tasks
@@ -207,4 +298,163 @@ class TaskServiceImplIntegrationTest {
     IntStream.range(0, page.getContent().size())
         .forEach(i -> assertEquals("Task" + (i + 1), page.getContent().get(i).getTitle()));
   }
-}
\ No newline at end of file
+
+  @Test
+  void getTasksByCursor_dueDateAsc_visitsEveryTaskOnce() {
+    LocalDate date = LocalDate.now();
+    // Two tasks share a due date so the id tie-breaker is exercised; one has no due date.
+    Task late = createTestTask("Late");
+    late.setDueDate(date.plusDays(2));
+    Task sameDayA = createTestTask("SameDayA");
+    sameDayA.setDueDate(date);
+    Task sameDayB = createTestTask("SameDayB");
+    sameDayB.setDueDate(date);
+    Task undated = createTestTask("Undated");
+    taskRepository.saveAll(List.of(late, sameDayA, sameDayB, undated));
+    List<Long> expected = List.of(sameDayA.getId(), sameDayB.getId(), late.getId(),
+        undated.getId());
+
+    List<Long> visited = new ArrayList<>();
+    String cursor = null;
+    do {
+      CursorPage<Task> slice = taskService.getTasksByCursor(cursor, 2, "dueDate", Direction.ASC);
+      slice.getContent().forEach(t -> visited.add(t.getId()));
+      cursor = slice.getNextCursor();
+      assertEquals(slice.isHasNext(), cursor != null);
+    } while (cursor != null);
+
+    assertEquals(expected, visited);
+  }
+
+  @Test
+  void getTasksByCursor_idDesc_success() {
+    for (int i = 1; i <= 5; i++) {
+      taskRepository.save(createTestTask("Task" + i));
+    }
+
+    CursorPage<Task> first = taskService.getTasksByCursor(null, 3, "id", Direction.DESC);
+    CursorPage<Task> second = taskService.getTasksByCursor(first.getNextCursor(), 3, "id",
+        Direction.ASC);
+
+    assertEquals(3, first.getSize());
+    assertTrue(first.isHasNext());
+    assertEquals("Task5", first.getContent().get(0).getTitle());
+    // The cursor keeps the ordering it was issued under, whatever the request parameters say.
+    assertEquals(2, second.getSize());
+    assertFalse(second.isHasNext());
+    assertEquals("Task2", second.getContent().get(0).getTitle());
+    assertEquals("Task1", second.getContent().get(1).getTitle());
+  }
+
+  @Test
+  void getTasksByCursor_capsSize() {
+    for (int i = 1; i <= 3; i++) {
+      taskRepository.save(createTestTask("Task" + i));
+    }
+    int maxPageSize = paginationProperties.getMaxPageSize();
+    paginationProperties.setMaxPageSize(2);
+    try {
+      CursorPage<Task> slice = taskService.getTasksByCursor(null, 10_000_000, "id",
+          Direction.ASC);
+
+      assertEquals(2, slice.getSize());
+      assertTrue(slice.isHasNext());
+    } finally {
+      paginationProperties.setMaxPageSize(maxPageSize);
+    }
+  }
+
+  @Test
+  void getTasksByCursor_sizeBelowOne() {
+    assertThrows(InvalidCursorException.class,
+        () -> taskService.getTasksByCursor(null, 0, "id", Direction.ASC));
+    assertThrows(InvalidCursorException.class,
+        () -> taskService.getTasksByCursor(null, -1, "id", Direction.ASC));
+  }
+
+  @Test
+  void getTasksByCursor_invalidCursor() {
+    assertThrows(InvalidCursorException.class,
+        () -> taskService.getTasksByCursor("not-a-cursor", 3, "id", Direction.ASC));
+    assertThrows(InvalidCursorException.class,
+        () -> taskService.getTasksByCursor(null, 3, "title", Direction.ASC));
+  }
+
+  @Test
+  void updateTask_issuesSingleStatement() {
+    Task savedTask = taskRepository.saveAndFlush(createTestTask("OriginalTitle"));
+    Statistics statistics = resetStatistics();
+
+    Task updated = taskService.updateTask(savedTask.getId(), createTestTask("UpdatedTitle"),
+        savedTask.getVersion());
+
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(savedTask.getVersion() + 1, updated.getVersion());
+    assertEquals("UpdatedTitle", taskRepository.findById(savedTask.getId()).get().getTitle());
+  }
+
+  @Test
+  void updateTask_withoutExpectedVersion_readsTheNewVersionBack() {
+    Task savedTask = taskRepository.saveAndFlush(createTestTask("OriginalTitle"));
+    Statistics statistics = resetStatistics();
+
+    Task updated = taskService.updateTask(savedTask.getId(), createTestTask("UpdatedTitle"));
+
+    assertEquals(2, statistics.getPrepareStatementCount());
+    assertEquals(savedTask.getVersion() + 1, updated.getVersion());
+  }
+
+  @Test
+  void updateTask_notFound_issuesSingleStatement() {
+    Statistics statistics = resetStatistics();
+
+    assertThrows(TaskNotFoundException.class,
+        () -> taskService.updateTask(999L, createTestTask("TestTask")));
+
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void deleteTask_issuesSingleStatement() {
+    Task savedTask = taskRepository.saveAndFlush(createTestTask("TestTask"));
+    Statistics statistics = resetStatistics();
+
+    taskService.deleteTask(savedTask.getId());
+
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertFalse(taskRepository.existsById(savedTask.getId()));
+  }
+
+  @Test
+  void filterTaskViews_doNotLoadEntities() {
+    taskRepository.saveAndFlush(Task.builder().title("Task 1").status(Status.TODO).build());
+    entityManager.clear();
+    Statistics statistics = resetStatistics();
+
+    List<TaskView> views = taskService.filterTasks(Status.TODO, null, FIRST_PAGE,
+        EnumSet.of(TaskField.ID, TaskField.TITLE));
+
+    assertEquals("Task 1", views.get(0).getTitle());
+    assertNull(views.get(0).getStatus());
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+  }
+
+  @Test
+  void getTaskViewsPage_countsOnlyWhenNeeded() {
+    taskRepository.saveAll(List.of(createTestTask("Task 1"), createTestTask("Task 2")));
+    taskRepository.flush();
+    Statistics statistics = resetStatistics();
+
+    Page<TaskView> page = taskService.getAllTasks(PageRequest.of(0, 10), TaskField.ALL);
+
+    assertEquals(2, page.getTotalElements());
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  private Statistics resetStatistics() {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+    return statistics;
+  }
+}
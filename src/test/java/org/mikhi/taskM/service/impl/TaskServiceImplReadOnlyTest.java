@@ -0,0 +1,119 @@
+package org.mikhi.taskM.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskField;
+import org.mikhi.taskM.repository.TaskRepository;
+import org.mikhi.taskM.service.TaskService;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Verifies the transaction and Hibernate session state {@link TaskServiceImpl} queries run in.
+ * Not {@code @Transactional}: each service call has to start its own transaction.
+ */
+@SpringBootTest
+class TaskServiceImplReadOnlyTest {
+
+  private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
+  @Autowired
+  private TaskService taskService;
+
+  @SpyBean
+  private TaskRepository taskRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  private final List<String> observed = new ArrayList<>();
+  // The repository is a JDK proxy, so its spy delegates through the default answer rather than
+  // calling real methods.
+  private Answer<?> real;
+
+  @BeforeEach
+  void setUp() {
+    real = mockingDetails(taskRepository).getMockCreationSettings().getDefaultAnswer();
+    taskRepository.deleteAll();
+    taskRepository.save(Task.builder().title("Task").status(Status.TODO).build());
+    doAnswer(invocation -> {
+      observe();
+      return real.answer(invocation);
+    }).when(taskRepository).findAll();
+    doAnswer(invocation -> {
+      observe();
+      return real.answer(invocation);
+    }).when(taskRepository).findViews(any(), any(), any());
+    doAnswer(invocation -> {
+      observe();
+      return real.answer(invocation);
+    }).when(taskRepository).save(any());
+  }
+
+  @AfterEach
+  void tearDown() {
+    taskRepository.deleteAll();
+  }
+
+  private void observe() {
+    Session session = entityManager.unwrap(Session.class);
+    observed.add(String.format("readOnly=%s defaultReadOnly=%s flushMode=%s",
+        TransactionSynchronizationManager.isCurrentTransactionReadOnly(),
+        session.isDefaultReadOnly(), session.getHibernateFlushMode()));
+  }
+
+  private static String readOnly() {
+    return "readOnly=true defaultReadOnly=true flushMode=" + FlushMode.MANUAL;
+  }
+
+  @Test
+  void queriesRunInReadOnlySessions() {
+    taskService.getAllTasks();
+    taskService.getAllTasks(FIRST_PAGE, TaskField.ALL);
+    taskService.filterTasks(Status.TODO, null, FIRST_PAGE, TaskField.ALL);
+
+    assertEquals(List.of(readOnly(), readOnly(), readOnly()), observed);
+  }
+
+  @Test
+  void writesStillRunInReadWriteSessions() {
+    taskService.createTask(Task.builder().title("Write").build());
+
+    assertEquals(List.of("readOnly=false defaultReadOnly=false flushMode=" + FlushMode.AUTO),
+        observed);
+  }
+
+  @Test
+  void entitiesLoadedByQueriesAreReadOnly() {
+    List<Boolean> readOnly = new ArrayList<>();
+    doAnswer(invocation -> {
+      @SuppressWarnings("unchecked")
+      List<Task> tasks = (List<Task>) real.answer(invocation);
+      Session session = entityManager.unwrap(Session.class);
+      tasks.forEach(task -> readOnly.add(session.isReadOnly(task)));
+      return tasks;
+    }).when(taskRepository).findBounded(any(), any());
+
+    taskService.filterTasks(Status.TODO, null, FIRST_PAGE);
+
+    assertEquals(List.of(true), readOnly);
+  }
+}
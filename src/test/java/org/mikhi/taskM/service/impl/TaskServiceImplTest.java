@@ -3,8 +3,11 @@ package org.mikhi.taskM.service.impl;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
@@ -14,14 +17,20 @@ import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.config.TaskPaginationProperties;
+import org.mikhi.taskM.event.TaskChangedEvent;
 import org.mikhi.taskM.exception.NoTasksFoundException;
 import org.mikhi.taskM.exception.TaskNotFoundException;
+import org.mikhi.taskM.exception.TaskVersionConflictException;
 import org.mikhi.taskM.model.Status;
 import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskField;
 import org.mikhi.taskM.repository.TaskRepository;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -29,9 +38,17 @@ import org.springframework.data.domain.Pageable;
 
 class TaskServiceImplTest {
 
+  private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
   @Mock
   private TaskRepository taskRepository;
 
+  @Mock
+  private ApplicationEventPublisher events;
+
+  @Spy
+  private TaskPaginationProperties paginationProperties = new TaskPaginationProperties();
+
   @InjectMocks
   private TaskServiceImpl taskServiceImpl;
 
@@ -43,9 +60,11 @@ class TaskServiceImplTest {
   @Test
   void createTask_success() {
     Task task = new Task();
+    task.setId(1L);
     when(taskRepository.save(task)).thenReturn(task);
     Task result = taskServiceImpl.createTask(task);
     assertNotNull(result);
+    verify(events).publishEvent(TaskChangedEvent.created(task));
   }
 
   @Test
@@ -69,8 +88,7 @@ class TaskServiceImplTest {
     Task task = new Task();
     task.setId(1L);
     task.setTitle("updatedTitle");
-    when(taskRepository.existsById(1L)).thenReturn(true);
-    when(taskRepository.save(task)).thenReturn(task);
+    when(taskRepository.updateById(1L, task, null)).thenReturn(1);
     Task result = taskServiceImpl.updateTask(1L, task);
     assertNotNull(result);
     assertEquals(1L, result.getId());
@@ -80,21 +98,29 @@ class TaskServiceImplTest {
   @Test
   void updateTask_notFound() {
     Task task = new Task();
-    when(taskRepository.existsById(2L)).thenReturn(false);
+    when(taskRepository.updateById(2L, task, null)).thenReturn(0);
     assertThrows(TaskNotFoundException.class, () -> taskServiceImpl.updateTask(2L, task));
   }
 
   @Test
-  void deleteTask_found() {
+  void updateTask_versionConflict() {
+    Task task = new Task();
+    when(taskRepository.updateById(1L, task, 3L)).thenReturn(0);
     when(taskRepository.existsById(1L)).thenReturn(true);
-    doNothing().when(taskRepository).deleteById(1L);
+    assertThrows(TaskVersionConflictException.class,
+        () -> taskServiceImpl.updateTask(1L, task, 3L));
+  }
+
+  @Test
+  void deleteTask_found() {
+    when(taskRepository.deleteTaskById(1L, null)).thenReturn(1);
     String result = taskServiceImpl.deleteTask(1L);
     assertEquals("Task deleted successfully", result);
   }
 
   @Test
   void deleteTask_notFound() {
-    when(taskRepository.existsById(2L)).thenReturn(false);
+    when(taskRepository.deleteTaskById(2L, null)).thenReturn(0);
     assertThrows(TaskNotFoundException.class, () -> taskServiceImpl.deleteTask(2L));
   }
 
@@ -117,16 +143,32 @@ class TaskServiceImplTest {
     Status appliedFilter = Status.DONE;
     List<Task> tasks = List.of(new Task());
     tasks.forEach(task -> task.setStatus(Status.DONE));
-    when(taskRepository.findByStatus(appliedFilter)).thenReturn(tasks);
-    List<Task> result = taskServiceImpl.filterTasks(appliedFilter);
+    when(taskRepository.findBounded(any(), eq(FIRST_PAGE))).thenReturn(tasks);
+    List<Task> result = taskServiceImpl.filterTasks(appliedFilter, null, FIRST_PAGE);
     assertEquals(1, result.size());
     tasks.forEach(task -> assertEquals(Status.DONE, task.getStatus()));
   }
 
   @Test
   void filterTasks_byStatus_noTasks() {
-    when(taskRepository.findByStatus(Status.DONE)).thenReturn(Collections.emptyList());
-    assertThrows(NoTasksFoundException.class, () -> taskServiceImpl.filterTasks(Status.DONE));
+    when(taskRepository.findBounded(any(), any())).thenReturn(Collections.emptyList());
+    NoTasksFoundException ex = assertThrows(NoTasksFoundException.class,
+        () -> taskServiceImpl.filterTasks(Status.DONE, null, FIRST_PAGE));
+    assertEquals("No tasks found with status: DONE", ex.getMessage());
+    // Preallocated and without a stack trace.
+    assertSame(ex, assertThrows(NoTasksFoundException.class,
+        () -> taskServiceImpl.filterTasks(Status.DONE, null, FIRST_PAGE)));
+    assertEquals(0, ex.getStackTrace().length);
+  }
+
+  @Test
+  void filterTasks_projection_noTasks_returnsEmptyList() {
+    when(taskRepository.findViews(any(), any(), any())).thenReturn(Collections.emptyList());
+    assertEquals(List.of(),
+        taskServiceImpl.filterTasks(Status.DONE, null, FIRST_PAGE, TaskField.ALL));
+    assertEquals(List.of(), taskServiceImpl.getTasksTillDate(LocalDate.now(), FIRST_PAGE,
+        TaskField.ALL));
+    assertEquals(List.of(), taskServiceImpl.getAllTasks(TaskField.ALL));
   }
 
   @Test
@@ -134,8 +176,8 @@ class TaskServiceImplTest {
     LocalDate date = LocalDate.now();
     List<Task> tasks = List.of(new Task());
     tasks.forEach(task -> task.setDueDate(date));
-    when(taskRepository.findByDueDate(date)).thenReturn(tasks);
-    List<Task> result = taskServiceImpl.filterTasks(date);
+    when(taskRepository.findBounded(any(), eq(FIRST_PAGE))).thenReturn(tasks);
+    List<Task> result = taskServiceImpl.filterTasks(null, date, FIRST_PAGE);
     assertEquals(1, result.size());
     tasks.forEach(task -> assertEquals(date, task.getDueDate()));
   }
@@ -143,8 +185,9 @@ class TaskServiceImplTest {
   @Test
   void filterTasks_byDueDate_noTasks() {
     LocalDate date = LocalDate.now();
-    when(taskRepository.findByDueDate(date)).thenReturn(Collections.emptyList());
-    assertThrows(NoTasksFoundException.class, () -> taskServiceImpl.filterTasks(date));
+    when(taskRepository.findBounded(any(), any())).thenReturn(Collections.emptyList());
+    assertThrows(NoTasksFoundException.class,
+        () -> taskServiceImpl.filterTasks(null, date, FIRST_PAGE));
   }
 
   @Test
@@ -153,8 +196,8 @@ class TaskServiceImplTest {
     List<Task> tasks = List.of(new Task());
     tasks.forEach(task -> task.setStatus(Status.TODO));
     tasks.forEach(task -> task.setDueDate(date));
-    when(taskRepository.findByStatusAndDueDate(Status.TODO, date)).thenReturn(tasks);
-    List<Task> result = taskServiceImpl.filterTasks(Status.TODO, date);
+    when(taskRepository.findBounded(any(), eq(FIRST_PAGE))).thenReturn(tasks);
+    List<Task> result = taskServiceImpl.filterTasks(Status.TODO, date, FIRST_PAGE);
     assertEquals(1, result.size());
     result.forEach(task -> assertEquals(date, task.getDueDate()));
     result.forEach(task -> assertEquals(Status.TODO, task.getStatus()));
@@ -163,9 +206,19 @@ class TaskServiceImplTest {
   @Test
   void filterTasks_byStatusAndDueDate_noTasks() {
     LocalDate date = LocalDate.now();
-    when(taskRepository.findByStatusAndDueDate(Status.DONE, date)).thenReturn(
-        Collections.emptyList());
-    assertThrows(NoTasksFoundException.class, () -> taskServiceImpl.filterTasks(Status.DONE, date));
+    when(taskRepository.findBounded(any(), any())).thenReturn(Collections.emptyList());
+    assertThrows(NoTasksFoundException.class,
+        () -> taskServiceImpl.filterTasks(Status.DONE, date, FIRST_PAGE));
+  }
+
+  @Test
+  void filterTasks_pageSizeCappedAtMaximum() {
+    when(taskRepository.findBounded(any(), any())).thenReturn(List.of(new Task()));
+    int maxPageSize = paginationProperties.getMaxPageSize();
+
+    taskServiceImpl.filterTasks(Status.TODO, null, PageRequest.of(3, maxPageSize + 1));
+
+    verify(taskRepository).findBounded(any(), eq(PageRequest.of(3, maxPageSize)));
   }
 
   @Test
@@ -173,8 +226,8 @@ class TaskServiceImplTest {
     LocalDate date = LocalDate.now();
     List<Task> tasks = List.of(new Task());
     tasks.forEach(task -> task.setDueDate(date));
-    when(taskRepository.findByDueDateLessThanEqual(date)).thenReturn(tasks);
-    List<Task> result = taskServiceImpl.getTasksTillDate(date);
+    when(taskRepository.findBounded(any(), eq(FIRST_PAGE))).thenReturn(tasks);
+    List<Task> result = taskServiceImpl.getTasksTillDate(date, FIRST_PAGE);
     assertEquals(1, result.size());
     tasks.forEach(
         task -> assertFalse(task.getDueDate().isAfter(date), "Task date should be after date"));
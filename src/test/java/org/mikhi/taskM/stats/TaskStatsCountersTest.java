@@ -0,0 +1,99 @@
+package org.mikhi.taskM.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.model.TaskCount;
+import org.mikhi.taskM.model.TaskStats;
+
+class TaskStatsCountersTest {
+
+  // A Wednesday.
+  private static final LocalDate TODAY = LocalDate.of(2024, 6, 5);
+
+  private final TaskStatsCounters counters = new TaskStatsCounters();
+
+  private void put(long id, Status status, LocalDate dueDate) {
+    counters.put(Task.builder().id(id).title("Task " + id).status(status).dueDate(dueDate).build());
+  }
+
+  @Test
+  void testStats_CountsByStatusOverdueAndDueWeek() {
+    put(1, Status.TODO, TODAY.minusDays(1));
+    put(2, Status.DONE, TODAY.minusDays(1));
+    put(3, Status.IN_PROGRESS, TODAY.minusDays(2));
+    put(4, Status.TODO, TODAY);
+    put(5, Status.TODO, TODAY.plusDays(7));
+    put(6, null, null);
+
+    TaskStats stats = counters.stats(TODAY);
+
+    assertEquals(TODAY, stats.getDate());
+    assertEquals(6, stats.getTotal());
+    assertEquals(Map.of(Status.TODO, 3L, Status.IN_PROGRESS, 1L, Status.DONE, 1L),
+        stats.getByStatus());
+    assertEquals(1, stats.getNoStatus());
+    // Due before today and not done; due today is not overdue yet.
+    assertEquals(2, stats.getOverdue());
+    assertEquals(1, stats.getNoDueDate());
+    assertEquals(List.of(new TaskStats.DueWeek(LocalDate.of(2024, 6, 3), 4),
+            new TaskStats.DueWeek(LocalDate.of(2024, 6, 10), 1)),
+        stats.getDueWeeks());
+  }
+
+  @Test
+  void testPutAndRemove_MoveTasksBetweenCounts() {
+    put(1, Status.TODO, TODAY.minusDays(1));
+    put(2, Status.TODO, TODAY.minusDays(1));
+
+    put(1, Status.DONE, TODAY.minusDays(1));
+    counters.remove(2);
+    counters.remove(42);
+
+    TaskStats stats = counters.stats(TODAY);
+    assertEquals(1, stats.getTotal());
+    assertEquals(1L, stats.getByStatus().get(Status.DONE));
+    assertEquals(0L, stats.getByStatus().get(Status.TODO));
+    assertEquals(0, stats.getOverdue());
+    assertEquals(1, counters.size());
+  }
+
+  @Test
+  void testStats_ReusedUntilAChangeOrANewDay() {
+    put(1, Status.TODO, TODAY);
+    TaskStats stats = counters.stats(TODAY);
+
+    assertSame(stats, counters.stats(TODAY));
+
+    TaskStats tomorrow = counters.stats(TODAY.plusDays(1));
+    assertNotSame(stats, tomorrow);
+    assertEquals(1, tomorrow.getOverdue());
+
+    put(2, Status.TODO, null);
+    assertEquals(2, counters.stats(TODAY.plusDays(1)).getTotal());
+  }
+
+  @Test
+  void testMatches_ComparesWithGroupedCounts() {
+    put(1, Status.TODO, TODAY);
+    put(2, Status.TODO, TODAY);
+    put(3, null, null);
+
+    assertTrue(counters.matches(
+        List.of(new TaskCount(null, null, 1), new TaskCount(Status.TODO, TODAY, 2))));
+    assertFalse(counters.matches(
+        List.of(new TaskCount(null, null, 1), new TaskCount(Status.TODO, TODAY, 3))));
+    assertFalse(counters.matches(List.of(new TaskCount(Status.TODO, TODAY, 2))));
+    assertFalse(counters.matches(List.of(new TaskCount(null, null, 1),
+        new TaskCount(Status.TODO, TODAY, 2), new TaskCount(Status.DONE, TODAY, 1))));
+  }
+}
@@ -0,0 +1,65 @@
+package org.mikhi.taskM.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.mikhi.taskM.config.TaskStatsProperties;
+import org.mikhi.taskM.event.TaskChangedEvent;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+import org.mikhi.taskM.service.TaskService;
+
+class TaskStatsServiceTest {
+
+  private final TaskService taskService = mock(TaskService.class);
+  private final TaskStatsService statsService =
+      new TaskStatsService(taskService, new TaskStatsProperties());
+
+  private static Task task(long id, Status status) {
+    return Task.builder().id(id).title("Task " + id).status(status).build();
+  }
+
+  @Test
+  void testRebuild_DeleteDuringTheRebuildIsNotLost() {
+    Task deleted = task(1, Status.TODO);
+    // The stream was opened before the delete committed, so it still returns the task.
+    doAnswer(invocation -> {
+      Consumer<Task> consumer = invocation.getArgument(0);
+      statsService.onTaskChanged(TaskChangedEvent.deleted(1, deleted));
+      consumer.accept(deleted);
+      consumer.accept(task(2, Status.DONE));
+      return null;
+    }).when(taskService).streamAllTasks(any());
+
+    statsService.rebuild();
+
+    assertEquals(1, statsService.getStats().getTotal());
+    assertEquals(1, statsService.getStats().getByStatus().get(Status.DONE));
+  }
+
+  @Test
+  void testRebuild_UpdateDuringTheRebuildWins() {
+    doAnswer(invocation -> {
+      Consumer<Task> consumer = invocation.getArgument(0);
+      statsService.onTaskChanged(TaskChangedEvent.updated(task(1, Status.DONE)));
+      consumer.accept(task(1, Status.TODO));
+      return null;
+    }).when(taskService).streamAllTasks(any());
+
+    statsService.rebuild();
+
+    assertEquals(0, statsService.getStats().getByStatus().get(Status.TODO));
+    assertEquals(1, statsService.getStats().getByStatus().get(Status.DONE));
+  }
+
+  @Test
+  void testOnTaskChanged_AppliedAtOnceOutsideARebuild() {
+    statsService.onTaskChanged(TaskChangedEvent.created(task(1, Status.TODO)));
+
+    assertEquals(1, statsService.getStats().getTotal());
+  }
+}
@@ -0,0 +1,238 @@
+package org.mikhi.taskM.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mikhi.taskM.model.Status;
+import org.mikhi.taskM.model.Task;
+
+class TaskWriteAheadLogTest {
+
+  private static final int SEGMENT_SIZE = 4096;
+
+  @TempDir
+  Path directory;
+
+  private final List<TaskWriteAheadLog> opened = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    opened.forEach(TaskWriteAheadLog::close);
+  }
+
+  /**
+   * A minimal store: what the in-memory engine keeps, without the indexes.
+   */
+  private static class Store implements TaskJournal.Recovery {
+
+    final Map<Long, Task> tasks = new ConcurrentHashMap<>();
+    long highestId;
+
+    @Override
+    public void put(Task task) {
+      tasks.put(task.getId(), task);
+    }
+
+    @Override
+    public void delete(long id) {
+      tasks.remove(id);
+    }
+
+    @Override
+    public void idsUsedUpTo(long id) {
+      highestId = id;
+    }
+  }
+
+  private TaskWriteAheadLog open(Store store) {
+    TaskWriteAheadLog wal = new TaskWriteAheadLog(directory, SEGMENT_SIZE, Duration.ZERO, true);
+    wal.open(store, store.tasks.values());
+    opened.add(wal);
+    return wal;
+  }
+
+  private Store restart(TaskWriteAheadLog wal) {
+    wal.close();
+    Store recovered = new Store();
+    open(recovered);
+    return recovered;
+  }
+
+  private static Task task(long id, long version, String title) {
+    return Task.builder()
+        .id(id)
+        .version(version)
+        .title(title)
+        .description(id % 2 == 0 ? null : "Description " + id)
+        .status(id % 3 == 0 ? null : Status.values()[(int) (id % 3)])
+        .dueDate(id % 5 == 0 ? null : LocalDate.of(2024, 1, 1).plusDays(id))
+        .build();
+  }
+
+  private static void put(TaskWriteAheadLog wal, Store store, Task task) {
+    wal.put(task, () -> store.put(task));
+  }
+
+  private List<String> files(String prefix) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.map(file -> file.getFileName().toString())
+          .filter(name -> name.startsWith(prefix))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  @Test
+  void testRecover_ReplaysPutsAndDeletes() {
+    Store store = new Store();
+    TaskWriteAheadLog wal = open(store);
+    put(wal, store, task(1, 0, "First"));
+    put(wal, store, task(2, 0, "Second"));
+    put(wal, store, task(1, 1, "First, edited"));
+    wal.delete(2, () -> store.delete(2));
+
+    Store recovered = restart(wal);
+
+    assertEquals(store.tasks, recovered.tasks);
+    assertEquals("First, edited", recovered.tasks.get(1L).getTitle());
+    assertEquals(2, recovered.highestId);
+  }
+
+  @Test
+  void testRecover_AcrossSegments() throws IOException {
+    Store store = new Store();
+    TaskWriteAheadLog wal = open(store);
+    List<Task> batch = new ArrayList<>();
+    for (long id = 1; id <= 200; id++) {
+      batch.add(task(id, 0, "Task " + id));
+    }
+    wal.putAll(batch, () -> batch.forEach(store::put));
+
+    Store recovered = restart(wal);
+
+    assertTrue(files("wal-").size() > 2, "Expected the log to roll over segments");
+    assertEquals(store.tasks, recovered.tasks);
+  }
+
+  @Test
+  void testRecover_FromSnapshotAndNewerSegments() throws IOException {
+    Store store = new Store();
+    TaskWriteAheadLog wal = open(store);
+    for (long id = 1; id <= 100; id++) {
+      put(wal, store, task(id, 0, "Task " + id));
+    }
+    wal.delete(100, () -> store.delete(100));
+    wal.snapshot();
+    put(wal, store, task(1, 1, "Task 1, edited"));
+    wal.delete(2, () -> store.delete(2));
+
+    assertEquals(1, files("snapshot-").size());
+    Store recovered = restart(wal);
+
+    assertEquals(store.tasks, recovered.tasks);
+    assertFalse(recovered.tasks.containsKey(100L));
+    // The deleted task still counts, so its id is never handed out again.
+    assertEquals(100, recovered.highestId);
+  }
+
+  @Test
+  void testSnapshot_DeletesOlderSegments() throws IOException {
+    Store store = new Store();
+    TaskWriteAheadLog wal = open(store);
+    for (long id = 1; id <= 200; id++) {
+      put(wal, store, task(id, 0, "Task " + id));
+    }
+    List<String> before = files("wal-");
+
+    wal.snapshot();
+    wal.snapshot();
+
+    List<String> after = files("wal-");
+    assertEquals(1, after.size());
+    assertFalse(before.contains(after.get(0)));
+    assertEquals(1, files("snapshot-").size());
+    assertEquals(store.tasks, restart(wal).tasks);
+  }
+
+  @Test
+  void testRecover_IgnoresTornRecord() throws IOException {
+    Store store = new Store();
+    TaskWriteAheadLog wal = open(store);
+    put(wal, store, task(1, 0, "Kept"));
+    put(wal, store, task(2, 0, "Torn"));
+    wal.close();
+
+    // Corrupt the last byte of the second record, as a crash in the middle of a write would.
+    Path segment = directory.resolve(files("wal-").get(0));
+    int firstFrame = 8 + TaskRecords.put(task(1, 0, "Kept")).length;
+    int secondFrame = 8 + TaskRecords.put(task(2, 0, "Torn")).length;
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {0x7f}), firstFrame + secondFrame - 1);
+    }
+
+    Store recovered = new Store();
+    TaskWriteAheadLog reopened = open(recovered);
+    assertEquals(List.of(1L), new ArrayList<>(recovered.tasks.keySet()));
+
+    // Writes continue in a fresh segment and survive the next restart.
+    put(reopened, recovered, task(3, 0, "After crash"));
+    assertEquals(recovered.tasks, restart(reopened).tasks);
+  }
+
+  @Test
+  void testConcurrentWriters_AllRecordsRecovered() throws Exception {
+    Store store = new Store();
+    TaskWriteAheadLog wal = open(store);
+    ExecutorService writers = Executors.newFixedThreadPool(8);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int writer = 0; writer < 8; writer++) {
+      long first = writer * 100L + 1;
+      futures.add(writers.submit(() -> {
+        for (long id = first; id < first + 100; id++) {
+          put(wal, store, task(id, 0, "Task " + id));
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    writers.shutdown();
+
+    Store recovered = restart(wal);
+
+    assertEquals(800, recovered.tasks.size());
+    assertEquals(store.tasks, recovered.tasks);
+  }
+
+  @Test
+  void testRecordLargerThanSegment_IsRejectedWithoutApplying() {
+    Store store = new Store();
+    TaskWriteAheadLog wal = open(store);
+    Task huge = task(1, 0, "x".repeat(SEGMENT_SIZE));
+
+    assertThrows(IllegalArgumentException.class, () -> put(wal, store, huge));
+    assertTrue(store.tasks.isEmpty());
+  }
+}
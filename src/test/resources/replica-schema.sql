@@ -0,0 +1,10 @@
+-- Schema of the H2 databases standing in for read replicas in DataSource routing tests. Runs on
+-- every new connection, so it must be idempotent and must not insert rows.
+CREATE TABLE IF NOT EXISTS task (
+    id          BIGINT PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    description VARCHAR(1000),
+    status      VARCHAR(50),
+    due_date    DATE,
+    version     BIGINT DEFAULT 0 NOT NULL
+);